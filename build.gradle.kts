@@ -371,6 +371,18 @@ tasks.named("tsDefs") {
   dependsOn("getRevision")
 }
 
+val dataSnapshot =
+  tasks.register<JavaExec>("dataSnapshot") {
+    val output = layout.buildDirectory.dir("snapshot")
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("net.sourceforge.kolmafia.utilities.DataSnapshot")
+    inputs.dir("src/data")
+    outputs.dir(output)
+    doFirst {
+      args("src/data", output.get().file("data/snapshot.bin").asFile.path)
+    }
+  }
+
 tasks.jpackage {
   dependsOn("shadowJar", "cleanJpackage")
   input = file("dist")
@@ -407,9 +419,11 @@ tasks.named("pruneDist") {
 // Note that pruneDist relies on getRevision.
 tasks.jar {
   dependsOn("pruneDist")
+  from(dataSnapshot)
 }
 tasks.shadowJar {
   dependsOn("pruneDist")
+  from(dataSnapshot)
 }
 
 tasks.startShadowScripts {
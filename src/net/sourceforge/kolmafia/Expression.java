@@ -1,7 +1,15 @@
 package net.sourceforge.kolmafia;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.sourceforge.kolmafia.modifiers.DoubleModifier;
@@ -31,8 +39,38 @@ public class Expression {
 
   private char[] bytecode; // Compiled expression
   private ArrayList<Object> literals; // Strings & floats needed by expression
+  private Object[] resolved; // What each literal names, once looked up
   protected AdventureResult effect;
 
+  // The kinds of state which an expression reads. Anything not otherwise listed is CHARACTER.
+  public enum Dependency {
+    PREFERENCES,
+    INVENTORY,
+    EFFECTS,
+    TURNS,
+    CHARACTER
+  }
+
+  private final Set<Dependency> dependencies = EnumSet.noneOf(Dependency.class);
+  private final Set<String> preferences = new HashSet<>();
+
+  // The value last calculated by an expression which reads nothing but preferences, and the
+  // preference modification count at the time.
+  private record Cached(long modifications, double value) {}
+
+  private volatile Cached cached = null;
+
+  // A pref() reference, split into the preference name and the text it is tested for, if any
+  private record PreferenceReference(String name, String contains) {}
+
+  // Opcodes which take their argument from the literal table
+  private static final String LITERAL_OPS = "#bdeghijklnopvwz\u0092\u0093\u0096\u008a";
+  // Opcodes which only calculate from their arguments, and so can be evaluated at compile time
+  private static final String UNARY_OPS = "acfs";
+  private static final String BINARY_OPS = "+-*/%^mx<≤>≥=≠";
+  private static final String CONSTANT_LITERAL_OPS = "#\u0096\u008a";
+  private static final Set<Dependency> PREFERENCES_ONLY = EnumSet.of(Dependency.PREFERENCES);
+
   // If non-null, contains concatenated error strings from compiling bytecode
   private StringBuilder error = null;
 
@@ -90,6 +128,11 @@ public class Expression {
       buf.append(this.text);
     }
     this.text = null;
+
+    if (!this.hasErrors()) {
+      this.foldConstants();
+    }
+    this.resolveLiterals();
   }
 
   public static Expression getInstance(String text, String name) {
@@ -109,7 +152,19 @@ public class Expression {
 
   public double eval(ExpressionOverrides overrides) {
     try {
-      return this.evalInternal(overrides);
+      if (overrides != ExpressionOverrides.NONE || !this.readsOnlyPreferences()) {
+        return this.evalInternal(overrides);
+      }
+
+      // Nothing this expression reads can have changed unless a preference has
+      long modifications = this.dependencies.isEmpty() ? 0 : Preferences.getModificationCount();
+      Cached cached = this.cached;
+      if (cached != null && cached.modifications() == modifications) {
+        return cached.value();
+      }
+      double value = this.evalInternal(overrides);
+      this.cached = new Cached(modifications, value);
+      return value;
     } catch (ArrayIndexOutOfBoundsException e) {
       KoLmafia.updateDisplay("Unreasonably complex expression for " + this.name + ": " + e);
     } catch (RuntimeException e) {
@@ -125,13 +180,17 @@ public class Expression {
   }
 
   public double evalInternal(ExpressionOverrides overrides) {
+    return this.run(this.bytecode, overrides);
+  }
+
+  private double run(char[] bytecode, ExpressionOverrides overrides) {
     double[] s = stackFactory(null);
     int sp = 0;
     int pc = 0;
     double v = 0.0;
 
     while (true) {
-      char inst = this.bytecode[pc++];
+      char inst = bytecode[pc++];
       switch (inst) {
         case 'r' -> {
           v = s[--sp];
@@ -171,27 +230,23 @@ public class Expression {
         case '=' -> v = s[--sp] == s[--sp] ? 1 : 0;
         case '≠' -> v = s[--sp] != s[--sp] ? 1 : 0;
         case 'o' -> {
-          var token = (String) this.literals.get((int) s[--sp]);
           var item =
-              StringUtilities.isNumeric(token)
-                  ? ItemPool.get(StringUtilities.parseInt(token))
-                  : ItemPool.get(token);
+              this.resolve(
+                  (int) s[--sp],
+                  token ->
+                      StringUtilities.isNumeric(token)
+                          ? ItemPool.get(StringUtilities.parseInt(token))
+                          : ItemPool.get(token),
+                  known -> known.getItemId() != -1);
           // To replicate KoL's internal haveitem(), we only check the inventory.
           v = InventoryManager.getCount(item);
         }
         case 'p' -> {
-          String first = (String) this.literals.get((int) s[--sp]);
-          String second = null;
-          int commaIndex = first.indexOf(",");
-          if (commaIndex > -1) {
-            second = first.substring(commaIndex + 1);
-            first = first.substring(0, commaIndex);
-          }
-          final String prefName = first;
+          PreferenceReference pref = this.preference((int) s[--sp]);
           String prefString =
-              overrides.pref(prefName).orElseGet(() -> Preferences.getString(prefName));
-          if (second != null) {
-            v = prefString.contains(second) ? 1 : 0;
+              overrides.pref(pref.name()).orElseGet(() -> Preferences.getString(pref.name()));
+          if (pref.contains() != null) {
+            v = prefString.contains(pref.contains()) ? 1 : 0;
           } else {
             v =
                 prefString.contains("true")
@@ -211,48 +266,60 @@ public class Expression {
 
         // Valid with ModifierExpression:
         case 'b' -> {
-          String elem = (String) this.literals.get((int) s[--sp]);
-          Element element = Element.fromString(elem);
-          v = KoLCharacter.currentNumericModifier(ModifierDatabase.elementalResistance(element));
+          DoubleModifier resistance =
+              this.resolve(
+                  (int) s[--sp],
+                  elem -> ModifierDatabase.elementalResistance(Element.fromString(elem)),
+                  Objects::nonNull);
+          v = KoLCharacter.currentNumericModifier(resistance);
         }
         case 'd' -> {
-          String skillName = (String) this.literals.get((int) s[--sp]);
-          if (StringUtilities.isNumeric(skillName)) {
-            int skillId = StringUtilities.parseInt(skillName);
-            skillName = SkillDatabase.getSkillName(skillId);
-          }
-          v = KoLCharacter.hasSkill(skillName) ? 1 : 0;
+          String skillName =
+              this.resolve(
+                  (int) s[--sp],
+                  skill ->
+                      StringUtilities.isNumeric(skill)
+                          ? SkillDatabase.getSkillName(StringUtilities.parseInt(skill))
+                          : skill,
+                  Objects::nonNull);
+          v = ModifierContext.current().hasSkill(SkillDatabase.getSkillId(skillName)) ? 1 : 0;
         }
         case 'e' -> {
-          String effectName = (String) this.literals.get((int) s[--sp]);
-          // If effect name is a number, convert to name
-          int effectId =
-              (StringUtilities.isNumeric(effectName))
-                  ? StringUtilities.parseInt(effectName)
-                  : EffectDatabase.getEffectId(effectName);
-          AdventureResult eff = EffectPool.get(effectId);
-          v = Math.max(0, eff.getCount(KoLConstants.activeEffects));
+          AdventureResult eff =
+              this.resolve(
+                  (int) s[--sp],
+                  // If effect name is a number, convert to name
+                  effectName ->
+                      EffectPool.get(
+                          (StringUtilities.isNumeric(effectName))
+                              ? StringUtilities.parseInt(effectName)
+                              : EffectDatabase.getEffectId(effectName)),
+                  known -> known.getEffectId() != -1);
+          v = Math.max(0, eff.getCount(ModifierContext.current().getActiveEffects()));
         }
         case 'g' -> {
-          String itemName = (String) this.literals.get((int) s[--sp]);
-          int itemId = ItemDatabase.getItemId(itemName);
-          AdventureResult item = ItemPool.get(itemId);
+          AdventureResult item =
+              this.resolve(
+                  (int) s[--sp],
+                  itemName -> ItemPool.get(ItemDatabase.getItemId(itemName)),
+                  known -> known.getItemId() != -1);
           v = KoLCharacter.hasEquipped(item) ? 1 : 0;
         }
         case 'h' ->
             v =
-                Modifiers.mainhandClass.equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
+                Modifiers.getMainhandClass()
+                        .equalsIgnoreCase((String) this.literals.get((int) s[--sp]))
                     ? 1
                     : 0;
         case 'i' ->
             v =
                 FamiliarDatabase.hasAttribute(
-                        Modifiers.currentFamiliar, (String) this.literals.get((int) s[--sp]))
+                        Modifiers.getCurrentFamiliar(), (String) this.literals.get((int) s[--sp]))
                     ? 1
                     : 0;
         case 'j' ->
             v =
-                Modifiers.currentEnvironment.equalsIgnoreCase(
+                Modifiers.getCurrentEnvironment().equalsIgnoreCase(
                         (String) this.literals.get((int) s[--sp]))
                     ? 1
                     : 0;
@@ -265,7 +332,7 @@ public class Expression {
                     : 0;
         case 'l' ->
             v =
-                Modifiers.currentLocation.equalsIgnoreCase(
+                Modifiers.getCurrentLocation().equalsIgnoreCase(
                         (String) this.literals.get((int) s[--sp]))
                     ? 1
                     : 0;
@@ -278,16 +345,19 @@ public class Expression {
           v = KoLCharacter.getAscensionClassName().equalsIgnoreCase(input) ? 1 : 0;
         }
         case 'w' -> {
-          String fam = (String) this.literals.get((int) s[--sp]);
           String familiarName =
-              (StringUtilities.isNumeric(fam))
-                  ? FamiliarDatabase.getFamiliarName(StringUtilities.parseInt(fam))
-                  : fam;
-          v = Modifiers.currentFamiliar.equalsIgnoreCase(familiarName) ? 1 : 0;
+              this.resolve(
+                  (int) s[--sp],
+                  fam ->
+                      (StringUtilities.isNumeric(fam))
+                          ? FamiliarDatabase.getFamiliarName(StringUtilities.parseInt(fam))
+                          : fam,
+                  Objects::nonNull);
+          v = Modifiers.getCurrentFamiliar().equalsIgnoreCase(familiarName) ? 1 : 0;
         }
         case 'z' -> {
           String expressionZone = (String) this.literals.get((int) s[--sp]);
-          String currentZone = Modifiers.currentZone;
+          String currentZone = Modifiers.getCurrentZone();
           v = 0;
           while (true) {
             if (currentZone.equalsIgnoreCase(expressionZone)) {
@@ -353,14 +423,14 @@ public class Expression {
         // Valid with ModifierExpression and MonsterExpression:
         case '\u0092' -> {
           AscensionPath.Path p =
-              AscensionPath.nameToPath((String) this.literals.get((int) s[--sp]));
+              this.resolve((int) s[--sp], AscensionPath::nameToPath, Objects::nonNull);
           v = KoLCharacter.getPath() == p ? 1 : 0;
         }
         // Valid with ModifierExpression:
         case '\u0093' -> {
           Modifiers mods = KoLCharacter.getCurrentModifiers();
-          String modName = (String) this.literals.get((int) s[--sp]);
-          DoubleModifier modifier = DoubleModifier.byCaselessName(modName);
+          DoubleModifier modifier =
+              this.resolve((int) s[--sp], DoubleModifier::byCaselessName, Objects::nonNull);
           v = mods.getAccumulator(modifier);
         }
         // Valid with ModifierExpression:
@@ -381,7 +451,7 @@ public class Expression {
         // Valid with Modifier Expression:
         case '\u008b' ->
             v =
-                switch (FamiliarDatabase.getFamiliarId(Modifiers.currentFamiliar)) {
+                switch (FamiliarDatabase.getFamiliarId(Modifiers.getCurrentFamiliar())) {
                   case FamiliarPool.AUTONOMOUS_DISCO_BALL,
                       FamiliarPool.CLOCKWORK_GRAPEFRUIT,
                       FamiliarPool.PRESSIE,
@@ -413,7 +483,7 @@ public class Expression {
         // Valid with Modifier Expression:
         case '\u008c' -> v = KoLCharacter.getTurnsPlayed();
         case '\u008d' -> v = KoLCharacter.getParadoxicity();
-        case '\u008e' -> v = overrides.unarmed().orElse(Modifiers.unarmed) ? 1 : 0;
+        case '\u008e' -> v = overrides.unarmed().orElse(Modifiers.isUnarmed()) ? 1 : 0;
         // Valid with Modifier Expression:
         case '\u0097' -> v = KoLCharacter.getBaseMuscle();
 
@@ -428,7 +498,7 @@ public class Expression {
         case 'D' -> v = KoLCharacter.getInebriety();
         case 'E' -> {
           v =
-              KoLConstants.activeEffects.stream()
+              ModifierContext.current().getActiveEffects().stream()
                   .map(AdventureResult::getCount)
                   .filter(d -> d < Integer.MAX_VALUE)
                   .count();
@@ -436,10 +506,10 @@ public class Expression {
         }
         case 'F' -> v = KoLCharacter.getFullness();
         case 'G' -> v = HolidayDatabase.getGrimaciteEffect() / 10.0;
-        case 'H' -> v = Modifiers.hoboPower;
+        case 'H' -> v = Modifiers.getHoboPower();
         case 'I' -> v = KoLCharacter.getDiscoMomentum();
         case 'J' -> v = HolidayDatabase.getHoliday().contains("Festival of Jarlsberg") ? 1.0 : 0.0;
-        case 'K' -> v = Modifiers.smithsness;
+        case 'K' -> v = Modifiers.getSmithsness();
         case 'L' -> v = KoLCharacter.getLevel();
         case 'M' -> v = HolidayDatabase.getMoonlight();
         case 'N' -> v = KoLCharacter.getAudience();
@@ -450,9 +520,10 @@ public class Expression {
             v =
                 this.effect == null
                     ? 0.0
-                    : Math.max(1, this.effect.getCount(KoLConstants.activeEffects));
+                    : Math.max(
+                        1, this.effect.getCount(ModifierContext.current().getActiveEffects()));
         case 'U' -> v = KoLCharacter.getTelescopeUpgrades();
-        case 'W' -> v = Modifiers.currentWeight;
+        case 'W' -> v = Modifiers.getCurrentWeight();
         case 'X' -> v = KoLCharacter.getGender().modifierValue;
         case 'Y' -> v = KoLCharacter.getFury();
         default -> {
@@ -461,7 +532,7 @@ public class Expression {
             break;
           }
           throw new RuntimeException(
-              "Evaluator bytecode invalid at " + (pc - 1) + ": " + String.valueOf(this.bytecode));
+              "Evaluator bytecode invalid at " + (pc - 1) + ": " + String.valueOf(bytecode));
         }
       }
       s[sp++] = v;
@@ -668,11 +739,7 @@ public class Expression {
     if (m.matches()) {
       double v = Double.parseDouble(m.group(1));
       this.text = m.group(2);
-      if (v % 1.0 == 0.0 && v >= -0x7F00 && v < 0x8000 && doesNotCollide((int) v)) {
-        return String.valueOf((char) ((int) v + 0x8000));
-      } else {
-        return this.literal(v, '#');
-      }
+      return this.number(v);
     }
     if (this.optional("-")) {
       return this.value() + "\u8000-";
@@ -685,11 +752,19 @@ public class Expression {
     return "\u8000";
   }
 
+  private String number(double v) {
+    if (v % 1.0 == 0.0 && v >= -0x7F00 && v < 0x8000 && doesNotCollide((int) v)) {
+      return String.valueOf((char) ((int) v + 0x8000));
+    } else {
+      return this.literal(v, '#');
+    }
+  }
+
   // Nominally, we reserve the ASCII range for expression symbols, then map [-32512, 32767) onto the
   // char space to compress the resulting expression. However, we use a few other special characters
   // to express mathematical operations, and so these values should also be considered ineligible
   // for the compressed integer representation.
-  private boolean doesNotCollide(int v) {
+  private static boolean doesNotCollide(int v) {
     switch (v + 0x8000) {
       case '≤':
       case '≥':
@@ -699,10 +774,140 @@ public class Expression {
     return true;
   }
 
+  // Whether a bytecode is a number or the index of a literal, rather than an operation
+  private static boolean isValue(char inst) {
+    return inst > '\u00FF' && doesNotCollide(inst - 0x8000);
+  }
+
   protected String function() {
     return null;
   }
 
+  // The bytecode which pushes one value on the stack, and whether that value is always the same
+  private record Part(String code, boolean constant) {}
+
+  // Replace each part of the compiled expression which reads no state with the value it calculates
+  private void foldConstants() {
+    ArrayDeque<Part> stack = new ArrayDeque<>();
+    for (int i = 0; i < this.bytecode.length - 1; i++) {
+      char inst = this.bytecode[i];
+      if (isValue(inst)) {
+        // A number, or the index of a literal for the next instruction
+        stack.push(new Part(String.valueOf(inst), true));
+      } else if (inst == '#') {
+        Part arg = stack.pop();
+        stack.push(new Part(arg.code() + inst, arg.constant()));
+      } else if (LITERAL_OPS.indexOf(inst) != -1) {
+        Part arg = stack.pop();
+        stack.push(this.fold(arg.code() + inst, CONSTANT_LITERAL_OPS.indexOf(inst) != -1));
+      } else if (UNARY_OPS.indexOf(inst) != -1) {
+        Part arg = stack.pop();
+        stack.push(this.fold(arg.code() + inst, arg.constant()));
+      } else if (BINARY_OPS.indexOf(inst) != -1) {
+        Part second = stack.pop();
+        Part first = stack.pop();
+        stack.push(
+            this.fold(first.code() + second.code() + inst, first.constant() && second.constant()));
+      } else {
+        stack.push(new Part(String.valueOf(inst), false));
+      }
+    }
+
+    if (stack.size() == 1) {
+      this.bytecode = (stack.pop().code() + "r").toCharArray();
+    }
+  }
+
+  private Part fold(String code, boolean constant) {
+    if (!constant) {
+      return new Part(code, false);
+    }
+
+    double v;
+    try {
+      v = this.run((code + "r").toCharArray(), ExpressionOverrides.NONE);
+    } catch (RuntimeException e) {
+      // Leave it to be reported when the expression is evaluated
+      return new Part(code, false);
+    }
+    return new Part(this.number(v), true);
+  }
+
+  // Record what the compiled expression reads, and parse the literals which can be parsed now
+  private void resolveLiterals() {
+    this.resolved = new Object[this.literals == null ? 0 : this.literals.size()];
+
+    for (int i = 0; i < this.bytecode.length - 1; i++) {
+      char inst = this.bytecode[i];
+      if (isValue(inst)
+          || UNARY_OPS.indexOf(inst) != -1
+          || BINARY_OPS.indexOf(inst) != -1
+          || CONSTANT_LITERAL_OPS.indexOf(inst) != -1) {
+        continue;
+      }
+
+      switch (inst) {
+        case 'p' -> {
+          this.dependencies.add(Dependency.PREFERENCES);
+          this.preferences.add(this.preference(this.bytecode[i - 1] - 0x8000).name());
+        }
+        case 'o' -> this.dependencies.add(Dependency.INVENTORY);
+        case 'e', 'E', 'T' -> this.dependencies.add(Dependency.EFFECTS);
+        case 't', '\u008c' -> this.dependencies.add(Dependency.TURNS);
+        default -> this.dependencies.add(Dependency.CHARACTER);
+      }
+    }
+  }
+
+  // Look up what a literal names. Once it names something known, the lookup need not be repeated.
+  @SuppressWarnings("unchecked")
+  private <T> T resolve(int index, Function<String, T> resolver, Predicate<? super T> known) {
+    Object value = this.resolved[index];
+    if (value != null) {
+      return (T) value;
+    }
+    T result = resolver.apply((String) this.literals.get(index));
+    if (known.test(result)) {
+      this.resolved[index] = result;
+    }
+    return result;
+  }
+
+  private PreferenceReference preference(int index) {
+    return this.resolve(
+        index,
+        pref -> {
+          int commaIndex = pref.indexOf(",");
+          return commaIndex > -1
+              ? new PreferenceReference(
+                  pref.substring(0, commaIndex), pref.substring(commaIndex + 1))
+              : new PreferenceReference(pref, null);
+        },
+        Objects::nonNull);
+  }
+
+  private boolean readsOnlyPreferences() {
+    return PREFERENCES_ONLY.containsAll(this.dependencies);
+  }
+
+  /**
+   * Returns the kinds of state this expression reads. An expression which reads nothing always has
+   * the same value.
+   */
+  public Set<Dependency> getDependencies() {
+    return Collections.unmodifiableSet(this.dependencies);
+  }
+
+  /** Returns the names of the preferences this expression reads. */
+  public Set<String> getPreferences() {
+    return Collections.unmodifiableSet(this.preferences);
+  }
+
+  // for testing
+  String getBytecode() {
+    return String.valueOf(this.bytecode);
+  }
+
   protected void combine(Expression other, char combiner) {
     if (this.getClass() != other.getClass()) {
       throw new IllegalArgumentException("Cannot combine expressions of different types");
@@ -734,13 +939,15 @@ public class Expression {
     bytecode = Arrays.copyOf(this.bytecode, this.bytecode.length + other.bytecode.length);
     System.arraycopy(other.bytecode, 0, bytecode, bytecodeOffset, other.bytecode.length);
 
-    if (this.literals == null) {
-      this.literals = other.literals;
-    } else {
+    if (other.literals != null) {
+      if (this.literals == null) {
+        this.literals = new ArrayList<>();
+      }
       char literalOffset = (char) this.literals.size();
       this.literals.addAll(other.literals);
-      for (int i = bytecodeOffset; i < bytecode.length; i++) {
-        if (other.bytecode[i] > '\u00FF') {
+      // Only literal indexes move, not numbers
+      for (int i = 0; i < other.bytecode.length - 1; i++) {
+        if (LITERAL_OPS.indexOf(other.bytecode[i + 1]) != -1) {
           bytecode[bytecodeOffset + i] += literalOffset;
         }
       }
@@ -748,5 +955,10 @@ public class Expression {
 
     this.bytecode[this.bytecode.length - 2] = combiner;
     this.bytecode[this.bytecode.length - 1] = 'r';
+
+    this.resolved = Arrays.copyOf(this.resolved, this.literals == null ? 0 : this.literals.size());
+    this.dependencies.addAll(other.dependencies);
+    this.preferences.addAll(other.preferences);
+    this.cached = null;
   }
 }
@@ -1,6 +1,7 @@
 package net.sourceforge.kolmafia;
 
 import java.awt.Taskbar;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -341,6 +342,12 @@ public abstract class KoLCharacter {
   private static final PreferenceModifiers voteMods =
       new PreferenceModifiers("_voteModifier", ModifierType.LOCAL_VOTE);
 
+  // Constant modifiers from sources which seldom change are summed once and reused
+  private static final ModifierSourceGroup effectMods =
+      new ModifierSourceGroup(new Lookup(ModifierType.EFFECT, -1));
+  private static final ModifierSourceGroup campgroundMods =
+      new ModifierSourceGroup(new Lookup(ModifierType.ITEM, -1));
+
   // Status pane data which is rendered whenever
   // the user changes equipment, effects, and familiar
 
@@ -2203,7 +2210,7 @@ public abstract class KoLCharacter {
   /** Accessor method to retrieve the total current combat percent adjustment */
   public static final double getCombatRateAdjustment() {
     double rate = KoLCharacter.currentModifiers.getDouble(DoubleModifier.COMBAT_RATE);
-    if (AdventureDatabase.isUnderwater(Modifiers.currentLocation)) {
+    if (AdventureDatabase.isUnderwater(Modifiers.getCurrentLocation())) {
       rate += KoLCharacter.currentModifiers.getDouble(DoubleModifier.UNDERWATER_COMBAT_RATE);
     }
     return rate;
@@ -5071,16 +5078,17 @@ public abstract class KoLCharacter {
     Modifiers newModifiers = debug ? new DebugModifiers() : new Modifiers();
     Modifiers.setFamiliar(familiar);
     AdventureResult weapon = equipment.get(Slot.WEAPON);
-    Modifiers.mainhandClass =
-        weapon == null ? "" : EquipmentDatabase.getItemType(weapon.getItemId());
+    Modifiers.setMainhandClass(
+        weapon == null ? "" : EquipmentDatabase.getItemType(weapon.getItemId()));
     AdventureResult offhand = equipment.get(Slot.OFFHAND);
-    Modifiers.unarmed =
+    Modifiers.setUnarmed(
         (weapon == null || weapon == EquipmentRequest.UNEQUIP)
-            && (offhand == null || offhand == EquipmentRequest.UNEQUIP);
+            && (offhand == null || offhand == EquipmentRequest.UNEQUIP));
 
     // Area-specific adjustments
-    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.LOC, Modifiers.currentLocation));
-    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.ZONE, Modifiers.currentZone));
+    newModifiers.add(
+        ModifierDatabase.getModifiers(ModifierType.LOC, Modifiers.getCurrentLocation()));
+    newModifiers.add(ModifierDatabase.getModifiers(ModifierType.ZONE, Modifiers.getCurrentZone()));
 
     // Look at sign-specific adjustments
     newModifiers.addDouble(
@@ -5133,7 +5141,7 @@ public abstract class KoLCharacter {
                   newModifiers.addDouble(
                       DoubleModifier.INITIATIVE, level * 20, ModifierType.EL_VIBRATO, "SELF");
               case 8 -> {
-                if (Modifiers.currentFamiliar.contains("megadrone")) {
+                if (Modifiers.getCurrentFamiliar().contains("megadrone")) {
                   newModifiers.addDouble(
                       DoubleModifier.FAMILIAR_WEIGHT, level * 10, ModifierType.EL_VIBRATO, "DRONE");
                 }
@@ -5154,7 +5162,7 @@ public abstract class KoLCharacter {
     }
 
     // Store some modifiers as statics
-    Modifiers.smithsness = KoLCharacter.getSmithsnessModifier(equipment, effects);
+    Modifiers.setSmithsness(KoLCharacter.getSmithsnessModifier(equipment, effects));
 
     // Look at items
     for (var slot : SlotSet.SLOTS) {
@@ -5249,9 +5257,13 @@ public abstract class KoLCharacter {
     // For the sake of easier maintenance, execute a lot of extra
     // string comparisons when looking at status effects.
 
+    List<Modifiers> effectSources = new ArrayList<>(effects.size());
     for (AdventureResult effect : effects) {
-      newModifiers.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
+      effectSources.add(ModifierDatabase.getEffectModifiers(effect.getEffectId()));
     }
+    KoLCharacter.effectMods.addTo(newModifiers, effectSources, debug);
+
+    List<Modifiers> campgroundSources = new ArrayList<>();
 
     // Add modifiers from campground equipment.
     for (AdventureResult item : KoLConstants.campground) {
@@ -5260,18 +5272,20 @@ public abstract class KoLCharacter {
         continue;
       }
       for (int count = item.getCount(); count > 0; --count) {
-        newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
+        campgroundSources.add(ModifierDatabase.getItemModifiers(item.getItemId()));
       }
     }
 
     // Add modifiers from Chateau
     for (AdventureResult item : KoLConstants.chateau) {
-      newModifiers.add(ModifierDatabase.getItemModifiers(item.getItemId()));
+      campgroundSources.add(ModifierDatabase.getItemModifiers(item.getItemId()));
     }
 
     // Add modifiers from dwelling
     AdventureResult dwelling = CampgroundRequest.getCurrentDwelling();
-    newModifiers.add(ModifierDatabase.getItemModifiers(dwelling.getItemId()));
+    campgroundSources.add(ModifierDatabase.getItemModifiers(dwelling.getItemId()));
+
+    KoLCharacter.campgroundMods.addTo(newModifiers, campgroundSources, debug);
 
     if (InventoryManager.getCount(ItemPool.COMFY_BLANKET) > 0) {
       newModifiers.add(ModifierDatabase.getItemModifiers(ItemPool.COMFY_BLANKET));
@@ -5344,9 +5358,9 @@ public abstract class KoLCharacter {
     newModifiers.add(fightMods);
 
     // Store some modifiers as statics
-    Modifiers.hoboPower = newModifiers.getDouble(DoubleModifier.HOBO_POWER);
+    Modifiers.setHoboPower(newModifiers.getDouble(DoubleModifier.HOBO_POWER));
 
-    if (Modifiers.currentLocation.equals("The Slime Tube")) {
+    if (Modifiers.getCurrentLocation().equals("The Slime Tube")) {
       int hatred = (int) newModifiers.getDouble(DoubleModifier.SLIME_HATES_IT);
       if (hatred > 0) {
         newModifiers.addDouble(
@@ -5358,14 +5372,14 @@ public abstract class KoLCharacter {
     }
 
     var seadentWaveZone = Preferences.getString("_seadentWaveZone");
-    if (!seadentWaveZone.isEmpty() && Modifiers.currentLocation.equals(seadentWaveZone)) {
+    if (!seadentWaveZone.isEmpty() && Modifiers.getCurrentLocation().equals(seadentWaveZone)) {
       // this is a bonus of +30 to item, probably the same for meat + init
       newModifiers.addDouble(DoubleModifier.ITEMDROP, 30, ModifierType.LOC, "Summon a Wave");
       newModifiers.addDouble(DoubleModifier.MEATDROP, 30, ModifierType.LOC, "Summon a Wave");
       newModifiers.addDouble(DoubleModifier.INITIATIVE, 30, ModifierType.LOC, "Summon a Wave");
     }
 
-    if (AdventureDatabase.isUnderwater(Modifiers.currentLocation)) {
+    if (AdventureDatabase.isUnderwater(Modifiers.getCurrentLocation())) {
       if (!Preferences.getString("seahorseName").isEmpty()) {
         newModifiers.addDouble(
             DoubleModifier.INITIATIVE, 100, ModifierType.SEAHORSE, "Tamed seahorse");
@@ -5478,8 +5492,8 @@ public abstract class KoLCharacter {
     // Water level impacts experience adjustment.
     if (KoLCharacter.inRaincore()) {
       int WL = 1;
-      if (Modifiers.currentLocation != null) {
-        KoLAdventure location = AdventureDatabase.getAdventure(Modifiers.currentLocation);
+      if (Modifiers.getCurrentLocation() != null) {
+        KoLAdventure location = AdventureDatabase.getAdventure(Modifiers.getCurrentLocation());
         if (location != null) {
           WL = location.getWaterLevel();
         }
@@ -5640,7 +5654,7 @@ public abstract class KoLCharacter {
             EffectPool.STEELY_EYED_SQUINT);
       }
     }
-    if (Modifiers.currentZone.equals("Shadow Rift")) {
+    if (Modifiers.getCurrentZone().equals("Shadow Rift")) {
       newModifiers.addDouble(
           DoubleModifier.ITEMDROP,
           // It includes your current familiar
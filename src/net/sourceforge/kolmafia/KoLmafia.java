@@ -39,6 +39,7 @@ import net.sourceforge.kolmafia.objectpool.SkillPool;
 import net.sourceforge.kolmafia.persistence.BountyDatabase;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
 import net.sourceforge.kolmafia.persistence.ConsumablesDatabase;
+import net.sourceforge.kolmafia.persistence.DatabaseStartup;
 import net.sourceforge.kolmafia.persistence.EffectDatabase;
 import net.sourceforge.kolmafia.persistence.EquipmentDatabase;
 import net.sourceforge.kolmafia.persistence.FamiliarDatabase;
@@ -307,6 +308,10 @@ public abstract class KoLmafia {
 
     KoLmafia.checkDataOverrides();
 
+    // Load the databases now, reading their data files in parallel
+
+    DatabaseStartup.load();
+
     // Create an images directory if necessary
     KoLConstants.IMAGE_LOCATION.mkdirs();
 
@@ -15,6 +15,7 @@ import net.sourceforge.kolmafia.listener.PreferenceListenerRegistry;
 import net.sourceforge.kolmafia.persistence.Aliases;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.request.LoginRequest;
+import net.sourceforge.kolmafia.scripts.ScriptFileIndex;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 // CHECKSTYLE.SUPPRESS: AvoidStarImport
 import net.sourceforge.kolmafia.textui.command.*;
@@ -30,6 +31,11 @@ public class KoLmafiaCLI {
   private static final Pattern HEAD_PATTERN = Pattern.compile("<head>.*?</head>", Pattern.DOTALL);
   private static final Pattern COMMENT_PATTERN = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
 
+  private static final ScriptFileIndex SCRIPT_INDEX =
+      ScriptFileIndex.of(KoLConstants.SCRIPT_LOCATION);
+  private static final ScriptFileIndex RELAY_INDEX =
+      ScriptFileIndex.of(KoLConstants.RELAY_LOCATION);
+
   private final LinkedList<String> queuedLines = new LinkedList<>();
   private final CommandRetrieverThread retriever = new CommandRetrieverThread();
   private final CommandProcessorThread processor = new CommandProcessorThread();
@@ -946,7 +952,11 @@ public class KoLmafiaCLI {
     KoLmafiaCLI.findScriptFile(KoLConstants.ROOT_LOCATION, filename, matches, false);
 
     if (KoLConstants.SCRIPT_LOCATION.exists()) {
-      KoLmafiaCLI.findScriptFile(KoLConstants.SCRIPT_LOCATION, filename, matches, true);
+      KoLmafiaCLI.findScriptFile(
+          KoLmafiaCLI.SCRIPT_INDEX,
+          KoLConstants.SCRIPT_LOCATION,
+          filename,
+          matches);
     }
 
     if (KoLConstants.PLOTS_LOCATION.exists()) {
@@ -954,7 +964,11 @@ public class KoLmafiaCLI {
     }
 
     if (KoLConstants.RELAY_LOCATION.exists()) {
-      KoLmafiaCLI.findScriptFile(KoLConstants.RELAY_LOCATION, filename, matches, true);
+      KoLmafiaCLI.findScriptFile(
+          KoLmafiaCLI.RELAY_INDEX,
+          KoLConstants.RELAY_LOCATION,
+          filename,
+          matches);
     }
 
     // Only if we get here and there are no matches do we recursively try again, adding some
@@ -971,6 +985,19 @@ public class KoLmafiaCLI {
     return matches;
   }
 
+  private static void findScriptFile(
+      final ScriptFileIndex index,
+      final File directory,
+      final String filename,
+      final List<File> matches) {
+    List<File> indexed = index.find(filename);
+    if (indexed != null) {
+      matches.addAll(indexed);
+    } else {
+      KoLmafiaCLI.findScriptFile(directory, filename, matches, true);
+    }
+  }
+
   private static void findScriptFile(
       final File directory,
       final String filename,
@@ -0,0 +1,128 @@
+package net.sourceforge.kolmafia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.sourceforge.kolmafia.utilities.IntOrString;
+import net.sourceforge.kolmafia.utilities.TwoLevelEnumHashMap;
+
+/*
+ * Character state that KoLCharacter.recalculateAdjustments() records while it builds a Modifiers
+ * object, and which modifier expressions ([W], [K], [H], ...) read back while it is being built.
+ *
+ * Ordinarily every thread shares a single context. A thread which speculates about equipment
+ * concurrently with other threads (see ParallelSearch) can confine itself to a private copy of a
+ * snapshot of the shared context, so that it neither sees nor disturbs the calculations of other
+ * threads. The snapshot also holds the location and a copy of the character's effects and skills,
+ * taken on the thread which forks, so that the speculation does not read them while they change.
+ * While confined, variable modifiers are also re-evaluated into private copies rather than into
+ * the objects cached by ModifierDatabase.
+ */
+public class ModifierContext {
+  private static final ModifierContext SHARED = new ModifierContext();
+  private static final ThreadLocal<ModifierContext> CONFINED = new ThreadLocal<>();
+
+  String currentFamiliar = "";
+  String mainhandClass = "";
+  double hoboPower = 0.0;
+  double smithsness = 0.0;
+  double currentWeight = 0.0;
+  boolean unarmed = false;
+
+  String currentLocation = "";
+  String currentZone = "";
+  String currentEnvironment = "";
+  double currentML = 4.0;
+
+  // The shared context reads these live from the character
+  private final List<AdventureResult> activeEffects;
+  private final Set<Integer> availableSkills;
+
+  private final TwoLevelEnumHashMap<ModifierType, IntOrString, Modifiers> variableModifiers;
+
+  private ModifierContext() {
+    this.activeEffects = null;
+    this.availableSkills = null;
+    this.variableModifiers = null;
+  }
+
+  private ModifierContext(
+      ModifierContext copy, List<AdventureResult> activeEffects, Set<Integer> availableSkills) {
+    this.currentFamiliar = copy.currentFamiliar;
+    this.mainhandClass = copy.mainhandClass;
+    this.hoboPower = copy.hoboPower;
+    this.smithsness = copy.smithsness;
+    this.currentWeight = copy.currentWeight;
+    this.unarmed = copy.unarmed;
+    this.currentLocation = copy.currentLocation;
+    this.currentZone = copy.currentZone;
+    this.currentEnvironment = copy.currentEnvironment;
+    this.currentML = copy.currentML;
+    this.activeEffects = activeEffects;
+    this.availableSkills = availableSkills;
+    this.variableModifiers = new TwoLevelEnumHashMap<>(ModifierType.class);
+  }
+
+  public static ModifierContext current() {
+    ModifierContext context = CONFINED.get();
+    return context == null ? SHARED : context;
+  }
+
+  public static boolean isConfined() {
+    return CONFINED.get() != null;
+  }
+
+  /**
+   * Take a snapshot of the calling thread's context and of the character's effects and skills, for
+   * speculating threads to confine themselves to. Take it before forking them.
+   */
+  public static ModifierContext snapshot() {
+    return new ModifierContext(
+        current(),
+        Collections.unmodifiableList(new ArrayList<>(KoLConstants.activeEffects)),
+        Collections.unmodifiableSet(new HashSet<>(KoLConstants.availableSkillsSet)));
+  }
+
+  /** Confine the calling thread to a private copy of a snapshot. */
+  public static ModifierContext confine(ModifierContext snapshot) {
+    ModifierContext context =
+        new ModifierContext(snapshot, snapshot.activeEffects, snapshot.availableSkills);
+    CONFINED.set(context);
+    return context;
+  }
+
+  /** Return the calling thread to the shared context. */
+  public static void release() {
+    CONFINED.remove();
+  }
+
+  public List<AdventureResult> getActiveEffects() {
+    return this.activeEffects == null ? KoLConstants.activeEffects : this.activeEffects;
+  }
+
+  public boolean hasSkill(int skillId) {
+    return this.availableSkills == null
+        ? KoLCharacter.hasSkill(skillId)
+        : this.availableSkills.contains(skillId);
+  }
+
+  /**
+   * Variable modifiers are re-evaluated in place every time they are looked up. When confined,
+   * return a private copy of the cached modifiers for this thread to re-evaluate instead.
+   */
+  public Modifiers privateCopy(ModifierType type, IntOrString key, Modifiers shared) {
+    if (this.variableModifiers == null) {
+      return shared;
+    }
+
+    Modifiers copy = this.variableModifiers.get(type, key);
+    if (copy == null) {
+      copy = new Modifiers(shared);
+      copy.variable = shared.variable;
+      this.variableModifiers.put(type, key, copy);
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,153 @@
+package net.sourceforge.kolmafia;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.sourceforge.kolmafia.modifiers.BooleanModifier;
+import net.sourceforge.kolmafia.modifiers.DoubleModifier;
+import net.sourceforge.kolmafia.modifiers.Lookup;
+
+/*
+ * Caches the combined constant modifiers of one group of sources, such as the active effects or
+ * the items in the campground, the same way Modifiers caches the character's passive skills.
+ *
+ * As long as a group is made up of the same constant Modifiers objects in the same places as last
+ * time, and the character state which Modifiers.add checks is unchanged, the cached sums are added
+ * instead of adding every source again. Variable modifiers are always added one at a time, since
+ * their values can change while their source does not.
+ *
+ * Sources which Modifiers.add does not simply sum are also added one at a time: those with a
+ * modifier that is clamped or takes the lowest value as it accumulates, such as Mana Cost, and
+ * non-stackable watches, whose Adventures depend on what was added before them.
+ *
+ * Sources are still added in the order given, since some string modifiers are last one wins:
+ * each run of consecutive constant sources has its own sum, added between the variable sources
+ * around it.
+ *
+ * All sources in a group should share a ModifierType, which should also be the type of the lookup
+ * given here, since the type decides how some modifiers accumulate.
+ */
+public class ModifierSourceGroup {
+  // Modifiers.addDouble doesn't sum these, so a pre-summed value would add up differently
+  private static final List<DoubleModifier> NOT_SUMMED =
+      List.of(
+          DoubleModifier.MANA_COST,
+          DoubleModifier.FAMILIAR_WEIGHT_PCT,
+          DoubleModifier.FAMILIAR_ACTION_BONUS,
+          DoubleModifier.MUS_LIMIT,
+          DoubleModifier.MYS_LIMIT,
+          DoubleModifier.MOX_LIMIT);
+
+  // What Modifiers.add checks about the character when deciding whether to add a modifier
+  private record State(
+      AscensionClass ascensionClass,
+      boolean noExperience,
+      boolean canExpandStomach,
+      boolean canExpandLiver,
+      boolean canExpandSpleen) {
+    static State current() {
+      return new State(
+          KoLCharacter.getAscensionClass(),
+          KoLCharacter.noExperience(),
+          KoLCharacter.canExpandStomachCapacity(),
+          KoLCharacter.canExpandLiverCapacity(),
+          KoLCharacter.canExpandSpleenCapacity());
+    }
+  }
+
+  // The sources, with null in place of each one added alone, and the sum of each constant run
+  private record Snapshot(List<Modifiers> sources, State state, List<Modifiers> sums) {}
+
+  private final Lookup lookup;
+  private volatile Snapshot snapshot = null;
+
+  public ModifierSourceGroup(final Lookup lookup) {
+    this.lookup = lookup;
+  }
+
+  public void addTo(final Modifiers target, final List<Modifiers> sources, final boolean debug) {
+    if (debug) {
+      // Debugging wants to see each source on its own
+      sources.forEach(target::add);
+      return;
+    }
+
+    List<Modifiers> layout = new ArrayList<>(sources.size());
+    for (Modifiers mods : sources) {
+      if (mods != null) {
+        layout.add(addedAlone(mods) ? null : mods);
+      }
+    }
+
+    List<Modifiers> sums = this.sums(layout);
+
+    int run = 0;
+    boolean inRun = false;
+    for (Modifiers mods : sources) {
+      if (mods == null) {
+        continue;
+      }
+      if (addedAlone(mods)) {
+        target.add(mods);
+        inRun = false;
+      } else if (!inRun) {
+        target.add(sums.get(run++));
+        inRun = true;
+      }
+    }
+  }
+
+  private static boolean addedAlone(final Modifiers mods) {
+    if (mods.variable || mods.getBoolean(BooleanModifier.NONSTACKABLE_WATCH)) {
+      return true;
+    }
+    for (DoubleModifier mod : NOT_SUMMED) {
+      if (mods.getDouble(mod) != 0.0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private List<Modifiers> sums(final List<Modifiers> layout) {
+    State state = State.current();
+    Snapshot current = this.snapshot;
+    if (current != null
+        && current.state().equals(state)
+        && sameSources(current.sources(), layout)) {
+      return current.sums();
+    }
+
+    List<Modifiers> sums = new ArrayList<>();
+    Modifiers sum = null;
+    for (Modifiers mods : layout) {
+      if (mods == null) {
+        sum = null;
+        continue;
+      }
+      if (sum == null) {
+        sum = new Modifiers(this.lookup);
+        sums.add(sum);
+      }
+      sum.add(mods);
+    }
+
+    this.snapshot = new Snapshot(layout, state, sums);
+    return sums;
+  }
+
+  private static boolean sameSources(final List<Modifiers> previous, final List<Modifiers> next) {
+    if (previous.size() != next.size()) {
+      return false;
+    }
+    for (int i = 0; i < previous.size(); ++i) {
+      if (previous.get(i) != next.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void reset() {
+    this.snapshot = null;
+  }
+}
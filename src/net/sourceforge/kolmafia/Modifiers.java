@@ -51,16 +51,9 @@ import net.sourceforge.kolmafia.utilities.IntOrString;
 public class Modifiers {
   // static fields used to compute current modifiers
 
-  public static String currentLocation = "";
-  public static String currentZone = "";
-  public static String currentEnvironment = "";
-  public static double currentML = 4.0;
-  public static String currentFamiliar = "";
-  public static String mainhandClass = "";
-  public static double hoboPower = 0.0;
-  public static double smithsness = 0.0;
-  public static double currentWeight = 0.0;
-  public static boolean unarmed = false;
+  // The location, and the familiar, weapon class, smithsness, hobo power and familiar weight which
+  // were last calculated, live in a ModifierContext, so that speculation on other threads can't
+  // disturb them.
 
   // caching of passive skills for the current character
   private static boolean availableSkillsChanged = false;
@@ -683,7 +676,7 @@ public class Modifiers {
     mods.doubles.forEach(
         (i, addition) -> {
           if (!bothWatches || i != DoubleModifier.ADVENTURES) {
-            this.addDouble(i, addition.getDoubleValue(), lookup);
+            this.addDouble(i, addition, lookup);
           }
         });
 
@@ -946,6 +939,53 @@ public class Modifiers {
   }
 
   public void applyPassiveModifiers(final boolean debug) {
+    if (KoLCharacter.getAvailableSkillIds().isEmpty()) {
+      // We probably haven't loaded the player's skills yet. Avoid populating
+      // availablePassiveSkillModifiersByVariable with two empty lists.
+      return;
+    }
+
+    // A confined thread would fill the cache with its private copies of variable modifiers, so it
+    // only reads what preparePassiveModifiers() left there before the search forked.
+    boolean confined = ModifierContext.isConfined();
+    if (!confined) {
+      Modifiers.preparePassiveModifiers(debug);
+    }
+
+    List<Modifiers> constant;
+    List<Modifiers> variable;
+    synchronized (Modifiers.class) {
+      constant = Modifiers.availablePassiveSkillModifiersByVariable.get(false);
+      variable = Modifiers.availablePassiveSkillModifiersByVariable.get(true);
+    }
+    if (constant == null || variable == null) {
+      return;
+    }
+
+    // If we're debugging, add the constant modifiers one by one rather than their cached sum.
+    if (debug) {
+      constant.forEach(this::add);
+    } else {
+      this.add(Modifiers.cachedPassiveModifiers);
+    }
+
+    // Add variable modifiers, evaluated in this thread's own context.
+    if (confined) {
+      variable.forEach(mods -> this.add(ModifierDatabase.getModifiers(mods.getLookup())));
+    } else {
+      variable.forEach(this::add);
+    }
+  }
+
+  /**
+   * Rebuilds the cache of passive skill modifiers if the character's skills have changed. Callers
+   * which speculate on confined threads must call this before forking.
+   */
+  public static void preparePassiveModifiers() {
+    Modifiers.preparePassiveModifiers(false);
+  }
+
+  private static void preparePassiveModifiers(final boolean force) {
     if (Modifiers.cachedPassiveModifiers == null) {
       Modifiers.cachedPassiveModifiers =
           new Modifiers(new Lookup(ModifierType.PASSIVES, "cachedPassives"));
@@ -954,13 +994,11 @@ public class Modifiers {
           () -> Modifiers.availableSkillsChanged());
     }
     if (KoLCharacter.getAvailableSkillIds().isEmpty()) {
-      // We probably haven't loaded the player's skills yet. Avoid populating
-      // availablePassiveSkillModifiersByVariable with two empty lists.
       return;
     }
 
     synchronized (Modifiers.class) {
-      if (debug
+      if (force
           || Modifiers.availableSkillsChanged
           || Modifiers.availablePassiveSkillModifiersByVariable.isEmpty()) {
         // Collect all passive skills currently on the character.
@@ -977,26 +1015,10 @@ public class Modifiers {
         Modifiers.cachedPassiveModifiers.reset();
         Modifiers.availablePassiveSkillModifiersByVariable
             .get(false)
-            .forEach(
-                mods -> {
-                  Modifiers.cachedPassiveModifiers.add(mods);
-
-                  // If we are debugging, add them directly. Also add them to the cache though
-                  if (debug) {
-                    this.add(mods);
-                  }
-                });
+            .forEach(Modifiers.cachedPassiveModifiers::add);
         Modifiers.availableSkillsChanged = false;
       }
     }
-
-    // If we're debugging we've already added the modifiers while building the passive cache.
-    if (!debug) {
-      this.add(Modifiers.cachedPassiveModifiers);
-    }
-
-    // Add variable modifiers.
-    Modifiers.availablePassiveSkillModifiersByVariable.get(true).forEach(this::add);
   }
 
   public static void resetAvailablePassiveSkills() {
@@ -1008,11 +1030,11 @@ public class Modifiers {
       return;
     }
 
-    if (Modifiers.currentLocation == null) {
+    if (Modifiers.getCurrentLocation() == null) {
       return;
     }
 
-    List<Florist> plants = FloristRequest.getPlants(Modifiers.currentLocation);
+    List<Florist> plants = FloristRequest.getPlants(Modifiers.getCurrentLocation());
     if (plants == null) {
       return;
     }
@@ -1023,12 +1045,12 @@ public class Modifiers {
   }
 
   public final void applyAutumnatonModifiers() {
-    if (Modifiers.currentLocation == null || Modifiers.currentLocation.equals("")) return;
+    if (Modifiers.getCurrentLocation() == null || Modifiers.getCurrentLocation().equals("")) return;
 
     var questLocation = AutumnatonManager.getQuestLocation();
     if (questLocation.equals("")) return;
 
-    if (Modifiers.currentLocation.equals(questLocation)) {
+    if (Modifiers.getCurrentLocation().equals(questLocation)) {
       this.addDouble(DoubleModifier.EXPERIENCE, 1, ModifierType.AUTUMNATON, "");
     }
   }
@@ -1201,7 +1223,7 @@ public class Modifiers {
       final FamiliarData familiar, int weight, final AdventureResult famItem) {
     int familiarId = familiar.getEffectiveId();
     weight = Math.max(1, weight);
-    Modifiers.currentWeight = weight;
+    Modifiers.setCurrentWeight(weight);
 
     String race = familiar.getEffectiveRace();
 
@@ -1304,7 +1326,7 @@ public class Modifiers {
       int maxStats = 230;
       sombreroFactor =
           Math.min(
-              Math.max(factor * (Modifiers.currentML / 4) * (0.1 + 0.005 * effective), 1),
+              Math.max(factor * (Modifiers.getCurrentML() / 4) * (0.1 + 0.005 * effective), 1),
               maxStats);
     }
 
@@ -1681,26 +1703,83 @@ public class Modifiers {
   }
 
   public static void setLocation(KoLAdventure location) {
+    ModifierContext context = ModifierContext.current();
     if (location == null) {
-      Modifiers.currentLocation = "";
-      Modifiers.currentZone = "";
-      Modifiers.currentML = 4.0;
+      context.currentLocation = "";
+      context.currentZone = "";
+      context.currentML = 4.0;
       return;
     }
 
-    Modifiers.currentLocation = location.getAdventureName();
-    Modifiers.currentZone = location.getZone();
-    Modifiers.currentEnvironment = location.getEnvironment().toString();
+    context.currentLocation = location.getAdventureName();
+    context.currentZone = location.getZone();
+    context.currentEnvironment = location.getEnvironment().toString();
     AreaCombatData data = location.getAreaSummary();
-    Modifiers.currentML = Math.max(4.0, data == null ? 0.0 : data.getAverageML());
+    context.currentML = Math.max(4.0, data == null ? 0.0 : data.getAverageML());
+  }
+
+  public static String getCurrentLocation() {
+    return ModifierContext.current().currentLocation;
+  }
+
+  public static String getCurrentZone() {
+    return ModifierContext.current().currentZone;
+  }
+
+  public static String getCurrentEnvironment() {
+    return ModifierContext.current().currentEnvironment;
   }
 
   public static double getCurrentML() {
-    return Modifiers.currentML;
+    return ModifierContext.current().currentML;
   }
 
   public static void setFamiliar(FamiliarData fam) {
-    Modifiers.currentFamiliar = fam == null ? "" : fam.getRace();
+    ModifierContext.current().currentFamiliar = fam == null ? "" : fam.getRace();
+  }
+
+  public static String getCurrentFamiliar() {
+    return ModifierContext.current().currentFamiliar;
+  }
+
+  public static String getMainhandClass() {
+    return ModifierContext.current().mainhandClass;
+  }
+
+  public static void setMainhandClass(String mainhandClass) {
+    ModifierContext.current().mainhandClass = mainhandClass;
+  }
+
+  public static double getHoboPower() {
+    return ModifierContext.current().hoboPower;
+  }
+
+  public static void setHoboPower(double hoboPower) {
+    ModifierContext.current().hoboPower = hoboPower;
+  }
+
+  public static double getSmithsness() {
+    return ModifierContext.current().smithsness;
+  }
+
+  public static void setSmithsness(double smithsness) {
+    ModifierContext.current().smithsness = smithsness;
+  }
+
+  public static double getCurrentWeight() {
+    return ModifierContext.current().currentWeight;
+  }
+
+  public static void setCurrentWeight(double currentWeight) {
+    ModifierContext.current().currentWeight = currentWeight;
+  }
+
+  public static boolean isUnarmed() {
+    return ModifierContext.current().unarmed;
+  }
+
+  public static void setUnarmed(boolean unarmed) {
+    ModifierContext.current().unarmed = unarmed;
   }
 
   public boolean hasUnarmedBonus() {
@@ -89,6 +89,7 @@ import net.sourceforge.kolmafia.webui.IslandDecorator;
 import net.sourceforge.kolmafia.webui.MemoriesDecorator;
 import net.sourceforge.kolmafia.webui.MineDecorator;
 import net.sourceforge.kolmafia.webui.NemesisDecorator;
+import net.sourceforge.kolmafia.webui.PageEdits;
 import net.sourceforge.kolmafia.webui.StationaryButtonDecorator;
 import net.sourceforge.kolmafia.webui.TopMenuDecorator;
 import net.sourceforge.kolmafia.webui.UseItemDecorator;
@@ -485,12 +486,12 @@ public class RequestEditorKit extends HTMLEditorKit {
       StringUtilities.insertBefore(
           buffer,
           "</head>",
-          "<script language=\"Javascript\" src=\"/" + KoLConstants.BASICS_JS + "\"></script>");
-
-      StringUtilities.insertBefore(
-          buffer,
-          "</head>",
-          "<link rel=\"stylesheet\" href=\"/" + KoLConstants.BASICS_CSS + "\" />");
+          "<script language=\"Javascript\" src=\"/"
+              + KoLConstants.BASICS_JS
+              + "\"></script>"
+              + "<link rel=\"stylesheet\" href=\"/"
+              + KoLConstants.BASICS_CSS
+              + "\" />");
     }
 
     // Skip additional decorations for the character pane and the top menu
@@ -597,14 +598,13 @@ public class RequestEditorKit extends HTMLEditorKit {
 
     String defaultColor = Preferences.getString("defaultBorderColor");
     if (!defaultColor.equals("blue")) {
-      StringUtilities.globalStringReplace(
-          buffer, "bgcolor=blue", "bgcolor=\"" + defaultColor + "\"");
-      StringUtilities.globalStringReplace(
-          buffer, "border: 1px solid blue", "border: 1px solid " + defaultColor);
-      StringUtilities.globalStringReplace(
-          buffer,
+      PageEdits edits = new PageEdits();
+      edits.globalStringReplace("bgcolor=blue", "bgcolor=\"" + defaultColor + "\"");
+      edits.globalStringReplace("border: 1px solid blue", "border: 1px solid " + defaultColor);
+      edits.globalStringReplace(
           "<td style=\"background-color: blue\"",
           "<td style=\"background-color: " + defaultColor + "\"");
+      edits.apply(buffer);
     }
   }
 
@@ -1270,17 +1270,20 @@ public class RequestEditorKit extends HTMLEditorKit {
   }
 
   private static void addFightModifiers(final StringBuffer buffer) {
+    PageEdits edits = new PageEdits();
+
     // Change bang potion names in item dropdown
-    RequestEditorKit.changePotionNames(buffer);
+    RequestEditorKit.changePotionNames(buffer, edits);
 
     // Hilight He-Boulder eye color messages
     if (KoLCharacter.getFamiliar().getId() == FamiliarPool.HE_BOULDER) {
-      StringUtilities.globalStringReplace(buffer, "s red eye", "s <font color=red>red eye</font>");
-      StringUtilities.globalStringReplace(buffer, " blue eye", " <font color=blue>blue eye</font>");
-      StringUtilities.globalStringReplace(
-          buffer, " yellow eye", " <font color=olive>yellow eye</font>");
+      edits.globalStringReplace("s red eye", "s <font color=red>red eye</font>");
+      edits.globalStringReplace(" blue eye", " <font color=blue>blue eye</font>");
+      edits.globalStringReplace(" yellow eye", " <font color=olive>yellow eye</font>");
     }
 
+    edits.apply(buffer);
+
     RequestEditorKit.insertRoundNumbers(buffer);
 
     if (Preferences.getBoolean("macroLens")) {
@@ -1560,7 +1563,9 @@ public class RequestEditorKit extends HTMLEditorKit {
 
   private static void addMultiuseModifiers(final StringBuffer buffer) {
     // Change bang potion names in item dropdown
-    RequestEditorKit.changePotionNames(buffer);
+    PageEdits edits = new PageEdits();
+    RequestEditorKit.changePotionNames(buffer, edits);
+    edits.apply(buffer);
   }
 
   private static void changePotionImages(final StringBuffer buffer) {
@@ -1604,17 +1609,19 @@ public class RequestEditorKit extends HTMLEditorKit {
       return;
     }
 
+    PageEdits edits = new PageEdits();
     for (int i = 0; i < potionNames.size(); ++i) {
       String name = potionNames.get(i);
       String plural = pluralNames.get(i);
       String effect = potionEffects.get(i);
 
-      StringUtilities.globalStringReplace(buffer, name + "</b>", name + effect + "</b>");
-      StringUtilities.globalStringReplace(buffer, plural + "</b>", plural + effect + "</b>");
+      edits.globalStringReplace(name + "</b>", name + effect + "</b>");
+      edits.globalStringReplace(plural + "</b>", plural + effect + "</b>");
     }
+    edits.apply(buffer);
   }
 
-  private static void changePotionNames(final StringBuffer buffer) {
+  private static void changePotionNames(final StringBuffer buffer, final PageEdits edits) {
     for (int i = 819; i <= 827; ++i) {
       String name = ItemDatabase.getItemName(i);
       String plural = ItemDatabase.getPluralName(i);
@@ -1624,8 +1631,8 @@ public class RequestEditorKit extends HTMLEditorKit {
           continue;
         }
 
-        StringUtilities.globalStringReplace(buffer, name, name + " of " + effect);
-        StringUtilities.globalStringReplace(buffer, plural, plural + " of " + effect);
+        edits.globalStringReplace(name, name + " of " + effect);
+        edits.globalStringReplace(plural, plural + " of " + effect);
       }
     }
     for (int i = ItemPool.VIAL_OF_RED_SLIME; i <= ItemPool.VIAL_OF_PURPLE_SLIME; ++i) {
@@ -1637,8 +1644,8 @@ public class RequestEditorKit extends HTMLEditorKit {
           continue;
         }
 
-        StringUtilities.globalStringReplace(buffer, name, name + ": " + effect);
-        StringUtilities.globalStringReplace(buffer, plural, plural + ": " + effect);
+        edits.globalStringReplace(name, name + ": " + effect);
+        edits.globalStringReplace(plural, plural + ": " + effect);
       }
     }
   }
@@ -1648,12 +1655,11 @@ public class RequestEditorKit extends HTMLEditorKit {
       return;
     }
 
+    PageEdits edits = new PageEdits();
     for (Punchcard punchcard : ElVibratoManager.PUNCHCARDS) {
-      String name = punchcard.name();
-      if (buffer.indexOf(name) != -1) {
-        StringUtilities.globalStringReplace(buffer, name, punchcard.alias());
-      }
+      edits.globalStringReplace(punchcard.name(), punchcard.alias());
     }
+    edits.apply(buffer);
   }
 
   private static void fixTavernCellar(final StringBuffer buffer) {
@@ -19,4 +19,8 @@ public class ItemListenerRegistry extends ListenerRegistry {
   public static void fireItemChanged(final int itemId) {
     ItemListenerRegistry.INSTANCE.fireListener(itemId);
   }
+
+  public static Statistics getItemStatistics() {
+    return ItemListenerRegistry.INSTANCE.getStatistics();
+  }
 }
@@ -6,8 +6,11 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.StaticEntity;
 
@@ -27,46 +30,89 @@ public class ListenerRegistry {
     ListenerRegistry.logging = logging;
   }
 
-  // Deferring
-  private final HashSet<Object> deferred = new HashSet<>();
+  // Deferring. The deferred keys are also the lock for the deferral level, so that a key fired on
+  // one thread is either delivered at once or by whichever thread ends the deferral.
+  private final LinkedHashSet<Object> deferred = new LinkedHashSet<>();
   private int deferring = 0;
 
+  // Statistics
+  private final AtomicLong fires = new AtomicLong();
+  private final AtomicLong deliveries = new AtomicLong();
+
+  /**
+   * How many times keys have been fired, and how many times listeners have been updated as a
+   * result. Deferral delivers each fired key once, and updates each listener once, however many
+   * times and under however many keys it was fired.
+   */
+  public record Statistics(long fires, long deliveries) {}
+
+  /** A scope in which listeners are deferred, which ends when it is closed. */
+  public static final class Deferral implements AutoCloseable {
+    private final ListenerRegistry registry;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Deferral(final ListenerRegistry registry) {
+      this.registry = registry;
+      registry.deferListeners(true);
+    }
+
+    @Override
+    public void close() {
+      if (this.closed.compareAndSet(false, true)) {
+        this.registry.deferListeners(false);
+      }
+    }
+  }
+
   public ListenerRegistry() {}
 
+  public Statistics getStatistics() {
+    return new Statistics(this.fires.get(), this.deliveries.get());
+  }
+
+  public Deferral defer() {
+    return new Deferral(this);
+  }
+
   public void deferListeners(boolean deferring) {
-    // If we are deferring, increment defer level
-    if (deferring) {
-      this.deferring += 1;
-      return;
-    }
+    Object[] keys;
 
-    // If we are undeferring but are not deferred, do nothing
-    if (this.deferring == 0) {
-      return;
-    }
+    synchronized (this.deferred) {
+      // If we are deferring, increment defer level
+      if (deferring) {
+        this.deferring += 1;
+        return;
+      }
 
-    // If we are undeferring and are still deferred, nothing more to do
-    if (--this.deferring > 0) {
-      return;
+      // If we are undeferring but are not deferred, do nothing
+      if (this.deferring == 0) {
+        return;
+      }
+
+      // If we are undeferring and are still deferred, nothing more to do
+      if (--this.deferring > 0) {
+        return;
+      }
+
+      keys = this.deferred.toArray();
+      this.deferred.clear();
     }
 
     // We were deferred but are no longer deferred. Fire at Will!
 
     boolean logit = ListenerRegistry.logging && RequestLogger.isDebugging();
+    HashSet<Listener> notified = new HashSet<>();
 
-    synchronized (this.deferred) {
-      Object[] listenerArray = new Object[this.deferred.size()];
-      this.deferred.toArray(listenerArray);
-      this.deferred.clear();
-
-      for (Object key : listenerArray) {
-        ArrayList<WeakReference<Listener>> listenerList = this.listenerMap.get(key);
-        if (logit) {
-          int count = listenerList == null ? 0 : listenerList.size();
-          RequestLogger.updateDebugLog("Firing " + count + " listeners for \"" + key + "\"");
-        }
-        this.fireListeners(listenerList, null);
+    for (Object key : keys) {
+      ArrayList<WeakReference<Listener>> listenerList;
+      synchronized (this.listenerMap) {
+        listenerList = this.listenerMap.get(key);
       }
+      if (logit) {
+        int count = listenerList == null ? 0 : listenerList.size();
+        RequestLogger.updateDebugLog("Firing " + count + " listeners for \"" + key + "\"");
+      }
+      this.fireListeners(listenerList, notified);
     }
   }
 
@@ -107,48 +153,51 @@ public class ListenerRegistry {
       listenerList = this.listenerMap.get(key);
     }
 
+    this.fires.incrementAndGet();
+
     if (listenerList == null) {
       return;
     }
 
     boolean logit = ListenerRegistry.logging && RequestLogger.isDebugging();
+    boolean deferred;
+
+    synchronized (this.deferred) {
+      deferred = this.deferring > 0;
+      if (deferred) {
+        this.deferred.add(key);
+      }
+    }
 
     if (logit) {
       int count = listenerList.size();
       RequestLogger.updateDebugLog(
-          (this.deferring > 0 ? "Deferring " : "Firing ")
-              + count
-              + " listeners for \""
-              + key
-              + "\"");
+          (deferred ? "Deferring " : "Firing ") + count + " listeners for \"" + key + "\"");
     }
 
-    if (this.deferring > 0) {
-      synchronized (this.deferred) {
-        this.deferred.add(key);
-      }
-      return;
+    if (!deferred) {
+      this.fireListeners(listenerList, null);
     }
-
-    this.fireListeners(listenerList, null);
   }
 
   public final void fireAllListeners() {
     boolean logit = ListenerRegistry.logging && RequestLogger.isDebugging();
 
-    if (this.deferring > 0) {
-      Set<Object> keys = null;
-      synchronized (this.listenerMap) {
-        keys = this.listenerMap.keySet();
-      }
-      if (logit) {
-        int count = keys.size();
-        RequestLogger.updateDebugLog("Deferring all listeners for " + count + " keys");
-      }
-      synchronized (this.deferred) {
+    this.fires.incrementAndGet();
+
+    synchronized (this.deferred) {
+      if (this.deferring > 0) {
+        Set<Object> keys;
+        synchronized (this.listenerMap) {
+          keys = new HashSet<>(this.listenerMap.keySet());
+        }
+        if (logit) {
+          int count = keys.size();
+          RequestLogger.updateDebugLog("Deferring all listeners for " + count + " keys");
+        }
         this.deferred.addAll(keys);
+        return;
       }
-      return;
     }
 
     HashSet<ArrayList<WeakReference<Listener>>> listeners = new HashSet<>();
@@ -209,6 +258,8 @@ public class ListenerRegistry {
           notified.add(listener);
         }
 
+        this.deliveries.incrementAndGet();
+
         try {
           listener.update();
         } catch (Exception e) {
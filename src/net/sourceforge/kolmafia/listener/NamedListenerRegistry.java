@@ -13,6 +13,10 @@ public class NamedListenerRegistry extends ListenerRegistry {
     NamedListenerRegistry.INSTANCE.deferListeners(deferring);
   }
 
+  public static Statistics getNamedStatistics() {
+    return NamedListenerRegistry.INSTANCE.getStatistics();
+  }
+
   public static final void registerNamedListener(final String name, final Listener listener) {
     NamedListenerRegistry.INSTANCE.registerListener(name, listener);
   }
@@ -13,6 +13,14 @@ public class PreferenceListenerRegistry extends ListenerRegistry {
     PreferenceListenerRegistry.INSTANCE.deferListeners(deferring);
   }
 
+  public static Deferral deferPreferenceListeners() {
+    return PreferenceListenerRegistry.INSTANCE.defer();
+  }
+
+  public static Statistics getPreferenceStatistics() {
+    return PreferenceListenerRegistry.INSTANCE.getStatistics();
+  }
+
   public static void registerPreferenceListener(final String name, final Listener listener) {
     PreferenceListenerRegistry.INSTANCE.registerListener(name, listener);
   }
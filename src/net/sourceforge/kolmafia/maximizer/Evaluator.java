@@ -665,7 +665,7 @@ public class Evaluator {
           index = DoubleModifier.primeStat();
         } else if (keyword.startsWith("com")) {
           index = DoubleModifier.COMBAT_RATE;
-          if (AdventureDatabase.isUnderwater(Modifiers.currentLocation)) {
+          if (AdventureDatabase.isUnderwater(Modifiers.getCurrentLocation())) {
             this.weight.set(DoubleModifier.UNDERWATER_COMBAT_RATE, weight);
           }
         } else if (keyword.startsWith("item")) {
@@ -805,10 +805,25 @@ public class Evaluator {
     };
   }
 
+  /** A score, and whether the modifiers it was computed from fail or exceed the limits. */
+  record Score(double value, boolean failed, boolean exceeded) {}
+
   public double getScore(
       Modifiers mods, Map<Slot, AdventureResult> equipment, Map<Modeable, String> modeables) {
-    this.failed = false;
-    this.exceeded = false;
+    Score score = this.score(mods, equipment, modeables);
+    this.failed = score.failed();
+    this.exceeded = score.exceeded();
+    return score.value();
+  }
+
+  /**
+   * Scores a set of modifiers without touching this evaluator's failed and exceeded fields, so
+   * that several threads can score at once.
+   */
+  Score score(
+      Modifiers mods, Map<Slot, AdventureResult> equipment, Map<Modeable, String> modeables) {
+    boolean failed = false;
+    boolean exceeded = false;
     var predicted = mods.predict();
 
     double score = 0.0;
@@ -923,7 +938,7 @@ public class Evaluator {
           val += mods.getDouble(DoubleModifier.SPORADIC_THORNS);
           break;
       }
-      if (val < min) this.failed = true;
+      if (val < min) failed = true;
       score += weight * Math.min(val, max);
     }
     if (this.stinkycheese > 0) {
@@ -956,8 +971,8 @@ public class Evaluator {
     if (!mods.getStrings(StringModifier.ROLLOVER_EFFECT).isEmpty()) {
       score += 0.01f;
     }
-    if (score < this.totalMin) this.failed = true;
-    if (score >= this.totalMax) this.exceeded = true;
+    if (score < this.totalMin) failed = true;
+    if (score >= this.totalMax) exceeded = true;
     // special handling for -osity:
     // The "weight" specified is actually the desired -osity.
     // Allow partials to contribute to the score (1:1 ratio) up to the desired value.
@@ -965,34 +980,36 @@ public class Evaluator {
     if (this.clownosity > 0) {
       int osity = mods.getBitmap(BitmapModifier.CLOWNINESS);
       score += Math.min(osity, this.clownosity);
-      if (osity < this.clownosity) this.failed = true;
+      if (osity < this.clownosity) failed = true;
     }
     if (this.raveosity > 0) {
       int osity = mods.getBitmap(BitmapModifier.RAVEOSITY);
       score += Math.min(osity, this.raveosity);
-      if (osity < this.raveosity) this.failed = true;
+      if (osity < this.raveosity) failed = true;
     }
     if (this.surgeonosity > 0) {
       int osity = mods.getBitmap(BitmapModifier.SURGEONOSITY);
       score += Math.min(osity, this.surgeonosity);
-      if (osity < this.surgeonosity) this.failed = true;
+      if (osity < this.surgeonosity) failed = true;
     }
-    if (!this.failed
+    if (!failed
         && !this.booleanMask.isEmpty()
         && !mods.getBooleans(this.booleanMask).equals(this.booleanValue)) {
-      this.failed = true;
+      failed = true;
     }
-    return score;
+    return new Score(score, failed, exceeded);
   }
 
   public double getScore(Modifiers mods) {
     return this.getScore(mods, Map.of(), Map.of());
   }
 
-  void checkEquipment(Modifiers mods, Map<Slot, AdventureResult> equipment, int beeosity) {
+  /** Returns whether a speculation fails, given whether its score already failed. */
+  boolean checkEquipment(
+      Modifiers mods, Map<Slot, AdventureResult> equipment, int beeosity, boolean failed) {
     boolean outfitSatisfied = this.posOutfits.isEmpty();
     boolean equipSatisfied = this.posEquip.isEmpty();
-    if (!this.failed && !this.posEquip.isEmpty()) {
+    if (!failed && !this.posEquip.isEmpty()) {
       equipSatisfied = true;
       for (AdventureResult item : this.posEquip) {
         if (!KoLCharacter.hasEquipped(equipment, item)) {
@@ -1001,10 +1018,10 @@ public class Evaluator {
         }
       }
     }
-    if (!this.failed) {
+    if (!failed) {
       String outfit = mods.getString(StringModifier.OUTFIT);
       if (this.negOutfits.contains(outfit)) {
-        this.failed = true;
+        failed = true;
       } else {
         outfitSatisfied = this.posOutfits.contains(outfit) || this.posOutfits.isEmpty();
       }
@@ -1012,16 +1029,17 @@ public class Evaluator {
     // negEquip is not checked, since enumerateEquipment should make it
     // impossible for such items to be chosen.
     if (!outfitSatisfied || !equipSatisfied) {
-      this.failed = true;
+      failed = true;
     }
     if (beeosity > this.beeosity) {
-      this.failed = true;
+      failed = true;
     }
+    return failed;
   }
 
   double getTiebreaker(Modifiers mods) {
     if (this.noTiebreaker) return 0.0;
-    return this.tiebreaker.getScore(mods);
+    return this.tiebreaker.score(mods, Map.of(), Map.of()).value();
   }
 
   boolean isUsingTiebreaker() {
@@ -1403,7 +1421,7 @@ public class Evaluator {
               continue;
             }
             if (hoboPowerUseful && name.startsWith("Hodgman's")) {
-              Modifiers.hoboPower = 100.0;
+              Modifiers.setHoboPower(100.0);
               item.automaticFlag = true;
             }
             break;
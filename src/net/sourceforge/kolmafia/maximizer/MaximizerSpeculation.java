@@ -40,6 +40,9 @@ public class MaximizerSpeculation extends Speculation
   public CheckedItem attachment;
   private boolean foldables = false;
 
+  // Non-null while this speculation is searching one branch of a ParallelSearch
+  private ParallelSearch.Branch branch = null;
+
   @Override
   public MaximizerSpeculation clone() {
     try {
@@ -68,19 +71,20 @@ public class MaximizerSpeculation extends Speculation
   public double getScore() {
     if (this.scored) return this.score;
     if (!this.calculated) this.calculate();
-    this.score = Maximizer.eval.getScore(this.mods, this.equipment, this.getModeables());
     if (KoLCharacter.inBeecore()) {
       this.beeosity = KoLCharacter.getBeeosity(this.equipment);
     }
-    Maximizer.eval.checkEquipment(this.mods, this.equipment, this.beeosity);
-    this.failed = Maximizer.eval.failed;
+    Evaluator.Score score = Maximizer.eval.score(this.mods, this.equipment, this.getModeables());
+    this.score = score.value();
+    this.failed =
+        Maximizer.eval.checkEquipment(this.mods, this.equipment, this.beeosity, score.failed());
+    this.exceeded = score.exceeded();
     if ((this.mods.getRawBitmap(BitmapModifier.MUTEX_VIOLATIONS)
             & ~KoLCharacter.currentRawBitmapModifier(BitmapModifier.MUTEX_VIOLATIONS))
         != 0) { // We're speculating about something that would create a
       // mutex problem that the player didn't already have.
       this.failed = true;
     }
-    this.exceeded = Maximizer.eval.exceeded;
     this.scored = true;
     return this.score;
   }
@@ -215,6 +219,10 @@ public class MaximizerSpeculation extends Speculation
     this.equipment.putAll(mark);
   }
 
+  void setBranch(ParallelSearch.Branch branch) {
+    this.branch = branch;
+  }
+
   public void tryAll(
       List<FamiliarData> familiars,
       List<FamiliarData> enthronedFamiliars,
@@ -226,6 +234,20 @@ public class MaximizerSpeculation extends Speculation
       FamiliarData useBjornFamiliar)
       throws MaximizerInterruptedException {
     this.foldables = Preferences.getBoolean("maximizerFoldables");
+    if (ParallelSearch.isWanted(familiars)) {
+      new ParallelSearch()
+          .tryAll(
+              this,
+              familiars,
+              enthronedFamiliars,
+              usefulOutfits,
+              outfitPieces,
+              possibles,
+              bestCard,
+              useCrownFamiliar,
+              useBjornFamiliar);
+      return;
+    }
     this.tryOutfits(
         enthronedFamiliars,
         usefulOutfits,
@@ -802,6 +824,20 @@ public class MaximizerSpeculation extends Speculation
     this.calculated = false;
     this.scored = false;
     this.tiebreakered = false;
+    if (this.branch != null) {
+      this.branch.consider(this);
+      this.restore(mark);
+      if (!KoLmafia.permitsContinue()) {
+        throw new MaximizerInterruptedException();
+      }
+      if (this.exceeded) {
+        throw new MaximizerExceededException();
+      }
+      if (this.branch.limitReached()) {
+        throw new MaximizerLimitException();
+      }
+      return;
+    }
     if (Maximizer.best == null) {
       RequestLogger.updateSessionLog(
           "Maximizer about to throw LimitExceeded because of null best.");
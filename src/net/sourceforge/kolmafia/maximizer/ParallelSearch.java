@@ -0,0 +1,187 @@
+package net.sourceforge.kolmafia.maximizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.FamiliarData;
+import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.ModifierContext;
+import net.sourceforge.kolmafia.Modifiers;
+import net.sourceforge.kolmafia.equipment.Slot;
+import net.sourceforge.kolmafia.preferences.Preferences;
+
+/**
+ * Runs MaximizerSpeculation.tryAll() on the common fork-join pool, with one branch of the search
+ * per familiar under consideration.
+ *
+ * <p>Each branch runs on a thread confined to its own copy of a ModifierContext snapshot taken
+ * before forking, scores without locking the shared Evaluator, and remembers its own best
+ * speculation. When every branch has finished, the branch winners are merged in the order in which
+ * the serial search would have visited them, keeping the earlier of two equal speculations, so the
+ * result is the same one the serial search finds.
+ */
+class ParallelSearch {
+  private final AtomicInteger checked = new AtomicInteger();
+  private final AtomicLong nextUpdate = new AtomicLong();
+  private final AtomicBoolean stopped = new AtomicBoolean();
+  private final AtomicReference<MaximizerInterruptedException> failure = new AtomicReference<>();
+  private final long comboLimit = Preferences.getLong("maximizerCombinationLimit");
+
+  static boolean isWanted(List<FamiliarData> familiars) {
+    return !familiars.isEmpty()
+        && Preferences.getBoolean("maximizerParallelSearch")
+        && Runtime.getRuntime().availableProcessors() > 1;
+  }
+
+  class Branch {
+    private final FamiliarData familiar;
+    private final int familiarIndex;
+    private MaximizerSpeculation best;
+
+    Branch(FamiliarData familiar, int familiarIndex) {
+      this.familiar = familiar;
+      this.familiarIndex = familiarIndex;
+    }
+
+    void consider(MaximizerSpeculation spec) throws MaximizerInterruptedException {
+      if (ParallelSearch.this.stopped.get()) {
+        throw new MaximizerInterruptedException();
+      }
+      if (spec.compareTo(this.best) > 0) {
+        this.best = spec.clone();
+      }
+      int count = ParallelSearch.this.checked.incrementAndGet();
+      long t = System.currentTimeMillis();
+      long update = ParallelSearch.this.nextUpdate.get();
+      if (t > update && ParallelSearch.this.nextUpdate.compareAndSet(update, t + 5000)) {
+        KoLmafia.updateDisplay(count + " combinations checked");
+      }
+    }
+
+    boolean limitReached() {
+      return ParallelSearch.this.comboLimit != 0
+          && ParallelSearch.this.checked.get() >= ParallelSearch.this.comboLimit;
+    }
+
+    private void search(
+        ModifierContext context,
+        MaximizerSpeculation root,
+        List<FamiliarData> enthronedFamiliars,
+        Map<Integer, Boolean> usefulOutfits,
+        Map<AdventureResult, AdventureResult> outfitPieces,
+        SlotList<CheckedItem> possibles,
+        AdventureResult bestCard,
+        FamiliarData useCrownFamiliar,
+        FamiliarData useBjornFamiliar) {
+      ModifierContext.confine(context);
+      try {
+        MaximizerSpeculation spec = root.clone();
+        spec.setBranch(this);
+        SlotList<CheckedItem> branchPossibles = possibles.copy();
+        if (this.familiar != null) {
+          spec.setFamiliar(this.familiar);
+          branchPossibles.set(Slot.FAMILIAR, possibles.getFamiliar(this.familiarIndex));
+        }
+        spec.tryOutfits(
+            enthronedFamiliars,
+            usefulOutfits,
+            outfitPieces,
+            branchPossibles,
+            bestCard,
+            useCrownFamiliar,
+            useBjornFamiliar);
+      } catch (MaximizerInterruptedException e) {
+        // Only the branch that stopped the search decides how it ended
+        if (!ParallelSearch.this.stopped.getAndSet(true)) {
+          ParallelSearch.this.failure.set(e);
+        }
+      } finally {
+        // Settle the tiebreaker while still confined, so merging needs no recalculation
+        this.best.getTiebreaker();
+        ModifierContext.release();
+      }
+    }
+  }
+
+  void tryAll(
+      MaximizerSpeculation root,
+      List<FamiliarData> familiars,
+      List<FamiliarData> enthronedFamiliars,
+      Map<Integer, Boolean> usefulOutfits,
+      Map<AdventureResult, AdventureResult> outfitPieces,
+      SlotList<CheckedItem> possibles,
+      AdventureResult bestCard,
+      FamiliarData useCrownFamiliar,
+      FamiliarData useBjornFamiliar)
+      throws MaximizerInterruptedException {
+    // The serial search first tries the current familiar, then each familiar in turn
+    List<Branch> branches = new ArrayList<>(familiars.size() + 1);
+    branches.add(new Branch(null, -1));
+    for (int i = 0; i < familiars.size(); ++i) {
+      branches.add(new Branch(familiars.get(i), i));
+    }
+
+    MaximizerSpeculation initial = Maximizer.best;
+    initial.getScore();
+    initial.getTiebreaker();
+    for (Branch branch : branches) {
+      branch.best = initial.clone();
+    }
+
+    this.nextUpdate.set(Maximizer.bestUpdate);
+
+    // Branches only read the passive skill cache, so fill it here before they start
+    Modifiers.preparePassiveModifiers();
+    ModifierContext context = ModifierContext.snapshot();
+
+    List<RecursiveAction> tasks = new ArrayList<>(branches.size());
+    for (Branch branch : branches) {
+      tasks.add(
+          new RecursiveAction() {
+            @Override
+            protected void compute() {
+              branch.search(
+                  context,
+                  root,
+                  enthronedFamiliars,
+                  usefulOutfits,
+                  outfitPieces,
+                  possibles,
+                  bestCard,
+                  useCrownFamiliar,
+                  useBjornFamiliar);
+            }
+          });
+    }
+
+    ForkJoinPool.commonPool()
+        .invoke(
+            new RecursiveAction() {
+              @Override
+              protected void compute() {
+                RecursiveAction.invokeAll(tasks);
+              }
+            });
+
+    MaximizerSpeculation best = initial;
+    for (Branch branch : branches) {
+      if (branch.best.compareTo(best) > 0) {
+        best = branch.best;
+      }
+    }
+    Maximizer.best = best;
+    Maximizer.bestChecked = this.checked.get();
+
+    MaximizerInterruptedException e = this.failure.get();
+    if (e != null) {
+      throw e;
+    }
+  }
+}
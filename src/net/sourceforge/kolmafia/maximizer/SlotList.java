@@ -32,6 +32,16 @@ public class SlotList<T> {
     }
   }
 
+  private SlotList(SlotList<T> copy) {
+    slotList = new EnumMap<>(copy.slotList);
+    familiarList = new ArrayList<>(copy.familiarList);
+  }
+
+  /** A copy whose slots can be reassigned without affecting this list. */
+  public SlotList<T> copy() {
+    return new SlotList<>(this);
+  }
+
   public List<T> get(Slot key) {
     return slotList.computeIfAbsent(key, k -> new ArrayList<>());
   }
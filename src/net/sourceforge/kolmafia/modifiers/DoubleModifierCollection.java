@@ -1,96 +1,236 @@
 package net.sourceforge.kolmafia.modifiers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
 
 public class DoubleModifierCollection {
   public static final int SPARSE_DOUBLES_MAX_SIZE = 32;
 
-  // If only a few values are set in doubles, we instead store all modifiers in a sparse TreeMap.
-  // When that map gets bigger than SPARSE_DOUBLES_MAX_SIZE, we copy it over to the dense EnumMap.
-  private Map<DoubleModifier, DoubleOrList> doubles = new TreeMap<>();
+  private static final DoubleModifier[] MODIFIERS = DoubleModifier.values();
+  private static final int WORDS = (MODIFIERS.length + 63) >>> 6;
+  private static final long ZERO_BITS = Double.doubleToLongBits(0.0);
+
+  // One bit per DoubleModifier ordinal, set if the modifier has a value.
+  private final long[] present = new long[WORDS];
+  private int size = 0;
+
+  // While only a few values are set, the first size entries of values hold just those, in ordinal
+  // order, and the array doubles in length as it fills. When there are more than
+  // SPARSE_DOUBLES_MAX_SIZE of them, values becomes dense and is indexed by ordinal.
+  private double[] values = null;
+  private boolean dense = false;
+
+  // Modifiers whose value is a list (usually multi-modifiers) keep the list here. Their entry in
+  // values holds the last element of the list.
+  private Map<DoubleModifier, List<Double>> lists = null;
 
   public void reset() {
-    this.doubles = new TreeMap<>();
+    Arrays.fill(this.present, 0L);
+    this.size = 0;
+    this.values = null;
+    this.dense = false;
+    this.lists = null;
   }
 
   public void densify() {
-    if (this.doubles instanceof EnumMap) return;
-    Map<DoubleModifier, DoubleOrList> newDoubles = new EnumMap<>(DoubleModifier.class);
-    newDoubles.putAll(this.doubles);
-    this.doubles = newDoubles;
+    if (this.dense) return;
+    double[] newValues = new double[MODIFIERS.length];
+    int index = 0;
+    for (int ordinal = this.nextPresent(0); ordinal >= 0; ordinal = this.nextPresent(ordinal + 1)) {
+      newValues[ordinal] = this.values[index++];
+    }
+    this.values = newValues;
+    this.dense = true;
   }
 
-  private DoubleOrList get(final DoubleModifier mod) {
-    return this.doubles.getOrDefault(mod, new DoubleOrList(0.0));
+  private boolean isPresent(final int ordinal) {
+    return (this.present[ordinal >>> 6] & (1L << ordinal)) != 0;
   }
 
-  public double getDouble(final DoubleModifier mod) {
-    var entry = this.doubles.get(mod);
-    if (entry == null) return 0.0;
-    return entry.getDoubleValue();
+  private int nextPresent(final int from) {
+    int word = from >>> 6;
+    if (word >= WORDS) return -1;
+    long bits = this.present[word] & (-1L << from);
+    while (true) {
+      if (bits != 0) {
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+      }
+      if (++word == WORDS) {
+        return -1;
+      }
+      bits = this.present[word];
+    }
   }
 
-  public List<Double> getList(final DoubleModifier mod) {
-    var entry = this.doubles.get(mod);
-    if (entry == null) return new ArrayList<>(List.of());
-    return entry.getListValue();
+  // Position of a present ordinal in the sparse values array
+  private int rank(final int ordinal) {
+    int word = ordinal >>> 6;
+    int rank = 0;
+    for (int i = 0; i < word; ++i) {
+      rank += Long.bitCount(this.present[i]);
+    }
+    return rank + Long.bitCount(this.present[word] & ((1L << ordinal) - 1));
   }
 
-  public boolean set(final DoubleModifier mod, final double value) {
-    return set(mod, new DoubleOrList(value));
+  private double value(final int ordinal) {
+    return this.values[this.dense ? ordinal : this.rank(ordinal)];
   }
 
-  public boolean set(final DoubleModifier mod, final List<Double> value) {
-    return set(mod, new DoubleOrList(value));
-  }
-
-  private boolean set(final DoubleModifier mod, final DoubleOrList value) {
-    var isMultiple = mod.isMultiple();
-    var oldValue = get(mod);
-    if (isMultiple) {
-      // if multi-modifier, then:
-      // * if new element is list, replace or remove if default
-      // * if new element is double, append to existing list (creating if absent)
-      if (value.isList()) {
-        if (value.isDefault()) {
-          this.doubles.remove(mod);
-        } else {
-          this.doubles.put(mod, value);
-        }
+  private void put(final int ordinal, final double value) {
+    if (this.isPresent(ordinal)) {
+      this.values[this.dense ? ordinal : this.rank(ordinal)] = value;
+      return;
+    }
+
+    if (!this.dense && this.size + 1 >= SPARSE_DOUBLES_MAX_SIZE) {
+      this.densify();
+    }
+
+    if (this.dense) {
+      this.values[ordinal] = value;
+    } else {
+      int index = this.rank(ordinal);
+      if (this.values == null) {
+        this.values = new double[4];
+      } else if (this.size == this.values.length) {
+        double[] newValues = new double[Math.min(this.size * 2, SPARSE_DOUBLES_MAX_SIZE)];
+        System.arraycopy(this.values, 0, newValues, 0, index);
+        System.arraycopy(this.values, index, newValues, index + 1, this.size - index);
+        this.values = newValues;
       } else {
-        var lst = oldValue.append(value);
-        this.doubles.put(mod, lst);
+        System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
       }
+      this.values[index] = value;
+    }
+
+    this.present[ordinal >>> 6] |= 1L << ordinal;
+    this.size++;
+  }
+
+  private void remove(final DoubleModifier mod) {
+    int ordinal = mod.ordinal();
+    if (!this.isPresent(ordinal)) return;
+
+    if (this.dense) {
+      this.values[ordinal] = 0.0;
     } else {
-      // if not multi-modifier, new value should be a double, so just replace or remove
-      if (value.isDefault()) {
-        this.doubles.remove(mod);
-      } else {
-        this.doubles.put(mod, value);
+      int index = this.rank(ordinal);
+      System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+      this.values[this.size - 1] = 0.0;
+    }
+
+    this.present[ordinal >>> 6] &= ~(1L << ordinal);
+    this.size--;
+    if (this.lists != null) {
+      this.lists.remove(mod);
+    }
+  }
+
+  private List<Double> listOf(final DoubleModifier mod) {
+    return this.lists == null ? null : this.lists.get(mod);
+  }
+
+  private void putList(final DoubleModifier mod, final List<Double> list) {
+    if (this.lists == null) {
+      this.lists = new EnumMap<>(DoubleModifier.class);
+    }
+    this.lists.put(mod, list);
+    this.put(mod.ordinal(), list.getLast());
+  }
+
+  private static boolean isDefault(final double value) {
+    return Double.doubleToLongBits(value) == ZERO_BITS;
+  }
+
+  private static boolean same(final double a, final double b) {
+    return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+  }
+
+  public double getDouble(final DoubleModifier mod) {
+    int ordinal = mod.ordinal();
+    if (!this.isPresent(ordinal)) return 0.0;
+    return this.value(ordinal);
+  }
+
+  public List<Double> getList(final DoubleModifier mod) {
+    int ordinal = mod.ordinal();
+    if (!this.isPresent(ordinal)) return new ArrayList<>(List.of());
+    List<Double> list = this.listOf(mod);
+    if (list != null) return new ArrayList<>(list);
+    double value = this.value(ordinal);
+    if (isDefault(value)) return new ArrayList<>(List.of());
+    return new ArrayList<>(List.of(value));
+  }
+
+  public boolean set(final DoubleModifier mod, final double value) {
+    int ordinal = mod.ordinal();
+    boolean present = this.isPresent(ordinal);
+    List<Double> oldList = present ? this.listOf(mod) : null;
+    double oldValue = present ? this.value(ordinal) : 0.0;
+
+    if (mod.isMultiple()) {
+      // A single value is appended to the existing list (creating it if absent)
+      List<Double> list = this.getList(mod);
+      list.add(value);
+      this.putList(mod, list);
+    } else if (isDefault(value)) {
+      this.remove(mod);
+    } else {
+      if (oldList != null) {
+        this.lists.remove(mod);
       }
+      this.put(ordinal, value);
     }
 
-    if (this.doubles.size() >= DoubleModifierCollection.SPARSE_DOUBLES_MAX_SIZE) {
-      this.densify();
+    // Modifiers.set uses this to tell whether anything changed
+    return oldList != null || !same(oldValue, value);
+  }
+
+  public boolean set(final DoubleModifier mod, final List<Double> value) {
+    int ordinal = mod.ordinal();
+    boolean present = this.isPresent(ordinal);
+    List<Double> oldList = present ? this.listOf(mod) : null;
+
+    // A list replaces the existing value, or removes it if empty
+    if (value.isEmpty()) {
+      this.remove(mod);
+    } else {
+      this.putList(mod, new ArrayList<>(value));
     }
 
-    // TODO: does anything use this return value, or can we save ourselves a check?
-    return !oldValue.equals(value);
+    // Modifiers.set uses this to tell whether anything changed
+    return oldList != null ? !oldList.equals(value) : present || !value.isEmpty();
   }
 
   public double increment(final DoubleModifier mod, final double value) {
     // Anything being accumulated onto should be dense.
     this.densify();
-    var asDouble = new DoubleOrList(value);
-    return this.doubles.merge(mod, asDouble, DoubleOrList::sum).getDoubleValue();
+    int ordinal = mod.ordinal();
+    if (!this.isPresent(ordinal)) {
+      this.put(ordinal, value);
+      return value;
+    }
+
+    // A list has its last value incremented
+    double sum = this.values[ordinal] + value;
+    List<Double> list = this.listOf(mod);
+    if (list != null) {
+      list.set(list.size() - 1, sum);
+    }
+    this.values[ordinal] = sum;
+    return sum;
   }
 
-  public void forEach(BiConsumer<? super DoubleModifier, ? super DoubleOrList> action) {
-    this.doubles.forEach(action);
+  /** Calls action with each modifier that has a value, and that value, in modifier order. */
+  public void forEach(ObjDoubleConsumer<? super DoubleModifier> action) {
+    if (this.size == 0) return;
+    int index = 0;
+    for (int ordinal = this.nextPresent(0); ordinal >= 0; ordinal = this.nextPresent(ordinal + 1)) {
+      action.accept(MODIFIERS[ordinal], this.values[this.dense ? ordinal : index++]);
+    }
   }
 }
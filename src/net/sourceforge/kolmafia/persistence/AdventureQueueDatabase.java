@@ -1,18 +1,22 @@
 package net.sourceforge.kolmafia.persistence;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serial;
-import java.io.Serializable;
-import java.util.ArrayList;
+import java.io.StreamCorruptedException;
+import java.io.UTFDataFormatException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import net.sourceforge.kolmafia.AreaCombatData;
@@ -28,11 +32,15 @@ import net.sourceforge.kolmafia.utilities.RollingLinkedList;
 
 /*
  * Instead of packing and unpacking a giant treemap into user preference files, this is a way of persisting a variable across sessions.
- * Uses the Java Serializable interface.
+ * Only zones with something in their queues are saved, by name, in a small versioned format.
+ * Files written with Java serialization by older versions are still read.
  */
 
-public class AdventureQueueDatabase implements Serializable {
-  @Serial private static final long serialVersionUID = -180241952508113931L;
+public class AdventureQueueDatabase {
+  private static final int MAGIC = 0x4B51;
+  private static final int VERSION = 1;
+  // The first bytes of a Java serialization stream
+  private static final int LEGACY_MAGIC = 0xACED;
 
   private static TreeMap<String, RollingLinkedList<String>> COMBAT_QUEUE = new TreeMap<>();
   private static TreeMap<String, RollingLinkedList<String>> NONCOMBAT_QUEUE = new TreeMap<>();
@@ -191,23 +199,63 @@ public class AdventureQueueDatabase implements Serializable {
     File file =
         new File(KoLConstants.DATA_LOCATION, KoLCharacter.baseUserName() + "_" + "queue.ser");
 
-    try {
-      try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
-        // make a collection with combat queue first
-        List<TreeMap<String, RollingLinkedList<String>>> queues = new ArrayList<>();
-        queues.add(COMBAT_QUEUE);
-        queues.add(NONCOMBAT_QUEUE);
-        out.writeObject(queues);
-      }
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeShort(MAGIC);
+      out.writeByte(VERSION);
+      // Combat queue is first
+      AdventureQueueDatabase.writeQueues(out, COMBAT_QUEUE);
+      AdventureQueueDatabase.writeQueues(out, NONCOMBAT_QUEUE);
     } catch (IOException e) {
       e.printStackTrace();
     }
   }
 
+  private static void writeQueues(
+      final DataOutputStream out, final Map<String, RollingLinkedList<String>> queues)
+      throws IOException {
+    int count = 0;
+    for (RollingLinkedList<String> queue : queues.values()) {
+      if (!queue.isEmpty()) {
+        count++;
+      }
+    }
+
+    out.writeInt(count);
+    for (Map.Entry<String, RollingLinkedList<String>> entry : queues.entrySet()) {
+      RollingLinkedList<String> queue = entry.getValue();
+      if (queue.isEmpty()) {
+        continue;
+      }
+
+      out.writeUTF(entry.getKey());
+      out.writeByte(queue.size());
+      for (String name : queue) {
+        out.writeBoolean(name != null);
+        if (name != null) {
+          out.writeUTF(name);
+        }
+      }
+    }
+  }
+
+  private static void readQueues(
+      final DataInputStream in, final Map<String, RollingLinkedList<String>> queues)
+      throws IOException {
+    int count = in.readInt();
+    for (int i = 0; i < count; ++i) {
+      RollingLinkedList<String> queue =
+          queues.computeIfAbsent(in.readUTF(), k -> new RollingLinkedList<>(5));
+      int size = in.readUnsignedByte();
+      for (int j = 0; j < size; ++j) {
+        queue.add(in.readBoolean() ? in.readUTF() : null);
+      }
+    }
+  }
+
   /*
    * Attempts to load saved adventure queue settings from <username>_queue.ser
    */
-  @SuppressWarnings("unchecked")
   public static void deserialize() {
     File file =
         new File(KoLConstants.DATA_LOCATION, KoLCharacter.baseUserName() + "_" + "queue.ser");
@@ -217,13 +265,23 @@ public class AdventureQueueDatabase implements Serializable {
       return;
     }
     try {
-      try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-        List<TreeMap<String, RollingLinkedList<String>>> queues =
-            (List<TreeMap<String, RollingLinkedList<String>>>) in.readObject();
-
-        // Combat queue is first
-        COMBAT_QUEUE = queues.get(0);
-        NONCOMBAT_QUEUE = queues.get(1);
+      try (DataInputStream in =
+          new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+        in.mark(2);
+        int magic = in.readUnsignedShort();
+        in.reset();
+
+        if (magic == LEGACY_MAGIC) {
+          AdventureQueueDatabase.readLegacy(in);
+        } else {
+          if (in.readUnsignedShort() != MAGIC || in.readUnsignedByte() != VERSION) {
+            throw new StreamCorruptedException("Unrecognized adventure queue file");
+          }
+
+          AdventureQueueDatabase.resetQueue(false);
+          AdventureQueueDatabase.readQueues(in, COMBAT_QUEUE);
+          AdventureQueueDatabase.readQueues(in, NONCOMBAT_QUEUE);
+        }
       }
 
       // after successfully loading, check if there were new zones added that aren't yet in the
@@ -231,7 +289,11 @@ public class AdventureQueueDatabase implements Serializable {
       AdventureQueueDatabase.checkZones();
     } catch (FileNotFoundException e) {
       AdventureQueueDatabase.resetQueue(false);
-    } catch (ClassNotFoundException | EOFException | ClassCastException e) {
+    } catch (ClassNotFoundException
+        | EOFException
+        | ClassCastException
+        | StreamCorruptedException
+        | UTFDataFormatException e) {
       // Found the file, but the contents did not contain a properly-serialized treemap or
       // old version of the combat queue handling or some other kind of malformed data.
       // Wipe the bogus file.
@@ -242,6 +304,19 @@ public class AdventureQueueDatabase implements Serializable {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private static void readLegacy(final InputStream stream)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(stream)) {
+      List<TreeMap<String, RollingLinkedList<String>>> queues =
+          (List<TreeMap<String, RollingLinkedList<String>>>) in.readObject();
+
+      // Combat queue is first
+      COMBAT_QUEUE = queues.get(0);
+      NONCOMBAT_QUEUE = queues.get(1);
+    }
+  }
+
   public static double applyQueueEffects(
       double numerator, MonsterData monster, AreaCombatData data) {
     String zone = data.getZone();
@@ -1,14 +1,19 @@
 package net.sourceforge.kolmafia.persistence;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serial;
-import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.io.UTFDataFormatException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -22,11 +27,16 @@ import net.sourceforge.kolmafia.request.FightRequest;
 /*
  * Instead of packing and unpacking a giant map into user preference files,
  * this is a way of persisting a variable across sessions.
- * Uses the Java Serializable interface.
+ * Only zones with turns spent in them are saved, by name, in a small versioned format.
+ * Files written with Java serialization by older versions are still read.
  */
 
-public class AdventureSpentDatabase implements Serializable {
-  @Serial private static final long serialVersionUID = -180241952508113933L;
+public class AdventureSpentDatabase {
+  private static final int MAGIC = 0x4B54;
+  private static final int VERSION = 1;
+  // The first bytes of a Java serialization stream
+  private static final int LEGACY_MAGIC = 0xACED;
+
   private static Map<String, Integer> TURNS = new TreeMap<>();
 
   // Including free-fights, free-runs, delay burning turns, across all zones
@@ -157,9 +167,24 @@ public class AdventureSpentDatabase implements Serializable {
     File file =
         new File(KoLConstants.DATA_LOCATION, KoLCharacter.baseUserName() + "_" + "turns.ser");
 
-    try {
-      try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
-        out.writeObject(AdventureSpentDatabase.TURNS);
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeShort(MAGIC);
+      out.writeByte(VERSION);
+
+      int count = 0;
+      for (int turns : AdventureSpentDatabase.TURNS.values()) {
+        if (turns != 0) {
+          count++;
+        }
+      }
+
+      out.writeInt(count);
+      for (Map.Entry<String, Integer> entry : AdventureSpentDatabase.TURNS.entrySet()) {
+        if (entry.getValue() != 0) {
+          out.writeUTF(entry.getKey());
+          out.writeInt(entry.getValue());
+        }
       }
     } catch (IOException e) {
       e.printStackTrace();
@@ -178,8 +203,25 @@ public class AdventureSpentDatabase implements Serializable {
       return;
     }
     try {
-      try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
-        AdventureSpentDatabase.TURNS = (TreeMap<String, Integer>) in.readObject();
+      try (DataInputStream in =
+          new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+        in.mark(2);
+        int magic = in.readUnsignedShort();
+        in.reset();
+
+        if (magic == LEGACY_MAGIC) {
+          AdventureSpentDatabase.readLegacy(in);
+        } else {
+          if (in.readUnsignedShort() != MAGIC || in.readUnsignedByte() != VERSION) {
+            throw new StreamCorruptedException("Unrecognized adventure spent file");
+          }
+
+          AdventureSpentDatabase.resetTurns(false);
+          int count = in.readInt();
+          for (int i = 0; i < count; ++i) {
+            AdventureSpentDatabase.TURNS.put(in.readUTF(), in.readInt());
+          }
+        }
       }
 
       // after successfully loading, check if there were new zones added that aren't yet in the
@@ -190,9 +232,13 @@ public class AdventureSpentDatabase implements Serializable {
       totalTrackedTurns = AdventureSpentDatabase.TURNS.values().stream().reduce(0, Integer::sum);
     } catch (FileNotFoundException e) {
       AdventureSpentDatabase.resetTurns(false);
-    } catch (ClassNotFoundException | ClassCastException e) {
+    } catch (ClassNotFoundException
+        | EOFException
+        | ClassCastException
+        | StreamCorruptedException
+        | UTFDataFormatException e) {
       // Found the file, but the contents did not contain a properly-serialized treemap or
-      // old version of the combat queue handling.
+      // some other kind of malformed data.
       // Wipe the bogus file.
       file.delete();
       AdventureSpentDatabase.resetTurns();
@@ -201,6 +247,14 @@ public class AdventureSpentDatabase implements Serializable {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private static void readLegacy(final InputStream stream)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(stream)) {
+      AdventureSpentDatabase.TURNS = (TreeMap<String, Integer>) in.readObject();
+    }
+  }
+
   public static int getLastTurnUpdated() {
     return AdventureSpentDatabase.lastTurnUpdated;
   }
@@ -2,18 +2,24 @@ package net.sourceforge.kolmafia.persistence;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import net.java.dev.spellcast.utilities.LockableListModel;
 import net.java.dev.spellcast.utilities.SortedListModel;
@@ -79,6 +85,9 @@ public class ConcoctionDatabase {
   public static String excuse; // reason why creation is impossible
 
   private static boolean refreshNeeded = true;
+  // Whether anything besides the quantities of changedItems has changed since the last refresh
+  private static boolean fullRefreshNeeded = true;
+  private static final Set<Integer> changedItems = ConcurrentHashMap.newKeySet();
   private static boolean recalculateAdventureRange = false;
   public static int refreshLevel = 0;
 
@@ -135,6 +144,21 @@ public class ConcoctionDatabase {
       new Concoction(null, CraftingType.NOCREATE);
   public static final Concoction meatLimit = new Concoction(null, CraftingType.NOCREATE);
 
+  private static final List<Concoction> LIMITS =
+      List.of(
+          stillsLimit,
+          clipArtLimit,
+          extrudeLimit,
+          adventureLimit,
+          adventureSmithingLimit,
+          cookingLimit,
+          cocktailcraftingLimit,
+          turnFreeLimit,
+          turnFreeCookingLimit,
+          turnFreeCocktailcraftingLimit,
+          turnFreeSmithingLimit,
+          meatLimit);
+
   public static final Map<Integer, Set<AdventureResult>> knownUses = new HashMap<>();
 
   public static final EnumSet<CraftingType> PERMIT_METHOD = EnumSet.noneOf(CraftingType.class);
@@ -1144,13 +1168,6 @@ public class ConcoctionDatabase {
   }
 
   public static final void setRefreshNeeded(int itemId) {
-    switch (ItemDatabase.getConsumptionType(itemId)) {
-      case EAT, DRINK, SPLEEN, USE, USE_MULTIPLE, FOOD_HELPER, DRINK_HELPER -> {
-        ConcoctionDatabase.setRefreshNeeded(false);
-        return;
-      }
-    }
-
     switch (itemId) {
       // Items that affect creatability of other items, but
       // aren't explicitly listed in their recipes:
@@ -1173,28 +1190,44 @@ public class ConcoctionDatabase {
         return;
     }
 
+    // Coinmaster tokens affect what can be bought, which is not
+    // followed through recipes
+    for (CoinmasterData coinmaster : CoinmasterRegistry.COINMASTERS) {
+      AdventureResult item = coinmaster.getItem();
+      if (item != null && itemId == item.getItemId()) {
+        ConcoctionDatabase.setRefreshNeeded(false);
+        return;
+      }
+    }
+
+    switch (ItemDatabase.getConsumptionType(itemId)) {
+      case EAT, DRINK, SPLEEN, USE, USE_MULTIPLE, FOOD_HELPER, DRINK_HELPER -> {
+        ConcoctionDatabase.setItemRefreshNeeded(itemId);
+        return;
+      }
+    }
+
     for (AdventureResult use : ConcoctionDatabase.getKnownUses(itemId)) {
       CraftingType method = ConcoctionDatabase.getMixingMethod(use.getItemId());
       EnumSet<CraftingRequirements> requirements =
           ConcoctionDatabase.getRequirements(use.getItemId());
 
       if (ConcoctionDatabase.isPermittedMethod(method, requirements)) {
-        ConcoctionDatabase.setRefreshNeeded(false);
+        ConcoctionDatabase.setItemRefreshNeeded(itemId);
         return;
       }
     }
+  }
 
-    for (CoinmasterData coinmaster : CoinmasterRegistry.COINMASTERS) {
-      AdventureResult item = coinmaster.getItem();
-      if (item != null && itemId == item.getItemId()) {
-        ConcoctionDatabase.setRefreshNeeded(false);
-        return;
-      }
-    }
+  private static void setItemRefreshNeeded(final int itemId) {
+    // Only the concoctions made from this item need to be recalculated
+    ConcoctionDatabase.changedItems.add(itemId);
+    ConcoctionDatabase.refreshNeeded = true;
   }
 
   public static final void setRefreshNeeded(boolean recalculateAdventureRange) {
     ConcoctionDatabase.refreshNeeded = true;
+    ConcoctionDatabase.fullRefreshNeeded = true;
 
     if (recalculateAdventureRange) {
       ConcoctionDatabase.recalculateAdventureRange = true;
@@ -1213,6 +1246,7 @@ public class ConcoctionDatabase {
     if (force) {
       // Remember that refresh is forced, even if deferred
       ConcoctionDatabase.refreshNeeded = true;
+      ConcoctionDatabase.fullRefreshNeeded = true;
     }
 
     if (!ConcoctionDatabase.refreshNeeded) {
@@ -1230,13 +1264,26 @@ public class ConcoctionDatabase {
       return;
     }
 
-    ConcoctionDatabase.refreshConcoctionsNow();
+    ConcoctionDatabase.refreshChangedConcoctions();
   }
 
   public static final synchronized void refreshConcoctionsNow() {
+    ConcoctionDatabase.fullRefreshNeeded = true;
+    ConcoctionDatabase.refreshChangedConcoctions();
+  }
+
+  private static synchronized void refreshChangedConcoctions() {
     Preferences.increment("_concoctionDatabaseRefreshes");
     ConcoctionDatabase.refreshNeeded = false;
 
+    boolean fullRefresh = ConcoctionDatabase.fullRefreshNeeded;
+    ConcoctionDatabase.fullRefreshNeeded = false;
+    Set<Integer> items = new HashSet<>();
+    for (Iterator<Integer> it = ConcoctionDatabase.changedItems.iterator(); it.hasNext(); ) {
+      items.add(it.next());
+      it.remove();
+    }
+
     List<AdventureResult> availableIngredientsList = ConcoctionDatabase.getAvailableIngredients();
 
     // In addition to the list, we create a second data structure here for better performance.
@@ -1256,59 +1303,15 @@ public class ConcoctionDatabase {
     boolean useNPCStores = InventoryManager.canUseNPCStores();
     boolean useCoinmasters = InventoryManager.canUseCoinmasters();
 
-    for (Concoction item : ConcoctionPool.concoctions()) {
-      // Initialize all the variables
-      item.resetCalculations();
+    // If only the quantities of some items have changed, only the
+    // concoctions made from them, directly or not, are recalculated.
 
-      if (item.speakeasy != null) {
-        // Has an item number, but can't appear in inventory
-        continue;
-      }
+    Set<Concoction> changed = fullRefresh ? null : ConcoctionDatabase.getChangedConcoctions(items);
+    Collection<Concoction> concoctions = fullRefresh ? ConcoctionPool.concoctions() : changed;
+    Permissions before = fullRefresh ? null : Permissions.current();
 
-      AdventureResult concoction = item.concoction;
-      if (concoction == null) {
-        continue;
-      }
-
-      int itemId = concoction.getItemId();
-
-      if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
-        if (itemId != ItemPool.FLAT_DOUGH) {
-          // Don't buy flat dough from Degrassi Knoll Bakery -
-          // buy wads of dough for 20 meat less, instead.
-
-          item.price = NPCStoreDatabase.price(itemId);
-          item.initial = concoction.getCount(availableIngredients);
-          item.creatable = 0;
-          item.total = item.initial;
-          item.visibleTotal = item.total;
-          continue;
-        }
-      }
-
-      PurchaseRequest purchaseRequest = item.getPurchaseRequest();
-      if (purchaseRequest != null) {
-        purchaseRequest.setCanPurchase(useCoinmasters);
-        int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
-        item.price = 0;
-        item.initial = concoction.getCount(availableIngredients);
-        item.creatable = acquirable;
-        item.total = item.initial + acquirable;
-        item.visibleTotal = item.total;
-        continue;
-      }
-
-      // Set initial quantity of all remaining items.
-
-      // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
-      ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
-
-      item.initial = concoction.getCount(availableIngredients);
-      item.price = 0;
-      item.creatable = 0;
-      item.total = item.initial;
-      item.visibleTotal = item.total;
-    }
+    ConcoctionDatabase.initializeConcoctions(
+        concoctions, availableIngredientsList, availableIngredients, useNPCStores, useCoinmasters);
 
     // Make assessment of availability of mixing methods.
     // This method will also calculate the availability of
@@ -1317,11 +1320,38 @@ public class ConcoctionDatabase {
 
     ConcoctionDatabase.cachePermitted(availableIngredientsList);
 
+    if (!fullRefresh) {
+      // Box servants made from the changed items can change which
+      // mixing methods are permitted, so everything made with a
+      // method whose permissions changed is recalculated as well.
+
+      Collection<Concoction> permitted =
+          ConcoctionDatabase.getRepermittedConcoctions(before, Permissions.current(), changed);
+      if (permitted == null) {
+        concoctions = ConcoctionPool.concoctions();
+        ConcoctionDatabase.initializeConcoctions(
+            concoctions,
+            availableIngredientsList,
+            availableIngredients,
+            useNPCStores,
+            useCoinmasters);
+        ConcoctionDatabase.cachePermitted(availableIngredientsList);
+      } else if (!permitted.isEmpty()) {
+        ConcoctionDatabase.initializeConcoctions(
+            permitted,
+            availableIngredientsList,
+            availableIngredients,
+            useNPCStores,
+            useCoinmasters);
+        changed.addAll(permitted);
+      }
+    }
+
     // Finally, increment through all of the things which are
     // created any other way, making sure that it's a permitted
     // mixture before doing the calculation.
 
-    for (Concoction item : ConcoctionPool.concoctions()) {
+    for (Concoction item : concoctions) {
       item.calculate2();
       item.calculate3();
     }
@@ -1336,7 +1366,7 @@ public class ConcoctionDatabase {
             && !KoLCharacter.isHardcore()
             && ConcoctionDatabase.getPullsBudgeted() > ConcoctionDatabase.queuedPullsUsed;
 
-    for (Concoction item : ConcoctionPool.concoctions()) {
+    for (Concoction item : concoctions) {
       AdventureResult ar = item.getItem();
       if (ar == null) {
         continue;
@@ -1401,6 +1431,179 @@ public class ConcoctionDatabase {
     ConcoctionDatabase.queuedPotions.updateFilter(changeDetected);
   }
 
+  private static void initializeConcoctions(
+      final Collection<Concoction> concoctions,
+      final List<AdventureResult> availableIngredientsList,
+      final Map<Integer, AdventureResult> availableIngredients,
+      final boolean useNPCStores,
+      final boolean useCoinmasters) {
+    for (Concoction item : concoctions) {
+      // Initialize all the variables
+      item.resetCalculations();
+
+      if (item.speakeasy != null) {
+        // Has an item number, but can't appear in inventory
+        continue;
+      }
+
+      AdventureResult concoction = item.concoction;
+      if (concoction == null) {
+        continue;
+      }
+
+      int itemId = concoction.getItemId();
+
+      if (useNPCStores && NPCStoreDatabase.contains(itemId, true)) {
+        if (itemId != ItemPool.FLAT_DOUGH) {
+          // Don't buy flat dough from Degrassi Knoll Bakery -
+          // buy wads of dough for 20 meat less, instead.
+
+          item.price = NPCStoreDatabase.price(itemId);
+          item.initial = concoction.getCount(availableIngredients);
+          item.creatable = 0;
+          item.total = item.initial;
+          item.visibleTotal = item.total;
+          continue;
+        }
+      }
+
+      PurchaseRequest purchaseRequest = item.getPurchaseRequest();
+      if (purchaseRequest != null) {
+        purchaseRequest.setCanPurchase(useCoinmasters);
+        int acquirable = purchaseRequest.canPurchase() ? purchaseRequest.affordableCount() : 0;
+        item.price = 0;
+        item.initial = concoction.getCount(availableIngredients);
+        item.creatable = acquirable;
+        item.total = item.initial + acquirable;
+        item.visibleTotal = item.total;
+        continue;
+      }
+
+      // Set initial quantity of all remaining items.
+
+      // Switch to the better of any interchangeable ingredients. Only mutates the first argument.
+      ConcoctionDatabase.getIngredients(item, item.getIngredients(), availableIngredientsList);
+
+      item.initial = concoction.getCount(availableIngredients);
+      item.price = 0;
+      item.creatable = 0;
+      item.total = item.initial;
+      item.visibleTotal = item.total;
+    }
+  }
+
+  private record Permissions(
+      EnumSet<CraftingRequirements> requirements,
+      EnumSet<CraftingType> methods,
+      Map<CraftingType, Integer> adventureUsage,
+      Map<CraftingType, Long> creationCost,
+      List<Integer> limits) {
+    static Permissions current() {
+      List<Integer> limits = new ArrayList<>(LIMITS.size() * 2);
+      for (Concoction limit : LIMITS) {
+        limits.add(limit.initial);
+        limits.add(limit.total);
+      }
+      return new Permissions(
+          EnumSet.copyOf(REQUIREMENT_MET),
+          EnumSet.copyOf(PERMIT_METHOD),
+          new EnumMap<>(ADVENTURE_USAGE),
+          new EnumMap<>(CREATION_COST),
+          limits);
+    }
+
+    boolean changed(final Permissions other, final CraftingType method) {
+      return this.methods.contains(method) != other.methods.contains(method)
+          || !Objects.equals(this.adventureUsage.get(method), other.adventureUsage.get(method))
+          || !Objects.equals(this.creationCost.get(method), other.creationCost.get(method));
+    }
+  }
+
+  /**
+   * Returns the concoctions which need to be recalculated given that only the quantities of the
+   * changed items might have changed since the last refresh: those made from the changed items, and
+   * everything made from them in turn.
+   */
+  private static Set<Concoction> getChangedConcoctions(final Set<Integer> changedItems) {
+    Set<Concoction> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<Concoction> pending = new ArrayDeque<>();
+
+    for (int itemId : changedItems) {
+      Concoction c = ConcoctionPool.get(itemId);
+      if (c != null && changed.add(c)) {
+        pending.push(c);
+      }
+    }
+
+    ConcoctionDatabase.addKnownUses(changed, pending);
+
+    // calculateBasicItems resets these whenever permissions are cached
+    for (int itemId : new int[] {ItemPool.MEAT_PASTE, ItemPool.MEAT_STACK, ItemPool.DENSE_STACK}) {
+      Concoction c = ConcoctionPool.get(itemId);
+      if (c != null) {
+        changed.add(c);
+      }
+    }
+
+    return changed;
+  }
+
+  /**
+   * Returns the concoctions not already recalculated which need to be since permissions on item
+   * creation were cached again: those with a mixing method whose permissions have changed, and
+   * everything made from them in turn. Returns null if every concoction needs to be recalculated.
+   */
+  private static Collection<Concoction> getRepermittedConcoctions(
+      final Permissions before, final Permissions after, final Set<Concoction> changed) {
+    // Requirements and limits apply to too many recipes to follow
+    if (!before.requirements().equals(after.requirements())
+        || !before.limits().equals(after.limits())) {
+      return null;
+    }
+
+    EnumSet<CraftingType> changedMethods = EnumSet.noneOf(CraftingType.class);
+    for (CraftingType method : CraftingType.values()) {
+      if (before.changed(after, method)) {
+        changedMethods.add(method);
+      }
+    }
+
+    Set<Concoction> permitted = Collections.newSetFromMap(new IdentityHashMap<>());
+    if (changedMethods.isEmpty()) {
+      return permitted;
+    }
+
+    Deque<Concoction> pending = new ArrayDeque<>();
+    for (Concoction c : ConcoctionPool.concoctions()) {
+      if (changedMethods.contains(c.getMixingMethod())
+          && !changed.contains(c)
+          && permitted.add(c)) {
+        pending.push(c);
+      }
+    }
+
+    ConcoctionDatabase.addKnownUses(permitted, pending);
+    permitted.removeAll(changed);
+    return permitted;
+  }
+
+  private static void addKnownUses(final Set<Concoction> changed, final Deque<Concoction> pending) {
+    // Follow knownUses from each ingredient to the concoctions made from it
+    while (!pending.isEmpty()) {
+      int itemId = pending.pop().getItemId();
+      if (itemId <= 0) {
+        continue;
+      }
+
+      for (AdventureResult use : ConcoctionDatabase.getKnownUses(itemId)) {
+        Concoction c = ConcoctionPool.get(use);
+        if (c != null && changed.add(c)) {
+          pending.push(c);
+        }
+      }
+    }
+  }
+
   /** Reset concoction stat gains when you've logged in a new character. */
   public static final void resetConcoctionStatGains() {
     for (Concoction item : ConcoctionPool.concoctions()) {
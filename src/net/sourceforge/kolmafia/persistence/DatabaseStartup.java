@@ -0,0 +1,197 @@
+package net.sourceforge.kolmafia.persistence;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.DataSnapshot;
+import net.sourceforge.kolmafia.utilities.FileUtilities;
+
+/**
+ * Loads the databases at startup, rather than whenever each is first used, and records how long
+ * each took.
+ *
+ * <p>Each database declares the data files it reads and the databases whose data its own refers to.
+ * Every data file is opened at once and read in the background, while the databases are
+ * initialized one at a time, each after those it depends on. The databases themselves are not
+ * initialized in parallel: their static initializers call one another, and initializing two of them
+ * on different threads could deadlock. Initialization only triggers each class's static
+ * initializer, so a test which calls reset() afterwards reads its files as before.
+ */
+public class DatabaseStartup {
+  record DataFile(String filename, int version) {}
+
+  record Loader(
+      String name, Class<?> database, List<DataFile> files, List<String> dependencies) {}
+
+  /**
+   * How long initializing one database took. That includes initializing any other database it used
+   * which had not been initialized already, so the timings are cumulative rather than the cost of
+   * each database alone, though together they add up to the whole load.
+   */
+  public record Timing(String name, long nanos) {}
+
+  static final List<Loader> LOADERS =
+      List.of(
+          new Loader(
+              "items",
+              ItemDatabase.class,
+              List.of(
+                  new DataFile("items.txt", KoLConstants.ITEMS_VERSION),
+                  new DataFile("foldgroups.txt", KoLConstants.FOLDGROUPS_VERSION)),
+              List.of()),
+          new Loader(
+              "effects",
+              EffectDatabase.class,
+              List.of(new DataFile("statuseffects.txt", KoLConstants.STATUSEFFECTS_VERSION)),
+              List.of()),
+          new Loader(
+              "skills",
+              SkillDatabase.class,
+              List.of(new DataFile("classskills.txt", KoLConstants.CLASSSKILLS_VERSION)),
+              List.of("effects")),
+          new Loader(
+              "familiars",
+              FamiliarDatabase.class,
+              List.of(
+                  new DataFile("familiars.txt", KoLConstants.FAMILIARS_VERSION),
+                  new DataFile("fambattle.txt", KoLConstants.FAMBATTLE_VERSION)),
+              List.of("items")),
+          new Loader(
+              "equipment",
+              EquipmentDatabase.class,
+              List.of(
+                  new DataFile("equipment.txt", KoLConstants.EQUIPMENT_VERSION),
+                  new DataFile("outfits.txt", KoLConstants.OUTFITS_VERSION),
+                  new DataFile("pulverize.txt", KoLConstants.PULVERIZE_VERSION)),
+              List.of("items")),
+          new Loader(
+              "modifiers",
+              ModifierDatabase.class,
+              List.of(new DataFile("modifiers.txt", KoLConstants.MODIFIERS_VERSION)),
+              List.of("items", "effects", "skills", "familiars", "equipment")),
+          new Loader(
+              "monsters",
+              MonsterDatabase.class,
+              List.of(
+                  new DataFile("monsters.txt", KoLConstants.MONSTERS_VERSION),
+                  new DataFile("monsterparts.txt", KoLConstants.MONSTER_PARTS_VERSION)),
+              List.of("items")),
+          new Loader(
+              "consumables",
+              ConsumablesDatabase.class,
+              List.of(
+                  new DataFile("fullness.txt", KoLConstants.FULLNESS_VERSION),
+                  new DataFile("inebriety.txt", KoLConstants.INEBRIETY_VERSION),
+                  new DataFile("spleenhit.txt", KoLConstants.SPLEENHIT_VERSION),
+                  new DataFile("nonfilling.txt", KoLConstants.NONFILLING_VERSION)),
+              List.of("items")),
+          new Loader(
+              "concoctions",
+              ConcoctionDatabase.class,
+              List.of(new DataFile("concoctions.txt", KoLConstants.CONCOCTIONS_VERSION)),
+              List.of("items", "consumables")),
+          new Loader(
+              "adventures",
+              AdventureDatabase.class,
+              List.of(
+                  new DataFile("zonelist.txt", KoLConstants.ZONELIST_VERSION),
+                  new DataFile("adventures.txt", KoLConstants.ADVENTURES_VERSION),
+                  new DataFile("combats.txt", KoLConstants.COMBATS_VERSION)),
+              List.of("items", "monsters")));
+
+  private static List<Timing> timings = List.of();
+
+  private DatabaseStartup() {}
+
+  public static synchronized void load() {
+    try {
+      DatabaseStartup.timings = DatabaseStartup.load(LOADERS, ForkJoinPool.commonPool());
+    } finally {
+      DataSnapshot.releaseBuiltIn();
+    }
+  }
+
+  /**
+   * Returns how long each database took to load at startup, including any other database it was
+   * first to use, or nothing if they were not loaded.
+   */
+  public static synchronized List<Timing> getTimings() {
+    return DatabaseStartup.timings;
+  }
+
+  static List<Timing> load(final List<Loader> loaders, final Executor executor) {
+    List<Loader> ordered = DatabaseStartup.inDependencyOrder(loaders);
+    List<Timing> timings = new ArrayList<>();
+
+    try {
+      for (Loader loader : ordered) {
+        for (DataFile file : loader.files()) {
+          FileUtilities.prefetchVersionedData(file.filename(), file.version(), executor);
+        }
+      }
+
+      for (Loader loader : ordered) {
+        long start = System.nanoTime();
+        DatabaseStartup.initialize(loader.database());
+        timings.add(new Timing(loader.name(), System.nanoTime() - start));
+      }
+    } finally {
+      FileUtilities.clearPrefetchedData();
+    }
+
+    return List.copyOf(timings);
+  }
+
+  private static void initialize(final Class<?> database) {
+    try {
+      Class.forName(database.getName(), true, database.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      // The class was loaded to pass it here
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the loaders in an order in which each follows those it depends on, and otherwise keeps
+   * the order they were declared in.
+   */
+  static List<Loader> inDependencyOrder(final List<Loader> loaders) {
+    Set<String> names = new HashSet<>();
+    for (Loader loader : loaders) {
+      names.add(loader.name());
+    }
+    for (Loader loader : loaders) {
+      for (String dependency : loader.dependencies()) {
+        if (!names.contains(dependency)) {
+          throw new IllegalArgumentException(
+              loader.name() + " depends on unknown database " + dependency);
+        }
+      }
+    }
+
+    List<Loader> ordered = new ArrayList<>();
+    Set<String> loaded = new HashSet<>();
+    List<Loader> remaining = new ArrayList<>(loaders);
+
+    while (!remaining.isEmpty()) {
+      Loader next =
+          remaining.stream()
+              .filter(loader -> loaded.containsAll(loader.dependencies()))
+              .findFirst()
+              .orElseThrow(
+                  () ->
+                      new IllegalArgumentException(
+                          "Circular dependency among databases "
+                              + remaining.stream().map(Loader::name).toList()));
+      remaining.remove(next);
+      loaded.add(next.name());
+      ordered.add(next);
+    }
+
+    return ordered;
+  }
+}
@@ -35,6 +35,7 @@ import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class EffectDatabase {
   private static String[] canonicalNames = new String[0];
+  private static volatile int namesVersion = 0;
   private static final Map<String, int[]> effectIdSetByName = new TreeMap<>();
   private static final Map<Integer, EffectData> effectDataById = new TreeMap<>();
   private static final Map<String, Integer> effectIdByDescription = new HashMap<>();
@@ -98,6 +99,7 @@ public class EffectDatabase {
     // *** Make it so
     Arrays.sort(newSet);
     EffectDatabase.effectIdSetByName.put(canonicalName, newSet);
+    EffectDatabase.namesVersion++;
   }
 
   private static void addToDatabase(
@@ -124,6 +126,14 @@ public class EffectDatabase {
     EffectDatabase.effectDataById.put(effectId, effectData);
   }
 
+  /**
+   * Returns a number which changes whenever effect names are added or removed, so that callers can
+   * tell when names they derived from the database, such as disambiguated names, are out of date.
+   */
+  public static int getNamesVersion() {
+    return EffectDatabase.namesVersion;
+  }
+
   public static final EffectData getEffectData(final int effectId) {
     return EffectDatabase.effectDataById.get(effectId);
   }
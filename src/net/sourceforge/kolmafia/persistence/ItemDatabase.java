@@ -121,6 +121,7 @@ public class ItemDatabase {
   private static int maxItemId = 0;
 
   private static String[] canonicalNames = new String[0];
+  private static volatile int namesVersion = 0;
   private static final Map<String, String> uniqueInitialisms = new HashMap<>();
   private static final Map<Integer, ItemData> itemDataById = new TreeMap<>();
   private static final Map<Integer, Integer> nameLength = new HashMap<>();
@@ -636,6 +637,7 @@ public class ItemDatabase {
     ItemDatabase.itemIdSetByName.keySet().toArray(newArray);
     Arrays.sort(newArray);
     ItemDatabase.canonicalNames = newArray;
+    ItemDatabase.namesVersion++;
 
     ItemDatabase.uniqueInitialisms.clear();
     Map<String, Integer> initialismCounts = new HashMap<>();
@@ -1840,6 +1842,14 @@ public class ItemDatabase {
     return data == null ? null : data.displayName;
   }
 
+  /**
+   * Returns a number which changes whenever item names are added or removed, so that callers can
+   * tell when names they derived from the database, such as disambiguated names, are out of date.
+   */
+  public static int getNamesVersion() {
+    return ItemDatabase.namesVersion;
+  }
+
   public static final String getItemDataName(final int itemId) {
     ItemData data = ItemDatabase.getItemData(itemId);
     return data == null ? null : data.dataName;
@@ -5,6 +5,7 @@ import static net.sourceforge.kolmafia.session.StoreManager.MALL_MAX;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.net.URI;
@@ -18,8 +19,10 @@ import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import net.java.dev.spellcast.utilities.DataUtilities;
@@ -37,11 +40,20 @@ public class MallPriceDatabase {
   // If false, blocks saving of mall prices. Do not modify outside of tests.
   public static boolean savePricesToFile = true;
 
-  private static final SortedMap<Integer, Price> prices = new TreeMap<>();
+  private static final SortedMap<Integer, Price> prices = new ConcurrentSkipListMap<>();
   private static final HashSet<String> updated = new HashSet<>();
   private static final HashSet<String> submitted = new HashSet<>();
   private static int modCount = 0;
 
+  // Prices recorded since the price file was last written
+  private static final Set<Integer> unsaved = new TreeSet<>();
+  // Prices appended to the price file since it was last written in full
+  private static int appended = 0;
+  // Rewrite the price file rather than append more than this many prices to it
+  private static final int COMPACT_AFTER = 1000;
+  // While positive, recorded prices are not written until writes are no longer deferred
+  private static int deferLevel = 0;
+
   public static final File PRICE_FILE = new File(KoLConstants.DATA_LOCATION, "mallprices.txt");
 
   private static final int CONNECT_TIMEOUT = 15 * 1000;
@@ -70,6 +82,8 @@ public class MallPriceDatabase {
 
       String[] data;
       long now = MallPriceManager.currentTimeMillis() / 1000L;
+      Set<Integer> read = new HashSet<>();
+      int duplicates = 0;
 
       while ((data = FileUtilities.readData(reader)) != null) {
         if (data.length < 3) {
@@ -91,13 +105,25 @@ public class MallPriceDatabase {
         Price p = MallPriceDatabase.prices.get(id);
         if (p == null) {
           MallPriceDatabase.prices.put(id, new Price(id, price, timestamp));
-        } else if (timestamp > p.timestamp) {
+        } else if (timestamp >= p.timestamp) {
+          // Prices appended to the file come after the ones they replace
           p.update(price, timestamp);
         }
-        MallPriceManager.cachePriceIfFromCurrentRolloverDay(id, price, timestamp);
+        if (!read.add(id)) {
+          ++duplicates;
+        }
         ++count;
         ++MallPriceDatabase.modCount;
       }
+
+      for (int id : read) {
+        Price p = MallPriceDatabase.prices.get(id);
+        MallPriceManager.cachePriceIfFromCurrentRolloverDay(id, p.price, p.timestamp);
+      }
+
+      if (filename.equals(PRICE_FILE.getName())) {
+        MallPriceDatabase.appended = duplicates;
+      }
     } catch (IOException e) {
       StaticEntity.printStackTrace(e);
     }
@@ -143,7 +169,7 @@ public class MallPriceDatabase {
     }
   }
 
-  public static void recordPrice(int itemId, long price, boolean deferred) {
+  public static synchronized void recordPrice(int itemId, long price, boolean deferred) {
     long timestamp = MallPriceManager.currentTimeMillis() / 1000L;
     Price p = MallPriceDatabase.prices.get(itemId);
     if (p == null) {
@@ -152,12 +178,23 @@ public class MallPriceDatabase {
       p.update(price, timestamp);
     }
     ++MallPriceDatabase.modCount;
-    if (!deferred) {
-      MallPriceDatabase.writePrices();
+    MallPriceDatabase.unsaved.add(itemId);
+    if (!deferred && MallPriceDatabase.deferLevel == 0) {
+      MallPriceDatabase.writeChangedPrices();
     }
   }
 
-  public static void writePrices() {
+  public static synchronized void deferWrites(final boolean flag) {
+    if (flag) {
+      ++MallPriceDatabase.deferLevel;
+    } else if (MallPriceDatabase.deferLevel > 0) {
+      if (--MallPriceDatabase.deferLevel == 0) {
+        MallPriceDatabase.writeChangedPrices();
+      }
+    }
+  }
+
+  public static synchronized void writePrices() {
     if (!MallPriceDatabase.savePricesToFile) {
       return;
     }
@@ -169,7 +206,7 @@ public class MallPriceDatabase {
     }
   }
 
-  static void writePrices(PrintStream writer) {
+  static synchronized void writePrices(PrintStream writer) {
     writer.println(KoLConstants.MALLPRICES_VERSION);
 
     MallPriceDatabase.prices.entrySet().stream()
@@ -180,6 +217,45 @@ public class MallPriceDatabase {
                 writer.writeBytes(p.encoded);
               }
             });
+
+    MallPriceDatabase.unsaved.clear();
+    MallPriceDatabase.appended = 0;
+  }
+
+  /**
+   * Saves the prices recorded since the price file was last written by appending them to it. Since
+   * a price read later from the file replaces one read earlier, the file still holds the latest
+   * price of each item. Once enough prices have been appended, the file is rewritten instead.
+   */
+  public static synchronized void writeChangedPrices() {
+    if (!MallPriceDatabase.savePricesToFile || MallPriceDatabase.unsaved.isEmpty()) {
+      return;
+    }
+
+    if (!PRICE_FILE.exists()
+        || MallPriceDatabase.appended + MallPriceDatabase.unsaved.size() > COMPACT_AFTER) {
+      MallPriceDatabase.writePrices();
+      return;
+    }
+
+    try (PrintStream writer =
+        new PrintStream(new BufferedOutputStream(new FileOutputStream(PRICE_FILE, true)), false)) {
+      writeChangedPrices(writer);
+    } catch (IOException e) {
+      StaticEntity.printStackTrace(e);
+    }
+  }
+
+  static synchronized void writeChangedPrices(PrintStream writer) {
+    for (int itemId : MallPriceDatabase.unsaved) {
+      Price p = MallPriceDatabase.prices.get(itemId);
+      if (p != null) {
+        writer.writeBytes(p.encoded);
+        ++MallPriceDatabase.appended;
+      }
+    }
+
+    MallPriceDatabase.unsaved.clear();
   }
 
   public static void submitPrices(String url) {
@@ -197,6 +273,13 @@ public class MallPriceDatabase {
       return;
     }
 
+    // Submit each price once, rather than every price appended to the file
+    synchronized (MallPriceDatabase.class) {
+      if (MallPriceDatabase.appended > 0 || !MallPriceDatabase.unsaved.isEmpty()) {
+        MallPriceDatabase.writePrices();
+      }
+    }
+
     URI uri;
     try {
       uri = new URI(url);
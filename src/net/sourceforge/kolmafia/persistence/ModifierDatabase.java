@@ -28,6 +28,7 @@ import net.sourceforge.kolmafia.KoLCharacter;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLConstants.ConsumptionType;
 import net.sourceforge.kolmafia.KoLmafia;
+import net.sourceforge.kolmafia.ModifierContext;
 import net.sourceforge.kolmafia.ModifierExpression;
 import net.sourceforge.kolmafia.ModifierType;
 import net.sourceforge.kolmafia.Modifiers;
@@ -62,8 +63,9 @@ public class ModifierDatabase {
   // maps for modifiers
   private static final TwoLevelEnumHashMap<ModifierType, IntOrString, String>
       modifierStringsByName = new TwoLevelEnumHashMap<>(ModifierType.class);
+  // Read by every thread of a parallel maximizer search, and filled in as they look modifiers up
   private static final TwoLevelEnumHashMap<ModifierType, IntOrString, Modifiers> modifiersByName =
-      new TwoLevelEnumHashMap<>(ModifierType.class);
+      TwoLevelEnumHashMap.concurrent(ModifierType.class);
   private static final Map<String, Modifier> modifierTypesByName = new HashMap<>();
   private static final Map<String, String> familiarEffectByName = new HashMap<>();
   private static final Set<Lookup> inventorySkillProviders = new HashSet<>();
@@ -436,31 +438,51 @@ public class ModifierDatabase {
     Modifiers modifiers = modifiersByName.get(type, key);
 
     if (modifiers == null) {
-      String modifierString = getModifierString(new Lookup(type, key));
-
-      if (modifierString == null) {
+      modifiers = ModifierDatabase.parseAndCacheModifiers(lookup, type, key, originalType);
+      if (modifiers == null) {
         return null;
       }
+    }
 
-      modifiers = parseModifiers(lookup, modifierString);
-
+    if (modifiers.variable) {
+      // Speculation on a confined thread must not re-evaluate the shared copy
+      modifiers = ModifierContext.current().privateCopy(type, key, modifiers);
+      modifiers.override(lookup);
       if (originalType != null) {
         modifiers.setLookup(new Lookup(originalType, key));
       }
+    }
 
-      modifiers.variable = modifiers.override(lookup);
-      modifiers.applyPathModifiers();
+    return modifiers;
+  }
 
-      modifiersByName.put(type, key, modifiers);
+  private static synchronized Modifiers parseAndCacheModifiers(
+      final Lookup lookup,
+      final ModifierType type,
+      final IntOrString key,
+      final ModifierType originalType) {
+    // Another thread may have parsed these while we were waiting
+    Modifiers modifiers = modifiersByName.get(type, key);
+    if (modifiers != null) {
+      return modifiers;
     }
 
-    if (modifiers.variable) {
-      modifiers.override(lookup);
-      if (originalType != null) {
-        modifiers.setLookup(new Lookup(originalType, key));
-      }
+    String modifierString = getModifierString(new Lookup(type, key));
+
+    if (modifierString == null) {
+      return null;
     }
 
+    modifiers = parseModifiers(lookup, modifierString);
+
+    if (originalType != null) {
+      modifiers.setLookup(new Lookup(originalType, key));
+    }
+
+    modifiers.variable = modifiers.override(lookup);
+    modifiers.applyPathModifiers();
+
+    modifiersByName.put(type, key, modifiers);
     return modifiers;
   }
 
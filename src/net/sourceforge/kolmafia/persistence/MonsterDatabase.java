@@ -52,6 +52,7 @@ public class MonsterDatabase {
   // For handling duplicate monster and substring match of monster names
   private static final Map<String, MonsterData[]> MONSTER_ID_SET = new HashMap<>();
   private static String[] canonicalNames = new String[0];
+  private static volatile int namesVersion = 0;
 
   private MonsterDatabase() {}
 
@@ -605,6 +606,7 @@ public class MonsterDatabase {
     // *** Make it so
     Arrays.sort(newSet);
     MonsterDatabase.MONSTER_ID_SET.put(canonicalName, newSet);
+    MonsterDatabase.namesVersion++;
   }
 
   private static void saveCanonicalNames() {
@@ -612,6 +614,7 @@ public class MonsterDatabase {
     MonsterDatabase.MONSTER_ID_SET.keySet().toArray(newArray);
     Arrays.sort(newArray);
     MonsterDatabase.canonicalNames = newArray;
+    MonsterDatabase.namesVersion++;
   }
 
   public static final void saveAliases() {
@@ -880,6 +883,14 @@ public class MonsterDatabase {
     return MonsterDatabase.MONSTER_IMAGES.get(image);
   }
 
+  /**
+   * Returns a number which changes whenever monster names are added or removed, so that callers can
+   * tell when names they derived from the database, such as disambiguated names, are out of date.
+   */
+  public static int getNamesVersion() {
+    return MonsterDatabase.namesVersion;
+  }
+
   public static final MonsterData findMonsterById(final int id) {
     return MonsterDatabase.MONSTER_IDS.get(id);
   }
@@ -193,6 +193,7 @@ public class SkillDatabase {
   private static final AdventureResult SUPER_SKILL = EffectPool.get(EffectPool.SUPER_SKILL);
   private static final ArrayList<String> skillNames = new ArrayList<>();
   private static String[] canonicalNames = new String[0];
+  private static volatile int namesVersion = 0;
 
   static {
     SkillDatabase.reset();
@@ -278,6 +279,7 @@ public class SkillDatabase {
     // *** Make it so
     Arrays.sort(newSet);
     SkillDatabase.skillIdSetByName.put(canonicalName, newSet);
+    SkillDatabase.namesVersion++;
   }
 
   private static void addSkill(
@@ -315,6 +317,14 @@ public class SkillDatabase {
     SkillDatabase.castsById.put(skillId, 0);
   }
 
+  /**
+   * Returns a number which changes whenever skill names are added or removed, so that callers can
+   * tell when names they derived from the database, such as disambiguated names, are out of date.
+   */
+  public static int getNamesVersion() {
+    return SkillDatabase.namesVersion;
+  }
+
   public static final SkillData getSkillData(final int skillId) {
     return SkillDatabase.skillDataById.get(skillId);
   }
@@ -3,11 +3,14 @@ package net.sourceforge.kolmafia.preferences;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.Collections;
@@ -23,6 +26,7 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.UnaryOperator;
 import net.java.dev.spellcast.utilities.DataUtilities;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -61,6 +65,13 @@ public class Preferences {
       Collections.synchronizedSortedMap(new TreeMap<>());
   private static File userPropertiesFile = null;
 
+  // Journals of changes to the preferences files, when saveSettingsJournal is on. Guarded by lock.
+  private static final Map<File, PreferencesJournal> journals = new HashMap<>();
+
+  // Counts changes to any preference, so that anything calculated from preferences can tell
+  // whether it needs to be calculated again
+  private static final AtomicLong modificationCount = new AtomicLong();
+
   private static final Set<String> defaultsSet = new HashSet<>();
   private static final Set<String> perUserGlobalSet = new HashSet<>();
   private static final Set<String> onlyResetOnRollover =
@@ -175,6 +186,7 @@ public class Preferences {
           Preferences.userPropertiesFile = null;
           Preferences.userValues.clear();
           Preferences.userEncodedValues.clear();
+          Preferences.modificationCount.incrementAndGet();
         }
 
         return;
@@ -190,6 +202,11 @@ public class Preferences {
     PreferenceListenerRegistry.fireAllPreferencesChanged();
   }
 
+  /** Returns a count which changes whenever the value of any preference might have changed. */
+  public static long getModificationCount() {
+    return Preferences.modificationCount.get();
+  }
+
   public static String baseUserName(final String name) {
     return name == null || name.isEmpty()
         ? "GLOBAL"
@@ -204,6 +221,7 @@ public class Preferences {
     Preferences.globalPropertiesFile = file;
 
     Properties p = Preferences.loadPreferencesWithBackup(file, backupFile);
+    PreferencesJournal.replay(file, p);
     Preferences.globalValues.clear();
     Preferences.globalEncodedValues.clear();
 
@@ -241,6 +259,7 @@ public class Preferences {
 
     synchronized (lock) {
       Properties p = Preferences.loadPreferencesWithBackup(userPrefsFile, backupFile);
+      PreferencesJournal.replay(userPrefsFile, p);
 
       Preferences.userPropertiesFile = null;
       Preferences.userValues.clear();
@@ -533,7 +552,8 @@ public class Preferences {
         if (trackEncoded) Preferences.userEncodedValues.remove(name);
       }
     }
-    Preferences.maybeSaveToFileAfterUpdating(trackEncoded, name);
+    Preferences.modificationCount.incrementAndGet();
+    Preferences.maybeSaveToFileAfterUpdating(trackEncoded, null, name);
     PreferenceListenerRegistry.firePreferenceChanged(name);
   }
 
@@ -866,10 +886,12 @@ public class Preferences {
     if (name.equals("saveSettingsOnSet") && (boolean) object) {
       Preferences.reinitializeEncodedValues();
       trackEncoded |= Preferences.saveSettingsToFile;
+      // Changes made meanwhile are in no journal, so each file must be written in full again
+      Preferences.closeJournals();
     }
 
     Preferences.put(user, name, object, trackEncoded);
-    Preferences.maybeSaveToFileAfterUpdating(trackEncoded, name);
+    Preferences.maybeSaveToFileAfterUpdating(trackEncoded, user, name);
 
     PreferenceListenerRegistry.firePreferenceChanged(name);
 
@@ -884,6 +906,7 @@ public class Preferences {
 
   private static void putGlobal(final String name, final Object value, boolean updateEncoded) {
     Preferences.globalValues.put(name, value);
+    Preferences.modificationCount.incrementAndGet();
     if (updateEncoded) {
       Preferences.globalEncodedValues.put(
           name, encodeProperty(name, value.toString()).getBytes(StandardCharsets.UTF_8));
@@ -896,6 +919,7 @@ public class Preferences {
 
   private static void putUser(final String name, final Object value, boolean updateEncoded) {
     Preferences.userValues.put(name, value);
+    Preferences.modificationCount.incrementAndGet();
     if (updateEncoded) {
       Preferences.userEncodedValues.put(
           name, encodeProperty(name, value.toString()).getBytes(StandardCharsets.UTF_8));
@@ -912,23 +936,75 @@ public class Preferences {
     }
   }
 
-  private static void maybeSaveToFileAfterUpdating(boolean enable, String updatedProperty) {
+  private static void maybeSaveToFileAfterUpdating(
+      boolean enable, String user, String updatedProperty) {
     if (enable) {
       if (Preferences.isGlobalProperty(updatedProperty)) {
-        Preferences.saveToFile(Preferences.globalPropertiesFile, Preferences.globalEncodedValues);
+        Preferences.saveChange(
+            Preferences.globalPropertiesFile,
+            Preferences.globalEncodedValues,
+            Preferences.propertyName(user, updatedProperty));
       } else if (Preferences.userPropertiesFile != null) {
-        Preferences.saveToFile(Preferences.userPropertiesFile, Preferences.userEncodedValues);
+        Preferences.saveChange(
+            Preferences.userPropertiesFile, Preferences.userEncodedValues, updatedProperty);
+      }
+    }
+  }
+
+  private static void saveChange(File file, Map<String, byte[]> encodedData, String name) {
+    if (!Preferences.getBoolean("saveSettingsJournal")) {
+      // Every change rewrites the whole file, so don't also wait for the disk each time
+      Preferences.overwriteFile(file, encodedData);
+      return;
+    }
+
+    synchronized (lock) {
+      PreferencesJournal journal = Preferences.journals.get(file);
+      if (journal == null || journal.isFull()) {
+        // Write everything so far, including this change, and journal changes from there
+        byte[] contents = Preferences.saveToFile(file, encodedData);
+        if (contents != null) {
+          Preferences.journals.put(
+              file, new PreferencesJournal(file, PreferencesJournal.checksum(contents)));
+        }
+        return;
+      }
+
+      try {
+        byte[] line = encodedData.get(name);
+        if (line != null) {
+          journal.recordChange(line);
+        } else {
+          journal.recordRemoval(encodeProperty(name, null).getBytes(StandardCharsets.UTF_8));
+        }
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to write preferences journal.");
+        // Fall back to writing the whole file
+        Preferences.saveToFile(file, encodedData);
       }
     }
   }
 
+  private static void closeJournals() {
+    synchronized (lock) {
+      Preferences.journals.values().forEach(PreferencesJournal::close);
+      Preferences.journals.clear();
+    }
+  }
+
   private static String propertyName(final String user, final String name) {
     return user == null ? name : name + "." + Preferences.baseUserName(user);
   }
 
-  private static void saveToFile(File file, Map<String, byte[]> encodedData) {
+  /**
+   * Replaces the file with the encoded preferences, and returns what was written, or null if the
+   * file was not written. The new contents are written beside the file and moved over it, so a
+   * crash leaves either the old file or the new one, never part of one. This waits for the disk, so
+   * it is only used when settings are saved as a whole and when a journal is compacted.
+   */
+  private static byte[] saveToFile(File file, Map<String, byte[]> encodedData) {
     if (!Preferences.saveSettingsToFile) {
-      return;
+      return null;
     }
 
     // See Collections.synchronizedSortedMap
@@ -941,6 +1017,55 @@ public class Preferences {
       // Determine the contents of the file by
       // actually printing them.
 
+      ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+      synchronized (encodedData) {
+        for (Entry<String, byte[]> current : encodedData.entrySet()) {
+          ostream.writeBytes(current.getValue());
+        }
+      }
+      byte[] contents = ostream.toByteArray();
+
+      File directory = file.getAbsoluteFile().getParentFile();
+      if (!directory.exists()) {
+        directory.mkdirs();
+      }
+      File temp = new File(directory, file.getName() + ".tmp");
+
+      try {
+        try (FileOutputStream fstream = new FileOutputStream(temp)) {
+          fstream.write(contents);
+          // The new contents must be on disk before they replace the old
+          fstream.getFD().sync();
+        }
+        try {
+          Files.move(
+              temp.toPath(),
+              file.toPath(),
+              StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+      } catch (IOException e) {
+        System.out.println(e.getMessage() + " trying to write preferences as byte array.");
+        return null;
+      }
+
+      Preferences.retireJournal(file);
+      return contents;
+    }
+  }
+
+  /**
+   * Overwrites the file with the encoded preferences in place. This is how each change is saved
+   * when there is no journal; unlike saveToFile, it does not wait for the disk.
+   */
+  private static void overwriteFile(File file, Map<String, byte[]> encodedData) {
+    if (!Preferences.saveSettingsToFile) {
+      return;
+    }
+
+    synchronized (lock) {
       try (OutputStream fstream = new BufferedOutputStream(DataUtilities.getOutputStream(file))) {
         synchronized (encodedData) {
           for (Entry<String, byte[]> current : encodedData.entrySet()) {
@@ -949,8 +1074,20 @@ public class Preferences {
         }
       } catch (IOException e) {
         System.out.println(e.getMessage() + " trying to write preferences as byte array.");
+        return;
       }
+
+      Preferences.retireJournal(file);
+    }
+  }
+
+  private static void retireJournal(File file) {
+    // The file now holds every change in its journal, whose checksum no longer matches it
+    PreferencesJournal journal = Preferences.journals.remove(file);
+    if (journal != null) {
+      journal.close();
     }
+    PreferencesJournal.discard(file);
   }
 
   public static void resetToDefault(String... names) {
@@ -0,0 +1,159 @@
+package net.sourceforge.kolmafia.preferences;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * A journal of changes to one preferences file, kept beside it in NAME_prefs.journal.
+ *
+ * <p>Each change appends the line the preference would have in the preferences file, so saving a
+ * change costs the same however many preferences there are. Removing a preference appends its line
+ * with a leading '!'. When the journal is full, the preferences file is rewritten in full and the
+ * journal is started again.
+ *
+ * <p>Loading a preferences file replays its journal over it. Each line is written in one piece, and
+ * a line left incomplete by a crash is ignored, so together the preferences file and its journal
+ * hold every change whose line was written in full.
+ *
+ * <p>A journal begins with the checksum of the preferences file it applies to, and is only replayed
+ * over a file with that checksum. Replacing the preferences file therefore retires its journal in
+ * the same step, even if a crash leaves the journal behind.
+ */
+class PreferencesJournal {
+  // Rewrite the preferences file after this many changes
+  static final int COMPACT_AFTER = 1000;
+
+  private static final byte REMOVED = '!';
+  private static final String BASE = "#base=";
+
+  private final File journal;
+  private final long base;
+  private OutputStream stream = null;
+  private int records = 0;
+
+  /** Start a journal of changes to a preferences file whose contents have the given checksum. */
+  PreferencesJournal(final File file, final long base) {
+    this.journal = PreferencesJournal.journalFor(file);
+    this.base = base;
+  }
+
+  static long checksum(final byte[] contents) {
+    CRC32 crc = new CRC32();
+    crc.update(contents);
+    return crc.getValue();
+  }
+
+  private static String header(final long base) {
+    return BASE + Long.toHexString(base) + "\n";
+  }
+
+  static File journalFor(final File file) {
+    String name = file.getName();
+    int dot = name.lastIndexOf('.');
+    return new File(file.getParentFile(), (dot == -1 ? name : name.substring(0, dot)) + ".journal");
+  }
+
+  void recordChange(final byte[] line) throws IOException {
+    this.write(line);
+  }
+
+  void recordRemoval(final byte[] line) throws IOException {
+    byte[] record = new byte[line.length + 1];
+    record[0] = REMOVED;
+    System.arraycopy(line, 0, record, 1, line.length);
+    this.write(record);
+  }
+
+  private void write(final byte[] record) throws IOException {
+    if (this.stream == null) {
+      // Replace whatever journal a crash left behind
+      this.stream = new FileOutputStream(this.journal, false);
+      this.stream.write(header(this.base).getBytes(StandardCharsets.UTF_8));
+    }
+    // One write per line, so that a line is never interleaved with another
+    this.stream.write(record);
+    this.records++;
+  }
+
+  boolean isFull() {
+    return this.records >= COMPACT_AFTER;
+  }
+
+  void close() {
+    if (this.stream == null) {
+      return;
+    }
+    try {
+      this.stream.close();
+    } catch (IOException e) {
+      System.out.println(e.getMessage() + " trying to close preferences journal.");
+    }
+    this.stream = null;
+  }
+
+  /** Delete the journal of a preferences file which has just been replaced. */
+  static void discard(final File file) {
+    File journal = PreferencesJournal.journalFor(file);
+    if (journal.exists() && !journal.delete()) {
+      System.out.println("Could not delete preferences journal " + journal);
+    }
+  }
+
+  /** Apply the changes in the journal of a preferences file to the preferences loaded from it. */
+  static void replay(final File file, final Properties p) {
+    File journal = PreferencesJournal.journalFor(file);
+    if (!journal.exists()) {
+      return;
+    }
+
+    String contents;
+    long base;
+    try {
+      // Lines are encoded as Preferences encodes them for the preferences file. Decoding replaces
+      // any sequence a crash cut short rather than failing, and that line is then left out below.
+      contents = new String(Files.readAllBytes(journal.toPath()), StandardCharsets.UTF_8);
+      base = file.exists() ? checksum(Files.readAllBytes(file.toPath())) : 0;
+    } catch (IOException e) {
+      System.out.println(e.getMessage() + " trying to read preferences journal.");
+      return;
+    }
+
+    // A journal of changes to some other version of the file no longer applies
+    String header = header(base);
+    if (!contents.startsWith(header)) {
+      return;
+    }
+
+    int start = header.length();
+    int end;
+    // A last line with no line break was cut short, and is left out
+    while ((end = contents.indexOf('\n', start)) != -1) {
+      String line = contents.substring(start, end);
+      start = end + 1;
+      if (line.isBlank()) {
+        continue;
+      }
+
+      boolean removed = line.charAt(0) == REMOVED;
+      Properties change = new Properties();
+      try {
+        change.load(new StringReader(removed ? line.substring(1) : line));
+      } catch (IOException | IllegalArgumentException e) {
+        continue;
+      }
+
+      if (removed) {
+        change.keySet().forEach(p::remove);
+      } else {
+        p.putAll(change);
+      }
+    }
+  }
+}
@@ -17,6 +17,7 @@ import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.persistence.ConcoctionDatabase;
 import net.sourceforge.kolmafia.persistence.ItemDatabase;
 import net.sourceforge.kolmafia.session.InventoryManager;
+import net.sourceforge.kolmafia.utilities.ItemCountList;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class ClosetRequest extends TransferItemRequest {
@@ -65,8 +66,7 @@ public class ClosetRequest extends TransferItemRequest {
       return;
     }
 
-    KoLConstants.closet.clear();
-    KoLConstants.closet.addAll(items);
+    ((ItemCountList) KoLConstants.closet).setItems(items);
     if (InventoryManager.canUseCloset()) {
       ConcoctionDatabase.refreshConcoctions();
     }
@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.SocketTimeoutException;
@@ -83,7 +84,7 @@ import net.sourceforge.kolmafia.session.ValhallaManager;
 import net.sourceforge.kolmafia.swingui.RequestSynchFrame;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 import net.sourceforge.kolmafia.textui.parsetree.Value;
-import net.sourceforge.kolmafia.utilities.ByteBufferUtilities;
+import net.sourceforge.kolmafia.utilities.CharBufferUtilities;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.HttpUtilities;
 import net.sourceforge.kolmafia.utilities.InputFieldUtilities;
@@ -168,6 +169,14 @@ public class GenericRequest implements Runnable {
   private HttpRequest request;
   protected HttpResponse<InputStream> response;
 
+  // When tracing, each request reports how much its thread allocated handling it
+  private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+      ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+              && bean.isThreadAllocatedMemorySupported()
+          ? bean
+          : null;
+  private long allocatedBeforeRequest = -1;
+
   // Per-login data
 
   private static String userAgent = "";
@@ -1585,6 +1594,7 @@ public class GenericRequest implements Runnable {
         this.printRequestProperties();
       }
       if (RequestLogger.isTracing()) {
+        this.allocatedBeforeRequest = GenericRequest.allocatedBytes();
         RequestLogger.trace("Requesting: " + this.requestURL());
       }
       if (ScriptRuntime.isTracing()) {
@@ -2136,7 +2146,12 @@ public class GenericRequest implements Runnable {
       RequestLogger.updateDebugLog("Retrieving server reply");
     }
 
-    this.responseText = new String(ByteBufferUtilities.read(istream), StandardCharsets.UTF_8);
+    try {
+      // Decode into a reused buffer, so that the only copy made is the String itself
+      this.responseText = CharBufferUtilities.readString(istream);
+    } catch (IOException e) {
+      this.responseText = "";
+    }
 
     if (this.responseCode == 200 && RequestLogger.isTracing()) {
       String buffer =
@@ -2144,7 +2159,9 @@ public class GenericRequest implements Runnable {
               + this.requestURL()
               + " ("
               + (this.responseText == null ? "0" : this.responseText.length())
-              + " bytes)";
+              + " bytes"
+              + this.allocationTrace()
+              + ")";
       RequestLogger.trace(buffer);
     }
 
@@ -2174,18 +2191,29 @@ public class GenericRequest implements Runnable {
       }
     }
 
-    try {
-      PreferenceListenerRegistry.deferPreferenceListeners(true);
+    try (var ignored = PreferenceListenerRegistry.deferPreferenceListeners()) {
       this.processResponse();
     } catch (Exception e) {
       StaticEntity.printStackTrace(e);
-    } finally {
-      PreferenceListenerRegistry.deferPreferenceListeners(false);
     }
 
     return true;
   }
 
+  private static long allocatedBytes() {
+    return GenericRequest.THREAD_BEAN == null
+        ? -1
+        : GenericRequest.THREAD_BEAN.getCurrentThreadAllocatedBytes();
+  }
+
+  private String allocationTrace() {
+    long allocated = GenericRequest.allocatedBytes();
+    if (allocated < 0 || this.allocatedBeforeRequest < 0) {
+      return "";
+    }
+    return ", " + (allocated - this.allocatedBeforeRequest) + " bytes allocated";
+  }
+
   /** This method allows classes to process a raw, unfiltered server response. */
   public void processResponse() {
     if (this.responseText == null) {
@@ -122,6 +122,8 @@ public class RelayRequest extends PasswordHashRequest {
   public Set<ServerCookie> serverCookies = null;
   public String cookies = null;
   public byte[] rawByteBuffer = null;
+  // A file to send as the response in place of rawByteBuffer
+  public File rawFile = null;
   public String contentType = null;
   public long lastModified = 0;
   public String statusLine = "HTTP/1.1 302 Found";
@@ -227,6 +229,7 @@ public class RelayRequest extends PasswordHashRequest {
     super.constructURLString(newURLString, usePostMethod, encoded);
 
     this.rawByteBuffer = null;
+    this.rawFile = null;
     this.headers.clear();
 
     String path = this.getBasePath();
@@ -512,7 +515,7 @@ public class RelayRequest extends PasswordHashRequest {
         }
       }
 
-      if (this.responseCode == 200 && this.rawByteBuffer != null) {
+      if (this.printsContentLength()) {
         ostream.print("Content-Type: ");
         var contentType =
             this.response.headers().firstValue("Content-Type").orElse(this.contentType);
@@ -531,6 +534,44 @@ public class RelayRequest extends PasswordHashRequest {
     }
   }
 
+  private boolean printsContentLength() {
+    return this.headers.isEmpty()
+        && this.response != null
+        && this.responseCode == 200
+        && this.rawByteBuffer != null;
+  }
+
+  /**
+   * Prints the headers, and if the connection is to be kept alive, those which let the browser
+   * find the end of this response and send another request.
+   */
+  public void printHeaders(final PrintStream ostream, final boolean keepAlive) {
+    this.printHeaders(ostream);
+
+    if (!keepAlive) {
+      return;
+    }
+
+    if (this.hasBody() && !this.printsContentLength()) {
+      ostream.print("Content-Length: ");
+      ostream.print(this.getContentLength());
+      ostream.print("\r\n");
+    }
+
+    ostream.print("Connection: keep-alive\r\n");
+  }
+
+  public boolean hasBody() {
+    return this.responseCode != 204 && this.responseCode != 304;
+  }
+
+  public long getContentLength() {
+    if (this.rawFile != null) {
+      return this.rawFile.length();
+    }
+    return this.rawByteBuffer == null ? 0 : this.rawByteBuffer.length;
+  }
+
   public String getRedirectLocation() {
     if (this.responseCode != 302) {
       return "";
@@ -577,6 +618,7 @@ public class RelayRequest extends PasswordHashRequest {
         this.responseText = " ";
       } else {
         this.rawByteBuffer = null;
+        this.rawFile = null;
         this.responseText = responseText;
       }
 
@@ -701,7 +743,7 @@ public class RelayRequest extends PasswordHashRequest {
     }
 
     this.lastModified = imageFile.lastModified();
-    this.rawByteBuffer = ByteBufferUtilities.read(imageFile);
+    this.rawFile = imageFile;
     this.headers.add("Access-Control-Allow-Origin: *");
     this.pseudoResponse("HTTP/1.1 200 OK", "");
   }
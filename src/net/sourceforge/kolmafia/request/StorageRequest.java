@@ -28,6 +28,7 @@ import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.session.EquipmentManager;
 import net.sourceforge.kolmafia.session.InventoryManager;
 import net.sourceforge.kolmafia.session.ResultProcessor;
+import net.sourceforge.kolmafia.utilities.ItemCountList;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 @SuppressWarnings("incomplete-switch")
@@ -158,11 +159,9 @@ public class StorageRequest extends TransferItemRequest {
       return;
     }
 
-    KoLConstants.storage.clear();
-    KoLConstants.storage.addAll(items);
+    ((ItemCountList) KoLConstants.storage).setItems(items);
 
-    KoLConstants.freepulls.clear();
-    KoLConstants.freepulls.addAll(freepulls);
+    ((ItemCountList) KoLConstants.freepulls).setItems(freepulls);
 
     KoLConstants.nopulls.clear();
     KoLConstants.nopulls.addAll(nopulls);
@@ -0,0 +1,220 @@
+package net.sourceforge.kolmafia.scripts;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import net.java.dev.spellcast.utilities.DataUtilities;
+
+/**
+ * An index of the files in a directory tree, by name, so that a script can be found without walking
+ * the whole tree.
+ *
+ * <p>There is one index for each tree. It is built when it is first used, and built again only
+ * after a WatchService reports that something in the tree was created or deleted, or that it lost
+ * track of events. A file the index does not have is taken not to exist. The index descends into
+ * the same directories, and returns matches in the same order, as a walk of the tree using
+ * DataUtilities.listFiles.
+ */
+public class ScriptFileIndex {
+  private static final Map<File, ScriptFileIndex> INDEXES = new ConcurrentHashMap<>();
+  private static WatchService watcher = null;
+  private static boolean watcherFailed = false;
+
+  private record Contents(
+      Map<File, Integer> directories, Map<String, List<File>> files, List<WatchKey> keys) {}
+
+  private final File root;
+  private volatile boolean stale = true;
+  private boolean usable = true;
+  private Contents contents = null;
+
+  private ScriptFileIndex(final File root) {
+    this.root = root;
+  }
+
+  /** Returns the index of the tree under root, creating it the first time it is asked for. */
+  public static ScriptFileIndex of(final File root) {
+    File tree = root.getAbsoluteFile().toPath().normalize().toFile();
+    return ScriptFileIndex.INDEXES.computeIfAbsent(tree, ScriptFileIndex::new);
+  }
+
+  /** Stops watching the tree and forgets this index. */
+  public synchronized void close() {
+    ScriptFileIndex.INDEXES.remove(this.root, this);
+    this.usable = false;
+
+    if (this.contents != null) {
+      for (WatchKey key : this.contents.keys()) {
+        // Another index may be watching the same directory
+        Path directory = (Path) key.watchable();
+        if (ScriptFileIndex.INDEXES.keySet().stream()
+            .noneMatch(root -> directory.startsWith(root.toPath()))) {
+          key.cancel();
+        }
+      }
+      this.contents = null;
+    }
+  }
+
+  /**
+   * Finds each directory in the tree which has filename, which may include subdirectories, as a
+   * file.
+   *
+   * @return The matching files, ordered as a walk of the tree would find them, or null if the index
+   *     cannot answer and the tree must be walked instead.
+   */
+  public List<File> find(final String filename) {
+    String[] path = filename.replace(File.separatorChar, '/').split("/", -1);
+    for (String part : path) {
+      if (part.isEmpty() || part.equals(".") || part.equals("..")) {
+        return null;
+      }
+    }
+
+    Contents contents = this.getContents();
+    if (contents == null) {
+      return null;
+    }
+
+    List<File> candidates = contents.files().get(path[path.length - 1].toLowerCase(Locale.ROOT));
+    if (candidates == null) {
+      return List.of();
+    }
+
+    TreeMap<Integer, File> matches = new TreeMap<>();
+    for (File candidate : candidates) {
+      File directory = candidate;
+      for (int i = 0; i < path.length && directory != null; ++i) {
+        directory = directory.getParentFile();
+      }
+
+      Integer position = directory == null ? null : contents.directories().get(directory);
+      if (position == null) {
+        continue;
+      }
+
+      // The index may not yet have seen this file deleted
+      File match = new File(directory, filename);
+      if (match.exists() && !match.isDirectory()) {
+        matches.put(position, match);
+      }
+    }
+
+    return new ArrayList<>(matches.values());
+  }
+
+  private synchronized Contents getContents() {
+    if (!this.usable || ScriptFileIndex.getWatcher() == null) {
+      return null;
+    }
+
+    if (this.stale) {
+      // Anything which changes while the tree is walked will mark it stale again
+      this.stale = false;
+      try {
+        this.contents = this.build();
+      } catch (IOException e) {
+        this.usable = false;
+        this.contents = null;
+      }
+    }
+
+    return this.contents;
+  }
+
+  private Contents build() throws IOException {
+    Map<File, Integer> directories = new HashMap<>();
+    Map<String, List<File>> files = new HashMap<>();
+    List<WatchKey> keys = new ArrayList<>();
+
+    if (!this.root.isDirectory()) {
+      // Look again next time, in case it has been created
+      this.stale = true;
+    } else {
+      this.addDirectory(this.root, directories, files, keys);
+    }
+
+    return new Contents(directories, files, keys);
+  }
+
+  private void addDirectory(
+      final File directory,
+      final Map<File, Integer> directories,
+      final Map<String, List<File>> files,
+      final List<WatchKey> keys)
+      throws IOException {
+    keys.add(directory.toPath().register(ScriptFileIndex.watcher, ENTRY_CREATE, ENTRY_DELETE));
+    directories.put(directory, directories.size());
+
+    String[] names = directory.list();
+    if (names != null) {
+      for (String name : names) {
+        files
+            .computeIfAbsent(name.toLowerCase(Locale.ROOT), k -> new ArrayList<>(1))
+            .add(new File(directory, name));
+      }
+    }
+
+    for (File content : DataUtilities.listFiles(directory)) {
+      if (content.isDirectory()) {
+        this.addDirectory(content, directories, files, keys);
+      }
+    }
+  }
+
+  private static synchronized WatchService getWatcher() {
+    if (ScriptFileIndex.watcher == null && !ScriptFileIndex.watcherFailed) {
+      try {
+        ScriptFileIndex.watcher = FileSystems.getDefault().newWatchService();
+      } catch (IOException | UnsupportedOperationException e) {
+        ScriptFileIndex.watcherFailed = true;
+        return null;
+      }
+
+      Thread thread = new Thread(ScriptFileIndex::watch, "ScriptFileIndex");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    return ScriptFileIndex.watcher;
+  }
+
+  private static void watch() {
+    while (true) {
+      WatchKey key;
+      try {
+        key = ScriptFileIndex.watcher.take();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+
+      List<WatchEvent<?>> events = key.pollEvents();
+      key.reset();
+
+      // Lost events could be anywhere, but otherwise only the trees holding this directory change
+      boolean overflow = events.stream().anyMatch(event -> event.kind() == OVERFLOW);
+      Path directory = (Path) key.watchable();
+      for (ScriptFileIndex index : ScriptFileIndex.INDEXES.values()) {
+        if (overflow || directory.startsWith(index.root.toPath())) {
+          index.stale = true;
+        }
+      }
+    }
+  }
+}
@@ -73,6 +73,7 @@ import net.sourceforge.kolmafia.swingui.GenericFrame;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 import net.sourceforge.kolmafia.textui.parsetree.Value;
 import net.sourceforge.kolmafia.utilities.InputFieldUtilities;
+import net.sourceforge.kolmafia.utilities.ItemCountList;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 @SuppressWarnings("incomplete-switch")
@@ -134,8 +135,7 @@ public abstract class InventoryManager {
       return;
     }
 
-    KoLConstants.inventory.clear();
-    KoLConstants.inventory.addAll(items);
+    ((ItemCountList) KoLConstants.inventory).setItems(items);
     KoLConstants.unlimited.clear();
     KoLConstants.unlimited.addAll(unlimited);
     EquipmentManager.updateEquipmentLists();
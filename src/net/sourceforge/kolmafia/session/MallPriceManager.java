@@ -5,7 +5,6 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -13,12 +12,19 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.RequestLogger;
 import net.sourceforge.kolmafia.RequestThread;
+import net.sourceforge.kolmafia.StaticEntity;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.persistence.DateTimeManager;
 import net.sourceforge.kolmafia.persistence.ItemDatabase;
@@ -134,12 +140,16 @@ public abstract class MallPriceManager {
   }
 
   // The data structures that this package "manages".
+  //
+  // These are concurrent maps, since getMallPrices can search for several
+  // items at once.
 
   // a Map from itemId -> current mall price (as visible to a scripter.)
-  private static final Map<Integer, Long> mallPrices = new HashMap<>();
+  private static final Map<Integer, Long> mallPrices = new ConcurrentHashMap<>();
 
   // a Map from itemId -> the most resent mall search results.
-  private static final Map<Integer, List<PurchaseRequest>> mallSearches = new HashMap<>();
+  private static final Map<Integer, List<PurchaseRequest>> mallSearches =
+      new ConcurrentHashMap<>();
 
   // Constants controlling how we manage those data
 
@@ -644,32 +654,121 @@ public abstract class MallPriceManager {
     return price;
   }
 
+  // Searches made by getMallPrices for a batch of items. Up to
+  // mallPriceSearchLimit of them are in flight at once, and they start at
+  // least mallPriceSearchInterval milliseconds apart.
+
+  private record BatchSearch(int itemId, List<PurchaseRequest> results) {}
+
+  private static class SearchThrottle {
+    private final long interval;
+    private long nextStart = 0;
+
+    SearchThrottle(final long interval) {
+      this.interval = interval;
+    }
+
+    void await() throws InterruptedException {
+      long wait;
+      synchronized (this) {
+        long now = System.currentTimeMillis();
+        long start = Math.max(now, this.nextStart);
+        this.nextStart = start + this.interval;
+        wait = start - now;
+      }
+      if (wait > 0) {
+        Thread.sleep(wait);
+      }
+    }
+  }
+
+  private static BatchSearch batchSearch(final int itemId, final SearchThrottle throttle)
+      throws InterruptedException {
+    throttle.await();
+
+    if (!KoLmafia.permitsContinue()) {
+      return new BatchSearch(itemId, null);
+    }
+
+    String name = ItemDatabase.getItemDataName(itemId);
+    List<PurchaseRequest> results =
+        MallPriceManager.searchMall("\"" + name + "\"", MALL_SEARCH_RESULTS);
+
+    // Flush CoinMasterPurchaseRequests
+    results.removeIf(purchaseRequest -> purchaseRequest instanceof CoinMasterPurchaseRequest);
+
+    return new BatchSearch(itemId, KoLmafia.permitsContinue() ? results : null);
+  }
+
+  private static void recordBatchSearch(final int itemId, final List<PurchaseRequest> results) {
+    MallPriceManager.flushCache(itemId);
+    MallPriceManager.updateMallPrice(itemId, results, true);
+    MallPriceManager.mallSearches.put(itemId, results);
+  }
+
   public static int getMallPrices(AdventureResult[] items, float maxAge) {
     // Count how many items we retrieved
     int count = 0;
 
+    int limit = Math.max(1, Preferences.getInteger("mallPriceSearchLimit"));
+    SearchThrottle throttle = new SearchThrottle(Preferences.getInteger("mallPriceSearchInterval"));
+    ExecutorService executor = Executors.newFixedThreadPool(limit);
+    CompletionService<BatchSearch> searches = new ExecutorCompletionService<>(executor);
+    Set<Integer> searched = new HashSet<>();
+    int pending = 0;
+
+    // Prices are saved once, when all the searches are done
+    MallPriceDatabase.deferWrites(true);
+
     try {
       for (AdventureResult item : items) {
         int itemId = item.getItemId();
-        if (!validMallItem(itemId)) {
+        if (!validMallItem(itemId) || searched.contains(itemId)) {
           continue;
         }
         long price = MallPriceDatabase.getPrice(itemId);
         if (price > 0 && MallPriceDatabase.getAge(itemId) <= maxAge) {
           continue;
         }
-        if (MallPriceManager.mallPrices.getOrDefault(itemId, 0L) == 0) {
-          AdventureResult search = item.getInstance(NTH_CHEAPEST_COUNT);
-          List<PurchaseRequest> results = MallPriceManager.searchMall(search);
-          MallPriceManager.flushCache(itemId);
-          MallPriceManager.updateMallPrice(itemId, results, true);
-          MallPriceManager.mallSearches.put(itemId, results);
+        if (MallPriceManager.mallPrices.getOrDefault(itemId, 0L) != 0) {
+          continue;
+        }
+
+        searched.add(itemId);
+
+        List<PurchaseRequest> saved = MallPriceManager.getSavedSearch(itemId, NTH_CHEAPEST_COUNT);
+        if (saved != null) {
+          MallPriceManager.recordBatchSearch(itemId, saved);
+          ++count;
+          continue;
+        }
+
+        searches.submit(() -> MallPriceManager.batchSearch(itemId, throttle));
+        ++pending;
+      }
+
+      // Record each search as it completes
+      for (; pending > 0; --pending) {
+        BatchSearch search;
+        try {
+          search = searches.take().get();
+        } catch (ExecutionException e) {
+          StaticEntity.printStackTrace(e.getCause());
+          continue;
+        }
+
+        if (search.results() != null) {
+          MallPriceManager.recordBatchSearch(
+              search.itemId(), MallPriceManager.filterMallSearch(search.results()));
           ++count;
         }
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     } finally {
+      executor.shutdownNow();
       RequestLogger.printLine("Updating mallprices.txt with " + count + " prices.");
-      MallPriceDatabase.writePrices();
+      MallPriceDatabase.deferWrites(false);
     }
 
     return count;
@@ -723,7 +822,7 @@ public abstract class MallPriceManager {
       }
     } finally {
       RequestLogger.printLine("Updating mallprices.txt with " + count + " prices.");
-      MallPriceDatabase.writePrices();
+      MallPriceDatabase.writeChangedPrices();
     }
 
     return count;
@@ -172,8 +172,7 @@ public class ValhallaManager {
       ChatManager.setChatLiteracy(chatLiterate);
     }
 
-    try {
-      PreferenceListenerRegistry.deferPreferenceListeners(true);
+    try (var ignored = PreferenceListenerRegistry.deferPreferenceListeners()) {
       Preferences.increment("knownAscensions", 1);
       // Increment the amount of times we've ascended today
       // We can jump the gash only 2 times a day, but can pick more than 2 paths a day.
@@ -187,8 +186,6 @@ public class ValhallaManager {
 
       UntinkerRequest.reset();
       KoLCharacter.setGuildStoreOpen(false);
-    } finally {
-      PreferenceListenerRegistry.deferPreferenceListeners(false);
     }
 
     KoLmafia.resetSession();
@@ -0,0 +1,39 @@
+package net.sourceforge.kolmafia.swingui.listener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+import net.sourceforge.kolmafia.listener.Listener;
+
+/**
+ * Runs an update of a Swing component on the event dispatch thread, once for however many times it
+ * is requested before the update runs. A burst of changes therefore redraws the component once,
+ * rather than once for each change.
+ *
+ * <p>Listener registries only hold weak references to their listeners, so the component must keep
+ * a reference to this for as long as it is registered.
+ */
+public class CoalescingListener implements Listener, Runnable {
+  private final Runnable updater;
+  private final AtomicBoolean pending = new AtomicBoolean();
+
+  public CoalescingListener(final Runnable updater) {
+    this.updater = updater;
+  }
+
+  @Override
+  public void update() {
+    if (this.pending.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(this::runUpdate);
+    }
+  }
+
+  @Override
+  public void run() {
+    this.update();
+  }
+
+  private void runUpdate() {
+    this.pending.set(false);
+    this.updater.run();
+  }
+}
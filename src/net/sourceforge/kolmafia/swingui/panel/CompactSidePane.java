@@ -58,6 +58,7 @@ import net.sourceforge.kolmafia.session.InventoryManager;
 import net.sourceforge.kolmafia.session.LimitMode;
 import net.sourceforge.kolmafia.swingui.CommandDisplayFrame;
 import net.sourceforge.kolmafia.swingui.button.InvocationButton;
+import net.sourceforge.kolmafia.swingui.listener.CoalescingListener;
 import net.sourceforge.kolmafia.swingui.listener.ThreadedListener;
 import net.sourceforge.kolmafia.swingui.menu.ThreadedMenuItem;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
@@ -98,7 +99,8 @@ public class CompactSidePane extends JPanel implements Runnable {
   public CompactSidePane() {
     super(new BorderLayout());
 
-    CharacterListenerRegistry.addCharacterListener(new CharacterListener(this));
+    CharacterListenerRegistry.addCharacterListener(
+        new CharacterListener(new CoalescingListener(this)));
 
     JPanel labelPanel, valuePanel, adjustedValuePanel, baseValuePanel;
 
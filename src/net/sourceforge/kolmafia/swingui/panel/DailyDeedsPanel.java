@@ -52,6 +52,7 @@ import net.sourceforge.kolmafia.session.InventoryManager;
 import net.sourceforge.kolmafia.session.RabbitHoleManager;
 import net.sourceforge.kolmafia.session.RabbitHoleManager.Hat;
 import net.sourceforge.kolmafia.swingui.CommandDisplayFrame;
+import net.sourceforge.kolmafia.swingui.listener.CoalescingListener;
 import net.sourceforge.kolmafia.swingui.widget.DisabledItemsComboBox;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
@@ -925,17 +926,19 @@ public class DailyDeedsPanel extends Box implements Listener {
   public abstract static class Daily extends Box implements ActionListener, Listener {
     private ArrayList<JButton> buttons;
     private JLabel label;
+    // Redraws once for a burst of changes to the preferences and items this daily shows
+    private final Listener coalescedUpdate = new CoalescingListener(this::update);
 
     public Daily() {
       super(BoxLayout.X_AXIS);
     }
 
     public void addListener(String preference) {
-      PreferenceListenerRegistry.registerPreferenceListener(preference, this);
+      PreferenceListenerRegistry.registerPreferenceListener(preference, this.coalescedUpdate);
     }
 
     public void addItem(int itemId) {
-      ItemListenerRegistry.registerItemListener(itemId, this);
+      ItemListenerRegistry.registerItemListener(itemId, this.coalescedUpdate);
     }
 
     public JButton addButton(String command) {
@@ -6,6 +6,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -25,6 +26,7 @@ import net.sourceforge.kolmafia.textui.parsetree.Scope;
 import net.sourceforge.kolmafia.textui.parsetree.Type;
 import net.sourceforge.kolmafia.textui.parsetree.Value;
 import net.sourceforge.kolmafia.textui.parsetree.VarArgType;
+import net.sourceforge.kolmafia.textui.parsetree.Variable;
 import net.sourceforge.kolmafia.textui.parsetree.VariableList;
 import net.sourceforge.kolmafia.textui.parsetree.VariableReference;
 import net.sourceforge.kolmafia.utilities.CharacterEntities;
@@ -54,6 +56,11 @@ public class AshRuntime extends AbstractRuntime {
   private final ArrayList<CallFrame> frameStack;
   // Limit object churn across function calls.
   private final ArrayList<CallFrame> unusedCallFrames;
+  // Argument arrays for function calls, indexed by their length, to reuse across calls.
+  private final ArrayList<ArrayList<Object[]>> unusedArguments;
+  // Values of user function variables, saved while the functions are called again.
+  private Value[] savedBindings;
+  private int savedBindingCount;
 
   public static final int STACK_LIMIT = 10;
 
@@ -63,6 +70,9 @@ public class AshRuntime extends AbstractRuntime {
     this.hadPendingState = false;
     this.frameStack = new ArrayList<>();
     this.unusedCallFrames = new ArrayList<>();
+    this.unusedArguments = new ArrayList<>();
+    this.savedBindings = new Value[64];
+    this.savedBindingCount = 0;
   }
 
   public Parser getParser() {
@@ -424,6 +434,47 @@ public class AshRuntime extends AbstractRuntime {
     return unusedCallFrames.remove(unusedCallFrames.size() - 1).reset(name, lineNumber, fileName);
   }
 
+  public Object[] getArguments(int length) {
+    if (length < unusedArguments.size()) {
+      ArrayList<Object[]> unused = unusedArguments.get(length);
+      if (unused.size() > 0) {
+        return unused.remove(unused.size() - 1);
+      }
+    }
+    return new Object[length];
+  }
+
+  public void releaseArguments(Object[] arguments) {
+    // Don't keep the values alive
+    Arrays.fill(arguments, null);
+    while (unusedArguments.size() <= arguments.length) {
+      unusedArguments.add(new ArrayList<>());
+    }
+    unusedArguments.get(arguments.length).add(arguments);
+  }
+
+  public void saveBindings(Variable[] variables) {
+    int count = this.savedBindingCount;
+    int needed = count + variables.length;
+    if (needed > this.savedBindings.length) {
+      this.savedBindings =
+          Arrays.copyOf(this.savedBindings, Math.max(this.savedBindings.length * 2, needed));
+    }
+    for (Variable variable : variables) {
+      this.savedBindings[count++] = variable.getValue(this);
+    }
+    this.savedBindingCount = count;
+  }
+
+  public void restoreBindings(Variable[] variables) {
+    int count = this.savedBindingCount - variables.length;
+    for (int i = 0; i < variables.length; ++i) {
+      variables[i].forceValue(this.savedBindings[count + i]);
+      this.savedBindings[count + i] = null;
+    }
+    this.savedBindingCount = count;
+  }
+
   public void pushFrame(String name) {
     frameStack.add(getCallFrame(name, this.lineNumber, this.fileName));
   }
@@ -9,11 +9,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import net.java.dev.spellcast.utilities.DataUtilities;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.RequestLogger;
+import net.sourceforge.kolmafia.textui.parsetree.AggregateType;
+import net.sourceforge.kolmafia.textui.parsetree.CompositeType;
+import net.sourceforge.kolmafia.textui.parsetree.CompositeValue;
+import net.sourceforge.kolmafia.textui.parsetree.RecordType;
+import net.sourceforge.kolmafia.textui.parsetree.Type;
 import net.sourceforge.kolmafia.textui.parsetree.Value;
 import net.sourceforge.kolmafia.utilities.ByteBufferUtilities;
 import net.sourceforge.kolmafia.utilities.RollingLinkedList;
@@ -25,12 +31,27 @@ public class DataFileCache {
   private static final Map<String, byte[]> dataFileDataCache =
       Collections.synchronizedMap(new HashMap<>());
 
+  // What file_to_map read from a file, by the file as it was, the structure of the type it was
+  // read into, and whether it was read as compact. Only the most recently used are kept.
+  public record ParsedKey(String filename, long modifiedTime, String type, boolean compact) {}
+
+  private static final int PARSED_CACHE_SIZE = 16;
+  private static final Map<ParsedKey, CompositeValue> dataFileParsedCache =
+      Collections.synchronizedMap(
+          new LinkedHashMap<>(PARSED_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ParsedKey, CompositeValue> eldest) {
+              return this.size() > PARSED_CACHE_SIZE;
+            }
+          });
+
   private DataFileCache() {}
 
   public static void clearCache() {
     DataFileCache.recentlyUsedList.clear();
     DataFileCache.dataFileTimestampCache.clear();
     DataFileCache.dataFileDataCache.clear();
+    DataFileCache.dataFileParsedCache.clear();
   }
 
   public static File getFile(String filename, boolean readOnly) {
@@ -151,8 +172,7 @@ public class DataFileCache {
       return new byte[0];
     }
 
-    String sanitizedFilename =
-        input.getPath().substring(KoLConstants.ROOT_LOCATION.getPath().length() + 1);
+    String sanitizedFilename = DataFileCache.sanitize(input);
 
     long modifiedTime = input.lastModified();
 
@@ -216,10 +236,89 @@ public class DataFileCache {
       return DataTypes.FALSE_VALUE;
     }
 
-    DataFileCache.updateCache(filename, output.lastModified(), data);
+    // Cache it under the same name that getBytes will look for
+    String sanitizedFilename = DataFileCache.sanitize(output);
+    DataFileCache.updateCache(sanitizedFilename, output.lastModified(), data);
+    DataFileCache.removeParsed(sanitizedFilename);
     return DataTypes.TRUE_VALUE;
   }
 
+  private static String sanitize(final File file) {
+    return file.getPath().substring(KoLConstants.ROOT_LOCATION.getPath().length() + 1);
+  }
+
+  /**
+   * Returns the key under which what file_to_map reads from a file can be cached, or null if it
+   * cannot be cached.
+   */
+  public static ParsedKey getParsedKey(
+      final String filename, final CompositeType type, final boolean compact) {
+    if (filename.startsWith("http://") || filename.startsWith("https://")) {
+      return null;
+    }
+
+    File input = DataFileCache.getFile(filename, true);
+    if (input == null || !input.exists()) {
+      return null;
+    }
+
+    String signature = DataFileCache.signature(type);
+    return new ParsedKey(DataFileCache.sanitize(input), input.lastModified(), signature, compact);
+  }
+
+  /**
+   * Describes the structure of a type. Each script declares its own types, so two declarations of
+   * the same map are different objects, but read a file the same way if they are alike here.
+   */
+  static String signature(final Type type) {
+    StringBuilder buffer = new StringBuilder();
+    DataFileCache.appendSignature(buffer, type);
+    return buffer.toString();
+  }
+
+  private static void appendSignature(final StringBuilder buffer, final Type type) {
+    Type base = type.getBaseType();
+    if (base instanceof AggregateType aggregate) {
+      DataFileCache.appendSignature(buffer, aggregate.getDataType());
+      buffer.append(" [");
+      if (aggregate.getSize() != -1) {
+        buffer.append(aggregate.getSize());
+      } else {
+        DataFileCache.appendSignature(buffer, aggregate.getIndexType());
+      }
+      if (aggregate.isCaseInsensitive()) {
+        buffer.append(" case insensitive");
+      }
+      buffer.append("]");
+    } else if (base instanceof RecordType record) {
+      buffer.append("record ").append(record.getName()).append(" {");
+      String[] names = record.getFieldNames();
+      Type[] types = record.getFieldTypes();
+      for (int i = 0; i < names.length; ++i) {
+        DataFileCache.appendSignature(buffer, types[i]);
+        buffer.append(" ").append(names[i]).append(";");
+      }
+      buffer.append("}");
+    } else {
+      buffer.append(base.getName());
+    }
+  }
+
+  /** Returns what was read under the key, which the caller must not change, or null. */
+  public static CompositeValue getParsed(final ParsedKey key) {
+    return DataFileCache.dataFileParsedCache.get(key);
+  }
+
+  public static void putParsed(final ParsedKey key, final CompositeValue value) {
+    DataFileCache.dataFileParsedCache.put(key, value);
+  }
+
+  private static void removeParsed(final String filename) {
+    synchronized (DataFileCache.dataFileParsedCache) {
+      DataFileCache.dataFileParsedCache.keySet().removeIf(key -> key.filename().equals(filename));
+    }
+  }
+
   private static void updateCache(String filename, long modifiedTime, byte[] data) {
     String recentlyUsedCheck = DataFileCache.recentlyUsedList.update(filename);
 
@@ -1,5 +1,6 @@
 package net.sourceforge.kolmafia.textui;
 
+import java.util.Arrays;
 import java.util.List;
 import net.java.dev.spellcast.utilities.LockableListModel;
 import net.sourceforge.kolmafia.AdventureResult;
@@ -228,6 +229,13 @@ public class DataTypes {
   public static final Value PATH_INIT = new Value(DataTypes.PATH_TYPE, -1, "none", Path.NONE);
   public static final Value MODIFIER_INIT = new Value(DataTypes.MODIFIER_TYPE, "none", null);
 
+  // Canonical values of database-backed types, by id, shared by every script which names them
+  private static final InternTable ITEM_VALUES = new InternTable();
+  private static final InternTable SKILL_VALUES = new InternTable();
+  private static final InternTable EFFECT_VALUES = new InternTable();
+  private static final InternTable FAMILIAR_VALUES = new InternTable();
+  private static final InternTable MONSTER_VALUES = new InternTable();
+
   public static final TypeList enumeratedTypes =
       TypeList.of(
           ITEM_TYPE,
@@ -545,8 +553,7 @@ public class DataTypes {
     }
 
     name = FamiliarDatabase.getFamiliarName(num);
-    FamiliarRaceData data = FamiliarDatabase.getFamiliarRaceData(num);
-    return new Value(DataTypes.FAMILIAR_TYPE, num, name, data);
+    return DataTypes.makeNormalizedFamiliar(num, name);
   }
 
   public static final Value parseSlotValue(String name, final boolean returnDefault) {
@@ -824,6 +831,12 @@ public class DataTypes {
     if (num == -1) {
       return DataTypes.ITEM_INIT;
     }
+    int version = ItemDatabase.getNamesVersion();
+    Value value = DataTypes.ITEM_VALUES.get(num, name, null, version);
+    if (value != null) {
+      return value;
+    }
+    String dataName = name;
     if (name == null) {
       name = "[" + num + "]";
     }
@@ -831,7 +844,8 @@ public class DataTypes {
     if (itemIds != null && itemIds.length > 1) {
       name = "[" + num + "]" + name;
     }
-    return new Value(DataTypes.ITEM_TYPE, num, name);
+    value = new Value(DataTypes.ITEM_TYPE, num, name);
+    return DataTypes.ITEM_VALUES.put(num, dataName, null, version, value);
   }
 
   public static final Value makeItemValue(final int num, final boolean returnDefault) {
@@ -886,6 +900,13 @@ public class DataTypes {
     if (num == -1) {
       return DataTypes.SKILL_INIT;
     }
+    SkillData skillData = SkillDatabase.getSkillData(num);
+    int version = SkillDatabase.getNamesVersion();
+    Value value = DataTypes.SKILL_VALUES.get(num, name, skillData, version);
+    if (value != null) {
+      return value;
+    }
+    String dataName = name;
     if (name == null) {
       name = "[" + num + "]";
     }
@@ -893,8 +914,8 @@ public class DataTypes {
     if (skillIds != null && skillIds.length > 1) {
       name = "[" + num + "]" + name;
     }
-    SkillData skillData = SkillDatabase.getSkillData(num);
-    return new Value(DataTypes.SKILL_TYPE, num, name, skillData);
+    value = new Value(DataTypes.SKILL_TYPE, num, name, skillData);
+    return DataTypes.SKILL_VALUES.put(num, dataName, skillData, version, value);
   }
 
   public static final Value makeSkillValue(final int num, final boolean returnDefault) {
@@ -910,6 +931,13 @@ public class DataTypes {
     if (num == -1) {
       return DataTypes.EFFECT_INIT;
     }
+    EffectData effectData = EffectDatabase.getEffectData(num);
+    int version = EffectDatabase.getNamesVersion();
+    Value value = DataTypes.EFFECT_VALUES.get(num, name, effectData, version);
+    if (value != null) {
+      return value;
+    }
+    String dataName = name;
     if (name == null) {
       name = "[" + num + "]";
     }
@@ -917,8 +945,8 @@ public class DataTypes {
     if (effectIds != null && effectIds.length > 1) {
       name = "[" + num + "]" + name;
     }
-    EffectData effectData = EffectDatabase.getEffectData(num);
-    return new Value(DataTypes.EFFECT_TYPE, num, name, effectData);
+    value = new Value(DataTypes.EFFECT_TYPE, num, name, effectData);
+    return DataTypes.EFFECT_VALUES.put(num, dataName, effectData, version, value);
   }
 
   public static final Value makeEffectValue(final int num, final boolean returnDefault) {
@@ -934,8 +962,17 @@ public class DataTypes {
     if (name == null) {
       return returnDefault ? DataTypes.FAMILIAR_INIT : null;
     }
+    return DataTypes.makeNormalizedFamiliar(num, name);
+  }
+
+  private static Value makeNormalizedFamiliar(final int num, final String name) {
     FamiliarRaceData data = FamiliarDatabase.getFamiliarRaceData(num);
-    return new Value(DataTypes.FAMILIAR_TYPE, num, name, data);
+    Value value = DataTypes.FAMILIAR_VALUES.get(num, name, data, 0);
+    if (value != null) {
+      return value;
+    }
+    value = new Value(DataTypes.FAMILIAR_TYPE, num, name, data);
+    return DataTypes.FAMILIAR_VALUES.put(num, name, data, 0, value);
   }
 
   public static final Value makeMonsterValue(final int num, final boolean returnDefault) {
@@ -1031,12 +1068,20 @@ public class DataTypes {
 
     int id = monster.getId();
     String name = monster.getName();
+    int version = MonsterDatabase.getNamesVersion();
+    Value value = DataTypes.MONSTER_VALUES.get(id, name, monster, version);
+    if (value != null) {
+      return value;
+    }
+
+    String dataName = name;
     int[] monsterIds = MonsterDatabase.getMonsterIds(name, false);
     if (monsterIds != null && monsterIds.length > 1) {
       name = "[" + id + "]" + name;
     }
 
-    return new Value(DataTypes.MONSTER_TYPE, id, name, monster);
+    value = new Value(DataTypes.MONSTER_TYPE, id, name, monster);
+    return DataTypes.MONSTER_VALUES.put(id, dataName, monster, version, value);
   }
 
   public static final Value makeStringArrayValue(final List<String> list) {
@@ -1123,4 +1168,47 @@ public class DataTypes {
       default -> throw new ScriptException("Internal error: Illegal type for main() parameter");
     }
   }
+
+  /**
+   * The canonical values of one type, by id. Each is kept with the database name, data and names
+   * version it was built from, and is only returned while they are unchanged, so renaming an entry
+   * or adding another of the same name rebuilds it. Values are shared, so must not be modified.
+   */
+  private static class InternTable {
+    private static final int MAX_ID = 1 << 20;
+
+    private record Entry(Value value, String name, Object data, int version) {}
+
+    private volatile Entry[] entries = new Entry[0];
+
+    Value get(final int id, final String name, final Object data, final int version) {
+      Entry[] entries = this.entries;
+      if (id < 0 || id >= entries.length) {
+        return null;
+      }
+      Entry entry = entries[id];
+      if (entry == null
+          || entry.name() != name
+          || entry.data() != data
+          || entry.version() != version
+          || entry.value().contentLong != id) {
+        return null;
+      }
+      return entry.value();
+    }
+
+    synchronized Value put(
+        final int id, final String name, final Object data, final int version, final Value value) {
+      if (id < 0 || id >= MAX_ID) {
+        return value;
+      }
+      Entry[] entries = this.entries;
+      if (id >= entries.length) {
+        entries = Arrays.copyOf(entries, Math.min(MAX_ID, Math.max(id + 1, entries.length * 2)));
+      }
+      entries[id] = new Entry(value, name, data, version);
+      this.entries = entries;
+      return value;
+    }
+  }
 }
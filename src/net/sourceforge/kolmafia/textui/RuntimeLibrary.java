@@ -9809,6 +9809,18 @@ public abstract class RuntimeLibrary {
     CompositeValue result = (CompositeValue) var2;
     boolean compact = var3.intValue() == 1;
 
+    // Reading the same unchanged file into the same type of map again gives the same result
+    DataFileCache.ParsedKey key =
+        result instanceof MapValue
+            ? DataFileCache.getParsedKey(filename, result.getCompositeType(), compact)
+            : null;
+    CompositeValue parsed = key == null ? null : DataFileCache.getParsed(key);
+    if (parsed != null) {
+      result.clear();
+      result.addCopiesOf(parsed);
+      return DataTypes.TRUE_VALUE;
+    }
+
     BufferedReader reader = DataFileCache.getReader(filename);
     if (reader == null) {
       return DataTypes.FALSE_VALUE;
@@ -9853,6 +9865,12 @@ public abstract class RuntimeLibrary {
       return DataTypes.FALSE_VALUE;
     }
 
+    if (key != null) {
+      parsed = (CompositeValue) result.getType().initialValue();
+      parsed.addCopiesOf(result);
+      DataFileCache.putParsed(key, parsed);
+    }
+
     return DataTypes.TRUE_VALUE;
   }
 
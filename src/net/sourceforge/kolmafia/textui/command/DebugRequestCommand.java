@@ -1,15 +1,20 @@
 package net.sourceforge.kolmafia.textui.command;
 
+import java.util.List;
 import net.sourceforge.kolmafia.KoLConstants.MafiaState;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.RequestLogger;
+import net.sourceforge.kolmafia.listener.ItemListenerRegistry;
 import net.sourceforge.kolmafia.listener.ListenerRegistry;
+import net.sourceforge.kolmafia.listener.NamedListenerRegistry;
+import net.sourceforge.kolmafia.listener.PreferenceListenerRegistry;
+import net.sourceforge.kolmafia.persistence.DatabaseStartup;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 
 public class DebugRequestCommand extends AbstractCommand {
   public DebugRequestCommand() {
     this.usage =
-        " [on] | off | ? | note | trace [ [on] | off | ? ] | ash [ [on] | off ] | listener [ [on] | off ] - start or stop logging of debugging data.";
+        " [on] | off | ? | note | trace [ [on] | off | ? ] | ash [ [on] | off ] | listener [ [on] | off | stats ] | startup - start or stop logging of debugging data, or show database load times.";
   }
 
   @Override
@@ -65,8 +70,28 @@ public class DebugRequestCommand extends AbstractCommand {
           ListenerRegistry.setLogging(true);
         } else if (command.equals("off")) {
           ListenerRegistry.setLogging(false);
+        } else if (command.equals("stats")) {
+          DebugRequestCommand.printStatistics(
+              "preferences", PreferenceListenerRegistry.getPreferenceStatistics());
+          DebugRequestCommand.printStatistics("named", NamedListenerRegistry.getNamedStatistics());
+          DebugRequestCommand.printStatistics("items", ItemListenerRegistry.getItemStatistics());
         }
         break;
+      case "startup":
+        List<DatabaseStartup.Timing> timings = DatabaseStartup.getTimings();
+        if (timings.isEmpty()) {
+          KoLmafia.updateDisplay("Databases were not loaded at startup.");
+          break;
+        }
+        RequestLogger.printLine(
+            "Cumulative load times, each including any database it was first to use:");
+        long total = 0;
+        for (DatabaseStartup.Timing timing : timings) {
+          RequestLogger.printLine(timing.name() + ": " + timing.nanos() / 1_000_000 + " ms");
+          total += timing.nanos();
+        }
+        RequestLogger.printLine("total: " + total / 1_000_000 + " ms");
+        break;
       case "note":
         String debugNote = parameters.substring(command.length()).trim();
         if (debugNote.equals("")) {
@@ -90,4 +115,15 @@ public class DebugRequestCommand extends AbstractCommand {
         break;
     }
   }
+
+  private static void printStatistics(
+      final String name, final ListenerRegistry.Statistics statistics) {
+    RequestLogger.printLine(
+        name
+            + ": "
+            + statistics.fires()
+            + " fires, "
+            + statistics.deliveries()
+            + " listener updates");
+  }
 }
@@ -29,6 +29,10 @@ public abstract class AshStub extends BaseFunction {
     this.ashFunctionName = ashFunctionName;
   }
 
+  protected ScriptRuntime getController() {
+    return controller;
+  }
+
   @Override
   public String getFunctionName() {
     return JavascriptRuntime.toCamelCase(ashFunctionName);
@@ -61,20 +65,20 @@ public abstract class AshStub extends BaseFunction {
                       }
                     })
                 .toList();
-        throw controller.runtimeException(
+        throw getController().runtimeException(
             Parser.undefinedFunctionMessage(ashFunctionName, ashArgsGuess));
       }
 
       ashReturnValue = execute(functionWithArgs.function(), functionWithArgs.ashArgs());
     } catch (ValueConverter.ValueConverterException e) {
-      throw controller.runtimeException(e.getMessage());
+      throw getController().runtimeException(e.getMessage());
     }
 
     // Some functions will interrupt code execution on failure. In ASH this is mitigated by
     // capturing the return
     // value of those functions. In JavaScript we don't want this behaviour at all
     if (!KoLmafia.refusesContinue() && ashReturnValue != null) {
-      this.controller.setState(ScriptRuntime.State.NORMAL);
+      getController().setState(ScriptRuntime.State.NORMAL);
       KoLmafia.forceContinue();
     }
 
@@ -94,7 +98,7 @@ public abstract class AshStub extends BaseFunction {
         return rng;
       }
 
-      throw controller.runtimeException("ASH function returned native Java object.");
+      throw getController().runtimeException("ASH function returned native Java object.");
     }
 
     return returnValue;
@@ -2,9 +2,9 @@ package net.sourceforge.kolmafia.textui.javascript;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.sourceforge.kolmafia.textui.DataTypes;
 import net.sourceforge.kolmafia.textui.ScriptException;
 import net.sourceforge.kolmafia.textui.parsetree.CompositeValue;
@@ -22,7 +22,9 @@ public class EnumeratedWrapper extends ScriptableObject {
   private static final long serialVersionUID = 1L;
 
   // Make sure each wrapper is a singleton, so that equality comparison works in JS.
-  private static final Map<Scriptable, Map<Value, EnumeratedWrapper>> registry = new HashMap<>();
+  // Wrappers are registered against the prototype of their type, which every script shares.
+  private static final Map<Scriptable, Map<Value, EnumeratedWrapper>> registry =
+      new ConcurrentHashMap<>();
 
   private final Class<?> recordValueClass;
   // NB: This wrapped value is NOT the proxy record type version.
@@ -35,33 +37,21 @@ public class EnumeratedWrapper extends ScriptableObject {
   }
 
   public static EnumeratedWrapper wrap(Scriptable scope, Class<?> recordValueClass, Value wrapped) {
-    scope = getTopLevelScope(scope);
-    Scriptable proto = scope.getPrototype();
-    while (proto != null && proto != getObjectPrototype(scope)) {
-      scope = proto;
-      proto = scope.getPrototype();
-    }
-
-    Map<Value, EnumeratedWrapper> subRegistry = registry.getOrDefault(scope, null);
-    if (subRegistry == null) {
-      subRegistry = new HashMap<>();
-      registry.put(scope, subRegistry);
-    }
-
-    EnumeratedWrapper existing = subRegistry.getOrDefault(wrapped, null);
-    if (existing == null) {
-      existing = new EnumeratedWrapper(recordValueClass, wrapped);
-      existing.setPrototype(
-          EnumeratedWrapperPrototype.getPrototypeInstance(scope, wrapped.getType()));
-      existing.sealObject();
-      subRegistry.put(wrapped, existing);
-    }
-
-    return existing;
-  }
-
-  public static void cleanup(Scriptable scope) {
-    registry.remove(scope);
+    Scriptable topScope = getTopLevelScope(scope);
+    EnumeratedWrapperPrototype prototype =
+        EnumeratedWrapperPrototype.getPrototypeInstance(topScope, wrapped.getType());
+
+    // A scope without the enumerated types has wrappers of its own
+    return registry
+        .computeIfAbsent(prototype != null ? prototype : topScope, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            wrapped,
+            k -> {
+              EnumeratedWrapper wrapper = new EnumeratedWrapper(recordValueClass, wrapped);
+              wrapper.setPrototype(prototype);
+              wrapper.sealObject();
+              return wrapper;
+            });
   }
 
   public Value getWrapped() {
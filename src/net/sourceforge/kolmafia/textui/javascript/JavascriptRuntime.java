@@ -34,6 +34,7 @@ import net.sourceforge.kolmafia.textui.parsetree.Type;
 import net.sourceforge.kolmafia.textui.parsetree.Value;
 import net.sourceforge.kolmafia.textui.parsetree.VariableReference;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
+import org.mozilla.javascript.BaseFunction;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextFactory;
 import org.mozilla.javascript.EcmaError;
@@ -60,11 +61,17 @@ public class JavascriptRuntime extends AbstractRuntime {
   /** Set while an abort that's already printed, unwinds on this thread. */
   private static final ThreadLocal<Boolean> abortUnwinding = ThreadLocal.withInitial(() -> false);
 
+  /** The runtime whose script is running on each thread. */
+  private static final ThreadLocal<JavascriptRuntime> currentRuntime = new ThreadLocal<>();
+
+  private static Scriptable sharedScope = null;
+  private static Scriptable runtimeLibrary = null;
+
   static final Map<String, Storage> storedSessions = new HashMap<>();
   private File scriptFile = null;
   private String scriptString = null;
 
-  private Scriptable currentStdLib = null;
+  private Object sessionStorage = null;
 
   public static void clearSessionStorage() {
     storedSessions.clear();
@@ -129,51 +136,114 @@ public class JavascriptRuntime extends AbstractRuntime {
   }
 
   // Public only for testing.
-  public Scriptable initRuntimeLibrary(Context cx, Scriptable scope, File scriptFile) {
-    var addToTopScope = scriptFile == null;
+  public static Scriptable initRuntimeLibrary(Context cx, Scriptable scope) {
+    ScriptableObject stdLib = (ScriptableObject) cx.newObject(scope);
+    defineRuntimeLibrary(stdLib, READONLY | PERMANENT);
+    defineSessionStorage(stdLib, DONTENUM | READONLY | PERMANENT);
 
+    ScriptableObject.defineProperty(
+        scope, DEFAULT_RUNTIME_LIBRARY_NAME, stdLib, DONTENUM | READONLY | PERMANENT);
+    return stdLib;
+  }
+
+  private static void defineRuntimeLibrary(final ScriptableObject object, final int attributes) {
     Set<String> uniqueFunctionNames =
         getFunctions().stream().map(Symbol::getName).collect(Collectors.toCollection(TreeSet::new));
 
-    Scriptable stdLib = cx.newObject(scope);
-
     for (String libraryFunctionName : uniqueFunctionNames) {
-      String jsName = toCamelCase(libraryFunctionName);
       ScriptableObject.defineProperty(
-          stdLib,
-          jsName,
+          object,
+          toCamelCase(libraryFunctionName),
           new LibraryFunctionStub(
-              stdLib, ScriptableObject.getFunctionPrototype(stdLib), this, libraryFunctionName),
-          READONLY | PERMANENT);
-      if (addToTopScope) {
-        ScriptableObject.defineProperty(
-            scope,
-            jsName,
-            new LibraryFunctionStub(
-                scope, ScriptableObject.getFunctionPrototype(scope), this, libraryFunctionName),
-            DONTENUM);
-      }
+              object, ScriptableObject.getFunctionPrototype(object), libraryFunctionName),
+          attributes);
     }
+  }
 
-    // Initialise sessionStorage
-    // Storage is sandboxed per script file. CLI scripts share a session.
-    var storage =
-        storedSessions.computeIfAbsent(
-            scriptFile == null ? null : scriptFile.getAbsolutePath(), k -> new Storage());
+  private static void defineSessionStorage(final ScriptableObject object, final int attributes) {
+    object.setGetterOrSetter(
+        "sessionStorage",
+        0,
+        new SessionStorageGetter(object, ScriptableObject.getFunctionPrototype(object)),
+        false);
+    object.setAttributes("sessionStorage", attributes);
+  }
 
-    var wrapFactory = cx.getWrapFactory();
-    wrapFactory.setJavaPrimitiveWrap(false);
-    var jsObject = (NativeJavaObject) wrapFactory.wrap(cx, scope, storage, (Class<?>) null);
-    ScriptableObject.defineProperty(
-        stdLib, "sessionStorage", jsObject, DONTENUM | READONLY | PERMANENT);
+  /** Finds the sessionStorage of whichever script is running on this thread. */
+  private static class SessionStorageGetter extends BaseFunction {
+    private static final long serialVersionUID = 1L;
+
+    SessionStorageGetter(Scriptable scope, Scriptable prototype) {
+      super(scope, prototype);
+    }
+
+    @Override
+    public Object call(Context cx, Scriptable scope, Scriptable thisObj, Object[] args) {
+      JavascriptRuntime runtime = getCurrentRuntime();
+      return runtime == null ? null : runtime.getSessionStorage(cx, scope);
+    }
+  }
+
+  private Object getSessionStorage(Context cx, Scriptable scope) {
+    if (this.sessionStorage == null) {
+      // Storage is sandboxed per script file. CLI scripts share a session.
+      var storage =
+          storedSessions.computeIfAbsent(
+              scriptFile == null ? null : scriptFile.getAbsolutePath(), k -> new Storage());
+      this.sessionStorage = cx.getWrapFactory().wrap(cx, scope, storage, (Class<?>) null);
+    }
+    return this.sessionStorage;
+  }
+
+  /** The runtime whose script is running on this thread, for stubs in the shared scope. */
+  public static JavascriptRuntime getCurrentRuntime() {
+    return currentRuntime.get();
+  }
 
-    if (addToTopScope) {
-      ScriptableObject.defineProperty(scope, "sessionStorage", jsObject, DONTENUM);
+  /**
+   * Builds the runtime library and the enumerated types once, in a sealed scope of their own, so
+   * that no script can change what another sees. Each script still has its own standard objects.
+   */
+  private static synchronized void initSharedScope(Context cx) {
+    if (sharedScope == null) {
+      ScriptableObject scope = cx.initSafeStandardObjects(null, true);
+      runtimeLibrary = initRuntimeLibrary(cx, scope);
+      initEnumeratedTypes(cx, scope, runtimeLibrary);
+      ((ScriptableObject) runtimeLibrary).sealObject();
+      scope.sealObject();
+      sharedScope = scope;
     }
+  }
 
+  /**
+   * Returns a new top scope for one script, with its own standard objects, which a script may add
+   * to, and the shared runtime library and enumerated types.
+   */
+  private Scriptable initScope(Context cx) {
+    initSharedScope(cx);
+
+    ScriptableObject scope = cx.initSafeStandardObjects();
     ScriptableObject.defineProperty(
-        scope, DEFAULT_RUNTIME_LIBRARY_NAME, stdLib, DONTENUM | READONLY | PERMANENT);
-    return stdLib;
+        scope, DEFAULT_RUNTIME_LIBRARY_NAME, runtimeLibrary, DONTENUM | READONLY | PERMANENT);
+    for (Type valueType : DataTypes.enumeratedTypes) {
+      String className = EnumeratedWrapperPrototype.getClassName(valueType);
+      Object constructor = ScriptableObject.getProperty(sharedScope, className);
+      if (constructor instanceof Scriptable) {
+        ScriptableObject.defineProperty(scope, className, constructor, DONTENUM);
+      }
+    }
+
+    // If executing from GCLI (and not file), the runtime library is also in the top scope.
+    if (scriptFile == null) {
+      for (Object id : ((ScriptableObject) runtimeLibrary).getIds()) {
+        String name = (String) id;
+        ScriptableObject.defineProperty(
+            scope, name, ScriptableObject.getProperty(runtimeLibrary, name), DONTENUM);
+      }
+      defineSessionStorage(scope, DONTENUM);
+    }
+
+    return scope;
   }
 
   private static ScriptableObject initEnumeratedType(
@@ -222,16 +292,11 @@ public class JavascriptRuntime extends AbstractRuntime {
     cx.setLanguageVersion(Context.VERSION_ES6);
     cx.setOptimizationLevel(1);
     cx.setTrackUnhandledPromiseRejections(true);
+    cx.getWrapFactory().setJavaPrimitiveWrap(false);
     runningRuntimes.add(this);
 
-    // TODO: Use a shared parent scope and initialize this with that as a prototype.
-    // But be careful. May mess up our EnumeratedWrapper registries.
-    Scriptable scope = cx.initSafeStandardObjects();
-
     try {
-      // If executing from GCLI (and not file), add std lib to top scope.
-      currentStdLib = initRuntimeLibrary(cx, scope, scriptFile);
-      initEnumeratedTypes(cx, scope, currentStdLib);
+      Scriptable scope = initScope(cx);
 
       setState(State.NORMAL);
       if (ScriptRuntime.hasTopCall(cx)) {
@@ -253,7 +318,6 @@ public class JavascriptRuntime extends AbstractRuntime {
       KoLmafia.updateDisplay(KoLConstants.MafiaState.ERROR, escapedMessage);
       return null;
     } finally {
-      EnumeratedWrapper.cleanup(scope);
       runningRuntimes.remove(this);
       Context.exit();
       if (Context.getCurrentContext() == null) {
@@ -269,6 +333,9 @@ public class JavascriptRuntime extends AbstractRuntime {
 
     boolean stackOnAbort = Preferences.getBoolean("printStackOnAbort");
 
+    JavascriptRuntime previousRuntime = currentRuntime.get();
+    currentRuntime.set(this);
+
     try {
       returnValue = callback.get();
       cx.processMicrotasks();
@@ -324,6 +391,7 @@ public class JavascriptRuntime extends AbstractRuntime {
       String escapedMessage = escapeHtmlInMessage("Script exception: " + e.getMessage());
       KoLmafia.updateDisplay(KoLConstants.MafiaState.ERROR, escapedMessage);
     } finally {
+      currentRuntime.set(previousRuntime);
       // Reentrant (Macrofier calls back in mid-script), so only exit if KoLmafia says to abort.
       if (!KoLmafia.permitsContinue()) {
         setState(State.EXIT);
@@ -394,7 +462,7 @@ public class JavascriptRuntime extends AbstractRuntime {
           Scriptable exports = null;
 
           if (executeTopLevel) {
-            Require require = new SafeRequire(cx, scope, currentStdLib);
+            Require require = new SafeRequire(cx, scope, runtimeLibrary);
             if (scriptFile != null) {
               exports = require.requireMain(cx, scriptFile.toURI().toString());
             } else {
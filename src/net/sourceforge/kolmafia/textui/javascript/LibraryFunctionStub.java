@@ -24,6 +24,16 @@ public class LibraryFunctionStub extends AshStub {
     super(scope, prototype, controller, ashFunctionName);
   }
 
+  /** A stub for the shared scope, which calls for whichever script is running on this thread. */
+  public LibraryFunctionStub(Scriptable scope, Scriptable prototype, String ashFunctionName) {
+    this(scope, prototype, null, ashFunctionName);
+  }
+
+  @Override
+  protected ScriptRuntime getController() {
+    return controller != null ? controller : JavascriptRuntime.getCurrentRuntime();
+  }
+
   @Override
   protected FunctionList getAllFunctions() {
     return RuntimeLibrary.functions;
@@ -35,15 +45,17 @@ public class LibraryFunctionStub extends AshStub {
     if (function instanceof LibraryFunction) {
       ashFunction = (LibraryFunction) function;
     } else {
-      throw controller.runtimeException(Parser.undefinedFunctionMessage(ashFunctionName, ashArgs));
+      throw getController()
+          .runtimeException(Parser.undefinedFunctionMessage(ashFunctionName, ashArgs));
     }
 
     List<Object> ashArgsWithInterpreter = new ArrayList<>(ashArgs.size() + 1);
-    ashArgsWithInterpreter.add(controller);
+    ScriptRuntime runtime = getController();
+    ashArgsWithInterpreter.add(runtime);
     ashArgsWithInterpreter.addAll(ashArgs);
 
     try {
-      return ashFunction.executeWithoutInterpreter(controller, ashArgsWithInterpreter.toArray());
+      return ashFunction.executeWithoutInterpreter(runtime, ashArgsWithInterpreter.toArray());
     } catch (Throwable e) {
       // ensure the exception can be caught in Javascript
       throw Context.throwAsScriptRuntimeEx(e);
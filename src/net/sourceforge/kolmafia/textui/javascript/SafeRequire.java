@@ -18,6 +18,7 @@ import net.sourceforge.kolmafia.textui.parsetree.UserDefinedFunction;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.commonjs.module.ModuleScriptProvider;
 import org.mozilla.javascript.commonjs.module.Require;
 import org.mozilla.javascript.commonjs.module.provider.ParsedContentType;
 import org.mozilla.javascript.commonjs.module.provider.SoftCachingModuleScriptProvider;
@@ -26,16 +27,14 @@ import org.mozilla.javascript.commonjs.module.provider.UrlModuleSourceProvider;
 public class SafeRequire extends Require {
   private static final long serialVersionUID = 1L;
 
+  // Shared by every script, so that a module is compiled again only when its file changes.
+  private static final ModuleScriptProvider moduleScriptProvider =
+      new SoftCachingModuleScriptProvider(new KoLmafiaUrlModuleSourceProvider());
+
   private final Scriptable stdLib;
 
   public SafeRequire(Context cx, Scriptable nativeScope, Scriptable stdLib) {
-    super(
-        cx,
-        nativeScope,
-        new SoftCachingModuleScriptProvider(new KoLmafiaUrlModuleSourceProvider()),
-        null,
-        new MainWarningScript(),
-        true);
+    super(cx, nativeScope, moduleScriptProvider, null, new MainWarningScript(), true);
     this.stdLib = stdLib;
   }
 
@@ -94,6 +94,10 @@ public class AggregateType extends CompositeType {
     return key;
   }
 
+  public boolean isCaseInsensitive() {
+    return this.caseInsensitive;
+  }
+
   public int getSize() {
     return this.size;
   }
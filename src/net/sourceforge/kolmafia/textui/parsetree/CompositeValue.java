@@ -6,7 +6,9 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import net.sourceforge.kolmafia.textui.AshRuntime;
+import net.sourceforge.kolmafia.textui.DataTypes;
 import net.sourceforge.kolmafia.textui.ScriptException;
 
 public abstract class CompositeValue extends Value {
@@ -51,6 +53,39 @@ public abstract class CompositeValue extends Value {
     return ((CompositeType) this.type).getDataType(key).initialValue();
   }
 
+  /**
+   * Adds each entry of source to this composite. Composite values are copied in turn, so the two
+   * share nothing that a script can change.
+   */
+  public void addCopiesOf(final CompositeValue source) {
+    for (Value key : source.keys()) {
+      this.aset(key, CompositeValue.copyOf(source.aref(key)));
+    }
+  }
+
+  private static Value copyOf(final Value value) {
+    if (value instanceof ArrayValue array) {
+      List<Value> values = new ArrayList<>();
+      for (Value key : array.keys()) {
+        values.add(CompositeValue.copyOf(array.aref(key)));
+      }
+      return new ArrayValue(new AggregateType((AggregateType) array.getType()), values);
+    }
+
+    if (value instanceof CompositeValue composite) {
+      CompositeValue copy = (CompositeValue) composite.getType().initialValue();
+      copy.addCopiesOf(composite);
+      return copy;
+    }
+
+    if (value.getType().equals(DataTypes.BUFFER_TYPE)) {
+      return new Value(DataTypes.BUFFER_TYPE, "", new StringBuffer(value.toString()));
+    }
+
+    // Other values are never changed in place
+    return value;
+  }
+
   @Override
   public void dump(final PrintStream writer, final String prefix, final boolean compact) {
     Value[] keys = this.keys();
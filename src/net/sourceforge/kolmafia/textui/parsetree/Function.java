@@ -296,6 +296,17 @@ public abstract class Function extends Symbol {
   }
 
   public Object[] bindVariableReferences(AshRuntime interpreter, Object[] values) {
+    if (!this.hasVarArg && values.length == this.variableReferences.size() + 1) {
+      // Each value binds to its own parameter, so the values are already in place
+      if (interpreter != null) {
+        int index = 1;
+        for (VariableReference paramVarRef : this.variableReferences) {
+          paramVarRef.setValue(interpreter, (Value) values[index++]);
+        }
+      }
+      return values;
+    }
+
     List<Object> newValues = new ArrayList<>();
 
     // This is the interpreter.
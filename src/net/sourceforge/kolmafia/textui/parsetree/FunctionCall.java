@@ -55,7 +55,16 @@ public class FunctionCall extends Evaluable {
 
     interpreter.traceIndent();
 
-    Object[] values = new Object[params.size() + 1];
+    // Calls nest, so the arguments are free for another call once this one returns
+    Object[] values = interpreter.getArguments(params.size() + 1);
+    try {
+      return this.execute(interpreter, values);
+    } finally {
+      interpreter.releaseArguments(values);
+    }
+  }
+
+  private Value execute(final AshRuntime interpreter, final Object[] values) {
     values[0] = interpreter;
 
     int paramCount = 1;
@@ -0,0 +1,443 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
+
+/**
+ * The content of a MapValue whose index type can be hashed, in place of a TreeMap.
+ *
+ * <p>Keys which Value.compareTo orders by contentLong are held in an open addressed table of longs.
+ * Keys which it orders by their string are held in a HashMap by that string, folded if case is
+ * ignored. Keys of any other type, which ASH rarely produces, are kept in a list and compared as
+ * the TreeMap would have compared them.
+ *
+ * <p>Iteration is in key order, as it was with the TreeMap, and fails if a key is added or removed
+ * other than through the iterator. The keys are sorted when the order is first needed after a key
+ * was added or removed.
+ */
+class HashedValueMap extends AbstractMap<Value, Value> {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final TypeSpec keyType;
+  private final boolean hashLongs;
+  private final boolean ignoreCase;
+  private final Comparator<Value> order;
+
+  // Keys which compare by contentLong. A slot is empty if its key is null.
+  private long[] longKeys;
+  private Value[] keys;
+  private Value[] values;
+  private int longCount;
+  private int shift;
+
+  // Keys which compare by their string
+  private HashMap<String, Entry<Value, Value>> strings;
+
+  // Keys of any other type
+  private List<Entry<Value, Value>> others;
+
+  private Value[] sorted = null;
+  private int modCount = 0;
+
+  private HashedValueMap(final TypeSpec keyType, final boolean ignoreCase) {
+    this.keyType = keyType;
+    this.hashLongs = isLongKey(keyType);
+    this.ignoreCase = ignoreCase;
+    this.order = ignoreCase ? Value.ignoreCaseComparator : Comparator.naturalOrder();
+    this.clear();
+  }
+
+  /** Returns an empty map for keys of the given type: a HashedValueMap if it can hold them. */
+  static Map<Value, Value> create(final Type indexType, final boolean ignoreCase) {
+    Type baseType = indexType == null ? null : indexType.getBaseType();
+    if (baseType == null || !canHash(baseType.getType())) {
+      return ignoreCase ? new TreeMap<>(Value.ignoreCaseComparator) : new TreeMap<>();
+    }
+    return new HashedValueMap(baseType.getType(), ignoreCase);
+  }
+
+  private static boolean canHash(final TypeSpec type) {
+    // Monsters are ordered by id, but some by name, floats by double, and buffers can change
+    return isLongKey(type) || isStringKey(type);
+  }
+
+  // Value.compareTo orders these by contentLong
+  private static boolean isLongKey(final TypeSpec type) {
+    return switch (type) {
+      case BOOLEAN, INT, ITEM, SKILL, EFFECT, FAMILIAR, THRALL, SERVANT, SLOT, PATH, CLASS -> true;
+      default -> false;
+    };
+  }
+
+  // Value.compareTo orders these by their string
+  private static boolean isStringKey(final TypeSpec type) {
+    return switch (type) {
+      case STRING, LOCATION, STAT, ELEMENT, COINMASTER, PHYLUM, BOUNTY, MODIFIER -> true;
+      default -> false;
+    };
+  }
+
+  private boolean isHashed(final Value key) {
+    return key.getType().getType() == this.keyType;
+  }
+
+  private String stringKey(final Value key) {
+    String string = key.toString();
+    if (!this.ignoreCase) {
+      return string;
+    }
+
+    // Two strings fold to the same key when compareToIgnoreCase finds them equal
+    StringBuilder folded = new StringBuilder(string.length());
+    string
+        .codePoints()
+        .forEach(c -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+    return folded.toString();
+  }
+
+  private int slot(final long key) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> this.shift);
+  }
+
+  // The slot holding key, or if there is none, -1 minus the empty slot where it would go
+  private int find(final long key) {
+    int mask = this.keys.length - 1;
+    for (int i = this.slot(key); ; i = (i + 1) & mask) {
+      if (this.keys[i] == null) {
+        return -1 - i;
+      }
+      if (this.longKeys[i] == key) {
+        return i;
+      }
+    }
+  }
+
+  private void resize(final int capacity) {
+    long[] oldLongKeys = this.longKeys;
+    Value[] oldKeys = this.keys;
+    Value[] oldValues = this.values;
+
+    this.longKeys = new long[capacity];
+    this.keys = new Value[capacity];
+    this.values = new Value[capacity];
+    this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+
+    if (oldKeys == null) {
+      return;
+    }
+
+    for (int i = 0; i < oldKeys.length; ++i) {
+      if (oldKeys[i] != null) {
+        int slot = -1 - this.find(oldLongKeys[i]);
+        this.longKeys[slot] = oldLongKeys[i];
+        this.keys[slot] = oldKeys[i];
+        this.values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void removeSlot(final int slot) {
+    int mask = this.keys.length - 1;
+    int gap = slot;
+
+    // Move back each following key which may not be found across the gap
+    for (int i = (slot + 1) & mask; this.keys[i] != null; i = (i + 1) & mask) {
+      int home = this.slot(this.longKeys[i]);
+      if (((i - home) & mask) >= ((i - gap) & mask)) {
+        this.longKeys[gap] = this.longKeys[i];
+        this.keys[gap] = this.keys[i];
+        this.values[gap] = this.values[i];
+        gap = i;
+      }
+    }
+
+    this.keys[gap] = null;
+    this.values[gap] = null;
+    this.longCount--;
+  }
+
+  private Entry<Value, Value> findOther(final Value key) {
+    if (this.others == null) {
+      return null;
+    }
+    for (Entry<Value, Value> entry : this.others) {
+      if (this.order.compare(entry.getKey(), key) == 0) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  // Keys of another type are rare, so look for them the slow way
+  private Value findAny(final Value key) {
+    if (this.hashLongs) {
+      for (Value existing : this.keys) {
+        if (existing != null && this.order.compare(existing, key) == 0) {
+          return existing;
+        }
+      }
+    } else {
+      for (Entry<Value, Value> entry : this.strings.values()) {
+        if (this.order.compare(entry.getKey(), key) == 0) {
+          return entry.getKey();
+        }
+      }
+    }
+    return null;
+  }
+
+  private void structureChanged() {
+    this.modCount++;
+    this.sorted = null;
+  }
+
+  @Override
+  public int size() {
+    return this.longCount + this.strings.size() + (this.others == null ? 0 : this.others.size());
+  }
+
+  @Override
+  public boolean containsKey(final Object o) {
+    return this.get(o) != null;
+  }
+
+  @Override
+  public Value get(final Object o) {
+    if (!(o instanceof Value key)) {
+      return null;
+    }
+
+    if (!this.isHashed(key)) {
+      Value existing = this.findAny(key);
+      if (existing != null) {
+        return this.get(existing);
+      }
+      Entry<Value, Value> other = this.findOther(key);
+      return other == null ? null : other.getValue();
+    }
+
+    Value value;
+    if (this.hashLongs) {
+      int slot = this.find(key.contentLong);
+      value = slot < 0 ? null : this.values[slot];
+    } else {
+      Entry<Value, Value> entry = this.strings.get(this.stringKey(key));
+      value = entry == null ? null : entry.getValue();
+    }
+
+    if (value == null && this.others != null) {
+      Entry<Value, Value> other = this.findOther(key);
+      return other == null ? null : other.getValue();
+    }
+
+    return value;
+  }
+
+  @Override
+  public Value put(final Value key, final Value value) {
+    if (!this.isHashed(key)) {
+      Value existing = this.findAny(key);
+      if (existing != null) {
+        return this.put(existing, value);
+      }
+      Entry<Value, Value> other = this.findOther(key);
+      if (other != null) {
+        return other.setValue(value);
+      }
+      if (this.others == null) {
+        this.others = new ArrayList<>();
+      }
+      this.others.add(new SimpleEntry<>(key, value));
+      this.structureChanged();
+      return null;
+    }
+
+    if (this.others != null) {
+      Entry<Value, Value> other = this.findOther(key);
+      if (other != null) {
+        return other.setValue(value);
+      }
+    }
+
+    if (this.hashLongs) {
+      int slot = this.find(key.contentLong);
+      if (slot >= 0) {
+        // As with a TreeMap, the original key is kept
+        Value old = this.values[slot];
+        this.values[slot] = value;
+        return old;
+      }
+
+      if ((this.longCount + 1) * 4 > this.keys.length * 3) {
+        this.resize(this.keys.length * 2);
+        slot = this.find(key.contentLong);
+      }
+
+      slot = -1 - slot;
+      this.longKeys[slot] = key.contentLong;
+      this.keys[slot] = key;
+      this.values[slot] = value;
+      this.longCount++;
+    } else {
+      String stringKey = this.stringKey(key);
+      Entry<Value, Value> entry = this.strings.get(stringKey);
+      if (entry != null) {
+        return entry.setValue(value);
+      }
+      this.strings.put(stringKey, new SimpleEntry<>(key, value));
+    }
+
+    this.structureChanged();
+    return null;
+  }
+
+  @Override
+  public Value remove(final Object o) {
+    if (!(o instanceof Value key)) {
+      return null;
+    }
+
+    if (!this.isHashed(key)) {
+      Value existing = this.findAny(key);
+      if (existing != null) {
+        return this.remove(existing);
+      }
+    } else if (this.hashLongs) {
+      int slot = this.find(key.contentLong);
+      if (slot >= 0) {
+        Value old = this.values[slot];
+        this.removeSlot(slot);
+        this.structureChanged();
+        return old;
+      }
+    } else {
+      Entry<Value, Value> entry = this.strings.remove(this.stringKey(key));
+      if (entry != null) {
+        this.structureChanged();
+        return entry.getValue();
+      }
+    }
+
+    Entry<Value, Value> other = this.findOther(key);
+    if (other == null) {
+      return null;
+    }
+    this.others.remove(other);
+    this.structureChanged();
+    return other.getValue();
+  }
+
+  @Override
+  public void clear() {
+    this.longKeys = null;
+    this.keys = null;
+    this.values = null;
+    this.longCount = 0;
+    if (this.hashLongs) {
+      this.resize(INITIAL_CAPACITY);
+    } else {
+      this.keys = new Value[0];
+    }
+    this.strings = new HashMap<>();
+    this.others = null;
+    this.structureChanged();
+  }
+
+  private Value[] sortedKeys() {
+    if (this.sorted == null) {
+      Value[] keys = new Value[this.size()];
+      int count = 0;
+
+      for (Value key : this.keys) {
+        if (key != null) {
+          keys[count++] = key;
+        }
+      }
+      for (Entry<Value, Value> entry : this.strings.values()) {
+        keys[count++] = entry.getKey();
+      }
+      if (this.others != null) {
+        for (Entry<Value, Value> entry : this.others) {
+          keys[count++] = entry.getKey();
+        }
+      }
+
+      Arrays.sort(keys, this.order);
+      this.sorted = keys;
+    }
+
+    return this.sorted;
+  }
+
+  @Override
+  public Set<Entry<Value, Value>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<Value, Value>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return HashedValueMap.this.size();
+      }
+    };
+  }
+
+  private class EntryIterator implements Iterator<Entry<Value, Value>> {
+    private final Value[] keys = HashedValueMap.this.sortedKeys();
+    private int next = 0;
+    private Value current = null;
+    private int expectedModCount = HashedValueMap.this.modCount;
+
+    @Override
+    public boolean hasNext() {
+      return this.next < this.keys.length;
+    }
+
+    @Override
+    public Entry<Value, Value> next() {
+      if (HashedValueMap.this.modCount != this.expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (this.next >= this.keys.length) {
+        throw new NoSuchElementException();
+      }
+
+      this.current = this.keys[this.next++];
+      return new SimpleEntry<>(this.current, HashedValueMap.this.get(this.current)) {
+        @Override
+        public Value setValue(final Value value) {
+          HashedValueMap.this.put(this.getKey(), value);
+          return super.setValue(value);
+        }
+      };
+    }
+
+    @Override
+    public void remove() {
+      if (this.current == null) {
+        throw new IllegalStateException();
+      }
+      if (HashedValueMap.this.modCount != this.expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+
+      HashedValueMap.this.remove(this.current);
+      this.expectedModCount = HashedValueMap.this.modCount;
+      this.current = null;
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package net.sourceforge.kolmafia.textui.parsetree;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
@@ -14,7 +16,10 @@ import net.sourceforge.kolmafia.textui.ScriptException;
 import net.sourceforge.kolmafia.textui.ScriptRuntime;
 
 public class LibraryFunction extends Function {
-  private final Method method;
+  // The RuntimeLibrary method, bound once when the function is defined
+  private final MethodHandle method;
+  // The same method, taking its arguments as an array
+  private final MethodHandle spreader;
   public final String[] deprecationWarning;
 
   public LibraryFunction(
@@ -27,6 +32,10 @@ public class LibraryFunction extends Function {
     this.deprecationWarning = deprecationWarning;
 
     this.method = findLibraryMethodOrError(name, variableReferences.size());
+    this.spreader =
+        this.method == null
+            ? null
+            : this.method.asSpreader(Object[].class, variableReferences.size() + 1);
   }
 
   public static Method findLibraryMethod(String name, int paramCount) throws NoSuchMethodException {
@@ -38,9 +47,18 @@ public class LibraryFunction extends Function {
     return RuntimeLibrary.findMethod(name, args);
   }
 
-  private static Method findLibraryMethodOrError(String name, int paramCount) {
+  private static MethodHandle findLibraryMethodOrError(String name, int paramCount) {
     try {
-      return LibraryFunction.findLibraryMethod(name, paramCount);
+      MethodHandle handle =
+          MethodHandles.publicLookup()
+              .unreflect(LibraryFunction.findLibraryMethod(name, paramCount));
+
+      // invokeExact needs the type it is called with, but some methods declare a narrower
+      // return type, such as ArrayValue
+      Class<?>[] args = new Class[paramCount + 1];
+      args[0] = ScriptRuntime.class;
+      Arrays.fill(args, 1, args.length, Value.class);
+      return handle.asType(MethodType.methodType(Value.class, args));
     } catch (Exception e) {
       // This should not happen; it denotes a coding
       // error that must be fixed before release.
@@ -72,20 +90,14 @@ public class LibraryFunction extends Function {
       values = this.bindVariableReferences(interpreter, values);
 
       // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
+      return this.invoke(values);
+    } catch (ScriptException e) {
+      // Pass up exceptions intentionally generated by library
+      throw e;
+    } catch (Throwable e) {
       // This is an error in the called method. Pass
       // it on up so that we'll print a stack trace.
-
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
-      }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
+      throw new RuntimeException(e);
     }
   }
 
@@ -105,23 +117,40 @@ public class LibraryFunction extends Function {
       values = this.bindVariableReferences(null, values);
 
       // Invoke the method
-      return (Value) this.method.invoke(this, values);
-    } catch (InvocationTargetException e) {
+      return this.invoke(values);
+    } catch (ScriptException e) {
+      // Pass up exceptions intentionally generated by library
+      throw e;
+    } catch (Throwable e) {
       // This is an error in the called method. Pass
       // it on up so that we'll print a stack trace.
-
-      Throwable cause = e.getCause();
-      if (cause instanceof ScriptException) {
-        // Pass up exceptions intentionally generated by library
-        throw (ScriptException) cause;
-      }
-      throw new RuntimeException(cause);
-    } catch (IllegalAccessException e) {
-      // This is not expected, but is an internal error in ASH
-      throw new ScriptException(e);
+      throw new RuntimeException(e);
     }
   }
 
+  private Value invoke(final Object[] values) throws Throwable {
+    // Calls with few arguments, which are most of them, need no array
+    ScriptRuntime controller = (ScriptRuntime) values[0];
+    return switch (values.length) {
+      case 1 -> (Value) this.method.invokeExact(controller);
+      case 2 -> (Value) this.method.invokeExact(controller, (Value) values[1]);
+      case 3 -> (Value) this.method.invokeExact(controller, (Value) values[1], (Value) values[2]);
+      case 4 ->
+          (Value)
+              this.method.invokeExact(
+                  controller, (Value) values[1], (Value) values[2], (Value) values[3]);
+      case 5 ->
+          (Value)
+              this.method.invokeExact(
+                  controller,
+                  (Value) values[1],
+                  (Value) values[2],
+                  (Value) values[3],
+                  (Value) values[4]);
+      default -> (Value) this.spreader.invokeExact(values);
+    };
+  }
+
   public List<String> getParameterNames() {
     return this.variableReferences.stream()
         .map(VariableReference::getName)
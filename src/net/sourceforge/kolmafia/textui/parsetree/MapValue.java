@@ -3,22 +3,17 @@ package net.sourceforge.kolmafia.textui.parsetree;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes.TypeSpec;
 
 public class MapValue extends AggregateValue {
   public MapValue(final AggregateType type) {
-    super(type);
-    this.content = new TreeMap<Value, Value>();
+    this(type, false);
   }
 
   public MapValue(final AggregateType type, boolean caseInsensitive) {
     super(type);
-    this.content =
-        caseInsensitive
-            ? new TreeMap<Value, Value>(Value.ignoreCaseComparator)
-            : new TreeMap<Value, Value>();
+    this.content = HashedValueMap.create(type.getIndexType(), caseInsensitive);
   }
 
   public MapValue(final AggregateType type, Map<?, ?> value) {
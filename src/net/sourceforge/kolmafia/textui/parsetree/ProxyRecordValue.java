@@ -1,9 +1,13 @@
 package net.sourceforge.kolmafia.textui.parsetree;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.AreaCombatData;
@@ -92,21 +96,19 @@ public class ProxyRecordValue extends RecordValue {
 
     Object rv;
     try {
-      rv = this.getClass().getMethod("get_" + type.getFieldNames()[index]).invoke(this);
-    } catch (InvocationTargetException e) {
-      throw interpreter.runtimeException("Unable to invoke attribute getter: " + e.getCause());
-    } catch (Exception e) {
+      rv = ProxyRecordValue.getters(this.getClass(), type)[index].get(this);
+    } catch (Throwable e) {
       throw interpreter.runtimeException("Unable to invoke attribute getter: " + e);
     }
 
-    if (rv == null) {
-      return type.getFieldTypes()[index].initialValue();
-    }
-
     if (rv instanceof Value vv) {
       return vv;
     }
 
+    if (rv == null) {
+      return type.getFieldTypes()[index].initialValue();
+    }
+
     if (rv instanceof Integer iv) {
       return DataTypes.makeIntValue(iv);
     }
@@ -139,6 +141,62 @@ public class ProxyRecordValue extends RecordValue {
         "Unable to convert attribute value of type: " + rv.getClass());
   }
 
+  /* Reads one field of a proxy record, as a Value where its getter returns a primitive */
+  @FunctionalInterface
+  private interface FieldGetter {
+    Object get(ProxyRecordValue proxy) throws Throwable;
+  }
+
+  // The getters of each proxy class, by field index, found once rather than on every read
+  private static final Map<Class<?>, FieldGetter[]> GETTERS = new ConcurrentHashMap<>();
+
+  private static FieldGetter[] getters(final Class<?> proxyClass, final RecordType type) {
+    return GETTERS.computeIfAbsent(proxyClass, c -> ProxyRecordValue.findGetters(c, type));
+  }
+
+  private static FieldGetter[] findGetters(final Class<?> proxyClass, final RecordType type) {
+    String[] names = type.getFieldNames();
+    FieldGetter[] getters = new FieldGetter[names.length];
+
+    for (int i = 0; i < names.length; ++i) {
+      try {
+        getters[i] =
+            ProxyRecordValue.makeGetter(
+                MethodHandles.publicLookup().unreflect(proxyClass.getMethod("get_" + names[i])));
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        // Reported when the field is read, as it was before getters were cached
+        getters[i] =
+            proxy -> {
+              throw e;
+            };
+      }
+    }
+
+    return getters;
+  }
+
+  private static FieldGetter makeGetter(final MethodHandle handle) {
+    Class<?> returnType = handle.type().returnType();
+    MethodHandle getter = handle.asType(MethodType.methodType(returnType, ProxyRecordValue.class));
+
+    if (returnType == int.class) {
+      return proxy -> DataTypes.makeIntValue((int) getter.invokeExact(proxy));
+    }
+    if (returnType == long.class) {
+      return proxy -> DataTypes.makeIntValue((long) getter.invokeExact(proxy));
+    }
+    if (returnType == boolean.class) {
+      return proxy -> DataTypes.makeBooleanValue((boolean) getter.invokeExact(proxy));
+    }
+    if (returnType == double.class) {
+      return proxy -> DataTypes.makeFloatValue((double) getter.invokeExact(proxy));
+    }
+
+    MethodHandle objectGetter =
+        handle.asType(MethodType.methodType(Object.class, ProxyRecordValue.class));
+    return proxy -> (Object) objectGetter.invokeExact(proxy);
+  }
+
   @Override
   public void aset(final Value key, final Value val, final AshRuntime interpreter) {
     throw interpreter.runtimeException("Cannot assign to a proxy record field");
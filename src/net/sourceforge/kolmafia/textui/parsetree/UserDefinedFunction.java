@@ -3,7 +3,6 @@ package net.sourceforge.kolmafia.textui.parsetree;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Stack;
 import net.sourceforge.kolmafia.StaticEntity;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.RuntimeLibrary;
@@ -11,7 +10,8 @@ import org.eclipse.lsp4j.Location;
 
 public class UserDefinedFunction extends Function {
   private Scope scope;
-  private final Stack<ArrayList<Value>> callStack;
+  // The variables whose values are saved across calls, found when the function is first called
+  private Variable[] bindings;
 
   public UserDefinedFunction(
       final String name,
@@ -21,50 +21,34 @@ public class UserDefinedFunction extends Function {
     super(name, type, variableReferences, location);
 
     this.scope = null;
-    this.callStack = new Stack<>();
+    this.bindings = null;
   }
 
   public void setScope(final Scope s) {
     this.scope = s;
+    this.bindings = null;
   }
 
   public Scope getScope() {
     return this.scope;
   }
 
-  private void saveBindings(AshRuntime interpreter) {
-    if (this.scope == null) {
-      return;
-    }
+  private Variable[] getBindings() {
+    if (this.bindings == null) {
+      List<Variable> bindings = new ArrayList<>();
 
-    ArrayList<Value> values = new ArrayList<>();
-
-    for (BasicScope next : this.scope.getScopes()) {
-      for (Variable current : next.getVariables()) {
-        if (!current.isStatic()) {
-          values.add(current.getValue(interpreter));
+      for (BasicScope next : this.scope.getScopes()) {
+        for (Variable current : next.getVariables()) {
+          if (!current.isStatic()) {
+            bindings.add(current);
+          }
         }
       }
-    }
 
-    this.callStack.push(values);
-  }
-
-  private void restoreBindings(AshRuntime interpreter) {
-    if (this.scope == null) {
-      return;
+      this.bindings = bindings.toArray(new Variable[0]);
     }
 
-    ArrayList<Value> values = this.callStack.pop();
-    int i = 0;
-
-    for (BasicScope next : this.scope.getScopes()) {
-      for (Variable current : next.getVariables()) {
-        if (!current.isStatic()) {
-          current.forceValue(values.get(i++));
-        }
-      }
-    }
+    return this.bindings;
   }
 
   @Override
@@ -79,15 +63,19 @@ public class UserDefinedFunction extends Function {
     }
 
     // Save current variable bindings
-    this.saveBindings(interpreter);
-
-    // Bind values to variable references
-    this.bindVariableReferences(interpreter, values);
-
-    Value result = this.scope.execute(interpreter);
-
-    // Restore initial variable bindings
-    this.restoreBindings(interpreter);
+    Variable[] bindings = this.getBindings();
+    interpreter.saveBindings(bindings);
+
+    Value result;
+    try {
+      // Bind values to variable references
+      this.bindVariableReferences(interpreter, values);
+
+      result = this.scope.execute(interpreter);
+    } finally {
+      // Restore initial variable bindings
+      interpreter.restoreBindings(bindings);
+    }
 
     if (result.getType().equals(this.type.getBaseType())) {
       return result;
@@ -0,0 +1,91 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+public class CharBufferUtilities {
+  private static final int BYTE_BUFFER_SIZE = 16 * 1024;
+  private static final int INITIAL_CHAR_BUFFER_SIZE = 64 * 1024;
+
+  // A thread keeps a larger buffer only if it is no larger than this. Most pages fit, and a thread
+  // which once read a very large page does not hold on to that much memory for the session.
+  private static final int MAX_RETAINED_CHAR_BUFFER_SIZE = 256 * 1024;
+
+  // Each thread decodes every response into the same buffers
+  private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+  private static class Buffers {
+    final ByteBuffer bytes = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+    CharBuffer chars = CharBuffer.allocate(INITIAL_CHAR_BUFFER_SIZE);
+    // Like new String(bytes, UTF_8), replace anything which is not valid UTF-8
+    final CharsetDecoder decoder =
+        StandardCharsets.UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  }
+
+  private CharBufferUtilities() {}
+
+  /**
+   * Decodes a UTF-8 stream into this thread's buffer, without first reading it into an array of
+   * bytes. The stream is read to its end but not closed.
+   *
+   * @return A view of the decoded text, which is only valid until this thread decodes another
+   *     stream.
+   */
+  private static CharSequence decode(final InputStream istream) throws IOException {
+    Buffers buffers = BUFFERS.get();
+    CharsetDecoder decoder = buffers.decoder.reset();
+    ByteBuffer in = buffers.bytes.clear();
+    CharBuffer out = buffers.chars.clear();
+    boolean eof = false;
+
+    while (true) {
+      if (!eof && in.hasRemaining()) {
+        int count = istream.read(in.array(), in.arrayOffset() + in.position(), in.remaining());
+        if (count < 0) {
+          eof = true;
+        } else {
+          in.position(in.position() + count);
+        }
+      }
+
+      in.flip();
+      CoderResult result = decoder.decode(in, out, eof);
+      in.compact();
+
+      if (result.isOverflow()) {
+        out = grow(out);
+      } else if (eof) {
+        break;
+      }
+    }
+
+    while (decoder.flush(out).isOverflow()) {
+      out = grow(out);
+    }
+
+    if (out.capacity() <= MAX_RETAINED_CHAR_BUFFER_SIZE) {
+      buffers.chars = out;
+    }
+
+    return out.flip();
+  }
+
+  /** Decodes a UTF-8 stream into a String, reading it to its end but not closing it. */
+  public static String readString(final InputStream istream) throws IOException {
+    return CharBufferUtilities.decode(istream).toString();
+  }
+
+  private static CharBuffer grow(final CharBuffer buffer) {
+    CharBuffer larger = CharBuffer.allocate(buffer.capacity() * 2);
+    return larger.put(buffer.flip());
+  }
+}
@@ -0,0 +1,276 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import net.java.dev.spellcast.utilities.DataUtilities;
+import net.sourceforge.kolmafia.KoLConstants;
+
+/**
+ * A binary image of the versioned data files, built with the jar, so that the databases can load
+ * rows which are already split into fields at startup, rather than decoding and splitting every
+ * line of text. Each distinct field is stored and decoded once, however many rows hold it.
+ *
+ * <p>For each file, the image holds its version and its rows, exactly as {@link
+ * FileUtilities#readData} would read them from the text. A file is only read from the image when
+ * the user has no override for it and the image has the version the caller requires; otherwise the
+ * text file is read as before.
+ */
+public class DataSnapshot {
+  public static final String FILENAME = "snapshot.bin";
+
+  private static final int MAGIC = 0x4B4D4453;
+  private static final int VERSION = 1;
+
+  private static DataSnapshot builtIn = null;
+  private static boolean builtInLoaded = false;
+
+  private record Table(int version, int rowCount, int offset) {}
+
+  private final byte[] data;
+  private final String[] fields;
+  private final Map<String, Table> tables = new HashMap<>();
+
+  private DataSnapshot(final byte[] data) throws IOException {
+    this.data = data;
+    Cursor cursor = new Cursor(data, 0);
+
+    if (cursor.readInt() != MAGIC || cursor.readVarint() != VERSION) {
+      throw new IOException("Not a data snapshot");
+    }
+
+    this.fields = new String[cursor.readVarint()];
+    for (int i = 0; i < this.fields.length; ++i) {
+      int length = cursor.readVarint();
+      this.fields[i] = new String(data, cursor.position, length, StandardCharsets.UTF_8);
+      cursor.position += length;
+    }
+
+    int tableCount = cursor.readVarint();
+    for (int i = 0; i < tableCount; ++i) {
+      String filename = this.fields[cursor.readVarint()];
+      int version = cursor.readVarint();
+      int rowCount = cursor.readVarint();
+      int length = cursor.readVarint();
+      this.tables.put(filename, new Table(version, rowCount, cursor.position));
+      cursor.position += length;
+    }
+  }
+
+  public static DataSnapshot load(final InputStream istream) throws IOException {
+    try {
+      return new DataSnapshot(istream.readAllBytes());
+    } catch (IndexOutOfBoundsException e) {
+      throw new IOException("Truncated data snapshot", e);
+    }
+  }
+
+  private static synchronized DataSnapshot getBuiltIn() {
+    if (!DataSnapshot.builtInLoaded) {
+      DataSnapshot.builtInLoaded = true;
+      try (InputStream istream =
+          DataUtilities.getInputStream(KoLConstants.DATA_DIRECTORY, FILENAME, false)) {
+        byte[] data = istream.readAllBytes();
+        DataSnapshot.builtIn = data.length == 0 ? null : new DataSnapshot(data);
+      } catch (IOException | IndexOutOfBoundsException e) {
+        // A missing or unreadable snapshot just means reading the text files
+        DataSnapshot.builtIn = null;
+      }
+    }
+    return DataSnapshot.builtIn;
+  }
+
+  /**
+   * Drops the built-in snapshot, and the fields decoded from it, once the databases it serves have
+   * loaded. Data files read after that, such as by a database reset, are read from text.
+   */
+  public static synchronized void releaseBuiltIn() {
+    DataSnapshot.builtInLoaded = true;
+    DataSnapshot.builtIn = null;
+  }
+
+  /**
+   * Returns a reader of the built-in rows of a data file, or null if the file should be read from
+   * text instead.
+   */
+  public static BufferedReader getReader(final String filename, final int version) {
+    if (new File(KoLConstants.DATA_LOCATION, filename).exists()) {
+      return null;
+    }
+
+    DataSnapshot snapshot = DataSnapshot.getBuiltIn();
+    return snapshot == null ? null : snapshot.getRows(filename, version);
+  }
+
+  /** Returns a reader of the rows of a data file, or null if this snapshot lacks that version. */
+  public BufferedReader getRows(final String filename, final int version) {
+    Table table = this.tables.get(filename);
+    if (table == null || table.version() != version) {
+      return null;
+    }
+    return new RowReader(new Rows(this, table));
+  }
+
+  /** The rows of one file, decoded from the snapshot as they are read. */
+  private static class Rows implements Iterator<String[]> {
+    private final String[] fields;
+    private final Cursor cursor;
+    private int remaining;
+
+    Rows(final DataSnapshot snapshot, final Table table) {
+      this.fields = snapshot.fields;
+      this.cursor = new Cursor(snapshot.data, table.offset());
+      this.remaining = table.rowCount();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.remaining > 0;
+    }
+
+    @Override
+    public String[] next() {
+      if (this.remaining == 0) {
+        throw new NoSuchElementException();
+      }
+      this.remaining--;
+
+      String[] row = new String[this.cursor.readVarint()];
+      for (int i = 0; i < row.length; ++i) {
+        row[i] = this.fields[this.cursor.readVarint()];
+      }
+      return row;
+    }
+  }
+
+  private static class Cursor {
+    private final byte[] data;
+    private int position;
+
+    Cursor(final byte[] data, final int position) {
+      this.data = data;
+      this.position = position;
+    }
+
+    int readInt() {
+      int value = 0;
+      for (int i = 0; i < 4; ++i) {
+        value = (value << 8) | (this.data[this.position++] & 0xFF);
+      }
+      return value;
+    }
+
+    int readVarint() {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = this.data[this.position++];
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      return value;
+    }
+  }
+
+  /**
+   * Writes a snapshot of every versioned data file in a directory: those whose first line, after
+   * comments and blank lines, is a version number.
+   */
+  public static void write(final Path directory, final OutputStream ostream) throws IOException {
+    Map<String, Integer> fieldIndex = new HashMap<>();
+    List<String> fields = new ArrayList<>();
+    ByteArrayOutputStream tables = new ByteArrayOutputStream();
+    int tableCount = 0;
+
+    List<Path> files;
+    try (Stream<Path> paths = Files.list(directory)) {
+      files = paths.filter(path -> path.toString().endsWith(".txt")).sorted().toList();
+    }
+
+    for (Path file : files) {
+      ByteArrayOutputStream rows = new ByteArrayOutputStream();
+      int version;
+      int rowCount = 0;
+
+      try (BufferedReader reader = DataUtilities.getReader(file.toFile())) {
+        String line = FileUtilities.readLine(reader);
+        if (line == null || !line.trim().matches("\\d+")) {
+          continue;
+        }
+        version = Integer.parseInt(line.trim());
+
+        String[] row;
+        while ((row = FileUtilities.readData(reader)) != null) {
+          DataSnapshot.writeVarint(rows, row.length);
+          for (String field : row) {
+            DataSnapshot.writeVarint(rows, DataSnapshot.indexOf(field, fieldIndex, fields));
+          }
+          rowCount++;
+        }
+      }
+
+      String filename = file.getFileName().toString();
+      DataSnapshot.writeVarint(tables, DataSnapshot.indexOf(filename, fieldIndex, fields));
+      DataSnapshot.writeVarint(tables, version);
+      DataSnapshot.writeVarint(tables, rowCount);
+      DataSnapshot.writeVarint(tables, rows.size());
+      rows.writeTo(tables);
+      tableCount++;
+    }
+
+    DataOutputStream out = new DataOutputStream(ostream);
+    out.writeInt(MAGIC);
+    DataSnapshot.writeVarint(out, VERSION);
+    DataSnapshot.writeVarint(out, fields.size());
+    for (String field : fields) {
+      byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+      DataSnapshot.writeVarint(out, bytes.length);
+      out.write(bytes);
+    }
+    DataSnapshot.writeVarint(out, tableCount);
+    tables.writeTo(out);
+    out.flush();
+  }
+
+  private static int indexOf(
+      final String field, final Map<String, Integer> fieldIndex, final List<String> fields) {
+    return fieldIndex.computeIfAbsent(
+        field,
+        k -> {
+          fields.add(k);
+          return fields.size() - 1;
+        });
+  }
+
+  private static void writeVarint(final OutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  /** Builds the snapshot of the data files in the first argument into the file named second. */
+  public static void main(final String[] args) throws IOException {
+    Path output = Path.of(args[1]);
+    Files.createDirectories(output.getParent());
+    try (OutputStream ostream = Files.newOutputStream(output)) {
+      DataSnapshot.write(Path.of(args[0]), ostream);
+    }
+  }
+}
@@ -21,6 +21,10 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.zip.GZIPInputStream;
 import javax.swing.ImageIcon;
 import net.java.dev.spellcast.utilities.DataUtilities;
@@ -35,6 +39,10 @@ import net.sourceforge.kolmafia.request.GenericRequest;
 public class FileUtilities {
   private static ResettingHttpClient client;
 
+  private record Prefetch(int version, CompletableFuture<List<String[]>> rows) {}
+
+  private static final Map<String, Prefetch> prefetched = new ConcurrentHashMap<>();
+
   private static ResettingHttpClient getClient() {
     if (client != null) {
       return client;
@@ -77,7 +85,17 @@ public class FileUtilities {
   }
 
   public static final BufferedReader getVersionedReader(final String filename, final int version) {
-    BufferedReader reader =
+    Prefetch prefetch = FileUtilities.prefetched.remove(filename);
+    if (prefetch != null && prefetch.version() == version) {
+      return new RowReader(prefetch.rows().join().iterator());
+    }
+
+    BufferedReader reader = DataSnapshot.getReader(filename, version);
+    if (reader != null) {
+      return reader;
+    }
+
+    reader =
         FileUtilities.getReader(
             DataUtilities.getReader(KoLConstants.DATA_DIRECTORY, filename, true));
 
@@ -125,6 +143,40 @@ public class FileUtilities {
     return reader;
   }
 
+  /**
+   * Opens a versioned data file now and reads its rows in the background. The next call of
+   * getVersionedReader for the same file and version returns the rows, waiting for them if needed.
+   */
+  public static void prefetchVersionedData(
+      final String filename, final int version, final Executor executor) {
+    BufferedReader reader = FileUtilities.getVersionedReader(filename, version);
+    if (reader == null) {
+      return;
+    }
+
+    CompletableFuture<List<String[]>> rows =
+        CompletableFuture.supplyAsync(() -> FileUtilities.readAllData(reader), executor);
+    FileUtilities.prefetched.put(filename, new Prefetch(version, rows));
+  }
+
+  /** Forgets any prefetched data files which have not been read. */
+  public static void clearPrefetchedData() {
+    FileUtilities.prefetched.clear();
+  }
+
+  private static List<String[]> readAllData(final BufferedReader reader) {
+    List<String[]> rows = new ArrayList<>();
+    try (reader) {
+      String[] row;
+      while ((row = FileUtilities.readData(reader)) != null) {
+        rows.add(row);
+      }
+    } catch (IOException e) {
+      StaticEntity.printStackTrace(e);
+    }
+    return rows;
+  }
+
   public static final String readLine(final BufferedReader reader) {
     if (reader == null) {
       return null;
@@ -154,6 +206,10 @@ public class FileUtilities {
       return null;
     }
 
+    if (reader instanceof RowReader rows) {
+      return rows.readRow();
+    }
+
     String line = readLine(reader);
     return line == null ? null : line.split("\t", -1);
   }
@@ -0,0 +1,53 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/**
+ * A sorted list of items which also keeps the count of each item by id, so that a count can be
+ * found without searching the list by name.
+ */
+public interface ItemCountList extends List<AdventureResult> {
+  int getItemCount(final int itemId);
+
+  /**
+   * Makes the list hold exactly the given items, each with a distinct id. Only entries which
+   * differ are removed, replaced or added, rather than clearing and refilling the whole list.
+   */
+  default void setItems(final Collection<AdventureResult> items) {
+    Map<Integer, AdventureResult> wanted = new LinkedHashMap<>();
+    for (AdventureResult item : items) {
+      wanted.put(item.getItemId(), item);
+    }
+
+    boolean wasEmpty = this.isEmpty();
+
+    ListIterator<AdventureResult> it = this.listIterator();
+    while (it.hasNext()) {
+      AdventureResult current = it.next();
+      AdventureResult item = wanted.get(current.getItemId());
+
+      if (item == null || !item.equals(current)) {
+        // Gone, or renamed, which may move it
+        it.remove();
+      } else {
+        wanted.remove(current.getItemId());
+        if (item.getCount() != current.getCount()) {
+          it.set(item);
+        }
+      }
+    }
+
+    if (wasEmpty) {
+      this.addAll(wanted.values());
+    } else {
+      for (AdventureResult item : wanted.values()) {
+        this.add(item);
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Arrays;
+import java.util.Collection;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/** The total count of each item in a list of AdventureResults, in an array indexed by item id. */
+public class ItemCounts {
+  private int[] counts = new int[0];
+
+  public int get(final int itemId) {
+    int[] counts = this.counts;
+    return itemId > 0 && itemId < counts.length ? counts[itemId] : 0;
+  }
+
+  public void add(final AdventureResult item) {
+    this.change(item, 1);
+  }
+
+  public void remove(final AdventureResult item) {
+    this.change(item, -1);
+  }
+
+  private void change(final AdventureResult item, final int sign) {
+    if (item == null || !item.isItem()) {
+      return;
+    }
+
+    int itemId = item.getItemId();
+    if (itemId <= 0) {
+      return;
+    }
+
+    if (itemId >= this.counts.length) {
+      this.counts = Arrays.copyOf(this.counts, Math.max(itemId + 1, this.counts.length * 2));
+    }
+
+    this.counts[itemId] += sign * item.getCount();
+  }
+
+  public void clear() {
+    Arrays.fill(this.counts, 0);
+  }
+
+  public void rebuild(final Collection<AdventureResult> items) {
+    this.clear();
+    for (AdventureResult item : items) {
+      this.add(item);
+    }
+  }
+
+  public ItemCounts copy() {
+    ItemCounts copy = new ItemCounts();
+    copy.counts = this.counts.clone();
+    return copy;
+  }
+}
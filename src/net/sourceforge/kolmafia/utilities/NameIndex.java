@@ -0,0 +1,348 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An index over an array of canonical names, used by {@link StringUtilities#getMatchingNames} to
+ * find the names which can contain a search string without testing every name in the array.
+ *
+ * <p>For each character, the index holds the names which contain it and the names in which it
+ * starts a word; for each three character sequence, the names which contain it. A name can only
+ * contain a search string if it contains every one of its trigrams, and can only fuzzy match it if
+ * it contains every character of it and starts a word with the first. The candidates are then
+ * tested exactly as an unindexed search would test them, so the results are the same.
+ */
+final class NameIndex {
+  // Smaller arrays are scanned, as building the index would cost more than it saves
+  private static final int MIN_INDEXED_NAMES = 256;
+  // Larger arrays are scanned, as a name's index must fit in the low bits of a posting
+  private static final int MAX_INDEXED_NAMES = 1 << 16;
+  private static final int RECENT_SEARCHES = 32;
+  private static final int[] NO_NAMES = new int[0];
+
+  private final String[] names;
+  private final int[] hashes;
+
+  private final Postings characters;
+  private final Postings wordStarts;
+  private final Postings trigrams;
+
+  private final Map<String, List<String>> recent =
+      Collections.synchronizedMap(
+          new LinkedHashMap<>(RECENT_SEARCHES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, List<String>> eldest) {
+              return this.size() > RECENT_SEARCHES;
+            }
+          });
+
+  NameIndex(final String[] names) {
+    this.names = names.clone();
+    this.hashes = new int[names.length];
+    for (int i = 0; i < names.length; ++i) {
+      this.hashes[i] = NameIndex.stringHash(names[i]);
+    }
+
+    if (names.length < MIN_INDEXED_NAMES || names.length > MAX_INDEXED_NAMES) {
+      this.characters = null;
+      this.wordStarts = null;
+      this.trigrams = null;
+      return;
+    }
+
+    int length = 0;
+    for (String name : names) {
+      length += name.length();
+    }
+
+    // Each entry is a key in the high bits and the index of a name in the low bits
+    long[] characters = new long[length];
+    long[] wordStarts = new long[length];
+    long[] trigrams = new long[length];
+    int characterCount = 0;
+    int wordStartCount = 0;
+    int trigramCount = 0;
+
+    for (int i = 0; i < names.length; ++i) {
+      String name = names[i];
+      for (int j = 0; j < name.length(); ++j) {
+        char ch = name.charAt(j);
+        characters[characterCount++] = Postings.entry(ch, i);
+        if (j == 0 || StringUtilities.isWordBoundary(name.charAt(j - 1))) {
+          wordStarts[wordStartCount++] = Postings.entry(ch, i);
+        }
+        if (j >= 2) {
+          trigrams[trigramCount++] = Postings.entry(NameIndex.trigram(name, j - 2), i);
+        }
+      }
+    }
+
+    this.characters = new Postings(characters, characterCount, 1);
+    this.wordStarts = new Postings(wordStarts, wordStartCount, 1);
+    this.trigrams = new Postings(trigrams, trigramCount, 3);
+  }
+
+  /** Returns whether the index still describes the array, which callers may have changed. */
+  boolean describes(final String[] names) {
+    return Arrays.equals(this.names, names);
+  }
+
+  /**
+   * Returns the names which contain the canonical search string on a word boundary; failing that,
+   * those which contain it anywhere; failing that, those which fuzzy match it.
+   */
+  List<String> getMatchingNames(final String searchString) {
+    List<String> matchList = this.recent.get(searchString);
+    if (matchList != null) {
+      return new ArrayList<>(matchList);
+    }
+
+    matchList = this.findMatchingNames(searchString);
+    this.recent.put(searchString, List.copyOf(matchList));
+    return matchList;
+  }
+
+  private List<String> findMatchingNames(final String searchString) {
+    int hash = NameIndex.stringHash(searchString);
+    int[] candidates = this.substringCandidates(searchString);
+
+    List<String> matchList =
+        this.matchingNames(
+            candidates, hash, name -> StringUtilities.substringMatches(name, searchString, true));
+
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    matchList =
+        this.matchingNames(
+            candidates, hash, name -> StringUtilities.substringMatches(name, searchString, false));
+
+    if (!matchList.isEmpty()) {
+      return matchList;
+    }
+
+    // There is an oddball special case here: a search string containing
+    // spaces can successfully fuzzy-match an item name with no spaces,
+    // for example "in the box" will match "chef-in-the-box".  However,
+    // the hash check would prevent us from even trying such a match.
+    // Therefore, strip out the bit representing a space in the hash:
+    hash &= ~NameIndex.stringHash(" ");
+
+    return this.matchingNames(
+        this.fuzzyCandidates(searchString),
+        hash,
+        name -> StringUtilities.fuzzyMatches(name, searchString));
+  }
+
+  private List<String> matchingNames(
+      final int[] candidates, final int hash, final Predicate<String> matches) {
+    List<String> matchList = new ArrayList<>();
+
+    if (candidates == null) {
+      for (int i = 0; i < this.names.length; ++i) {
+        if ((this.hashes[i] & hash) == hash && matches.test(this.names[i])) {
+          matchList.add(this.names[i]);
+        }
+      }
+    } else {
+      for (int i : candidates) {
+        if ((this.hashes[i] & hash) == hash && matches.test(this.names[i])) {
+          matchList.add(this.names[i]);
+        }
+      }
+    }
+
+    return matchList;
+  }
+
+  /** Returns the names which contain every trigram of the search string, or null for all names. */
+  private int[] substringCandidates(final String searchString) {
+    if (this.trigrams == null) {
+      return null;
+    }
+
+    List<int[]> postings = new ArrayList<>();
+    if (searchString.length() < 3) {
+      for (int i = 0; i < searchString.length(); ++i) {
+        postings.add(this.characters.get(searchString.charAt(i)));
+      }
+    } else {
+      for (int i = 0; i + 3 <= searchString.length(); ++i) {
+        postings.add(this.trigrams.get(NameIndex.trigram(searchString, i)));
+      }
+    }
+
+    return NameIndex.intersect(postings);
+  }
+
+  /**
+   * Returns the names which contain every character of the search string other than whitespace,
+   * and start a word with the first of them, or null for all names.
+   */
+  private int[] fuzzyCandidates(final String searchString) {
+    if (this.trigrams == null) {
+      return null;
+    }
+
+    List<int[]> postings = new ArrayList<>();
+    for (int i = 0; i < searchString.length(); ++i) {
+      char ch = searchString.charAt(i);
+      if (Character.isWhitespace(ch)) {
+        continue;
+      }
+
+      if (postings.isEmpty()) {
+        postings.add(this.wordStarts.get(ch));
+      }
+      postings.add(this.characters.get(ch));
+    }
+
+    return postings.isEmpty() ? null : NameIndex.intersect(postings);
+  }
+
+  private static int[] intersect(final List<int[]> postings) {
+    if (postings.contains(null)) {
+      return NO_NAMES;
+    }
+
+    postings.sort(Comparator.comparingInt(ids -> ids.length));
+
+    int[] result = postings.get(0).clone();
+    int size = result.length;
+
+    for (int p = 1; p < postings.size() && size > 0; ++p) {
+      int[] ids = postings.get(p);
+      int kept = 0;
+      int j = 0;
+      for (int i = 0; i < size; ++i) {
+        int id = result[i];
+        while (j < ids.length && ids[j] < id) {
+          ++j;
+        }
+        if (j == ids.length) {
+          break;
+        }
+        if (ids[j] == id) {
+          result[kept++] = id;
+        }
+      }
+      size = kept;
+    }
+
+    return Arrays.copyOf(result, size);
+  }
+
+  private static long trigram(final String s, final int start) {
+    return ((long) s.charAt(start) << 32)
+        | ((long) s.charAt(start + 1) << 16)
+        | s.charAt(start + 2);
+  }
+
+  static int stringHash(final String s) {
+    int hash = 0;
+    for (int i = s.length() - 1; i >= 0; --i) {
+      hash |= 1 << (s.charAt(i) & 0x1F);
+    }
+    return hash;
+  }
+
+  /**
+   * For each key, the ascending indices of the names which contain it. Entries hold a key of up to
+   * three characters above the index of a name, and are sorted by key with a stable radix sort, so
+   * the indices of each key stay in the order they were added.
+   */
+  private static class Postings {
+    private static final int DIGIT_BITS = 16;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+
+    private final long[] keys;
+    private final int[] offsets;
+    private final int[] ids;
+
+    static long entry(final long key, final int id) {
+      return (key << DIGIT_BITS) | id;
+    }
+
+    Postings(final long[] entries, final int count, final int keyLength) {
+      long[] sorted = Postings.sortByKey(entries, count, keyLength);
+
+      long[] keys = new long[count];
+      int[] offsets = new int[count + 1];
+      int[] ids = new int[count];
+      int keyCount = 0;
+      int idCount = 0;
+
+      for (int i = 0; i < count; ++i) {
+        long entry = sorted[i];
+        if (i > 0 && entry == sorted[i - 1]) {
+          continue;
+        }
+
+        long key = entry >>> DIGIT_BITS;
+        if (keyCount == 0 || keys[keyCount - 1] != key) {
+          keys[keyCount] = key;
+          offsets[keyCount++] = idCount;
+        }
+        ids[idCount++] = (int) (entry & DIGIT_MASK);
+      }
+      offsets[keyCount] = idCount;
+
+      this.keys = Arrays.copyOf(keys, keyCount);
+      this.offsets = Arrays.copyOf(offsets, keyCount + 1);
+      this.ids = Arrays.copyOf(ids, idCount);
+    }
+
+    private static long[] sortByKey(long[] entries, final int count, final int keyLength) {
+      long[] buffer = new long[count];
+      int[] starts = new int[DIGIT_MASK + 2];
+
+      for (int digit = 1; digit <= keyLength; ++digit) {
+        int shift = digit * DIGIT_BITS;
+
+        Arrays.fill(starts, 0);
+        for (int i = 0; i < count; ++i) {
+          starts[(int) (entries[i] >>> shift & DIGIT_MASK) + 1]++;
+        }
+        for (int i = 1; i < starts.length; ++i) {
+          starts[i] += starts[i - 1];
+        }
+        for (int i = 0; i < count; ++i) {
+          buffer[starts[(int) (entries[i] >>> shift & DIGIT_MASK)]++] = entries[i];
+        }
+
+        long[] swap = entries;
+        entries = buffer;
+        buffer = swap;
+      }
+
+      return entries;
+    }
+
+    int[] get(final long key) {
+      int low = 0;
+      int high = this.keys.length - 1;
+
+      while (low <= high) {
+        int middle = (low + high) >>> 1;
+        long middleKey = this.keys[middle];
+        if (middleKey < key) {
+          low = middle + 1;
+        } else if (middleKey > key) {
+          high = middle - 1;
+        } else {
+          return Arrays.copyOfRange(this.ids, this.offsets[middle], this.offsets[middle + 1]);
+        }
+      }
+
+      return null;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.util.Iterator;
+
+/**
+ * A reader of the rows of a data file which have already been split into fields. {@link
+ * FileUtilities#readData} takes each row as it is, and readLine returns each row joined as the line
+ * it was split from.
+ */
+class RowReader extends BufferedReader {
+  private final Iterator<String[]> rows;
+
+  RowReader(final Iterator<String[]> rows) {
+    super(Reader.nullReader());
+    this.rows = rows;
+  }
+
+  String[] readRow() {
+    return this.rows.hasNext() ? this.rows.next() : null;
+  }
+
+  @Override
+  public String readLine() {
+    String[] row = this.readRow();
+    return row == null ? null : String.join("\t", row);
+  }
+}
@@ -0,0 +1,104 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/** A SortedList of items which keeps the count of each item by id. */
+public class SortedItemList extends SortedList<AdventureResult> implements ItemCountList {
+  private ItemCounts counts = new ItemCounts();
+
+  @Override
+  public int getItemCount(final int itemId) {
+    return this.counts.get(itemId);
+  }
+
+  @Override
+  public synchronized boolean add(final AdventureResult o) {
+    boolean added = super.add(o);
+    if (added) {
+      this.counts.add(o);
+    }
+    return added;
+  }
+
+  @Override
+  public synchronized boolean addAll(
+      final int index, final Collection<? extends AdventureResult> c) {
+    boolean added = super.addAll(index, c);
+    if (added) {
+      for (AdventureResult item : c) {
+        this.counts.add(item);
+      }
+    }
+    return added;
+  }
+
+  @Override
+  public synchronized void clear() {
+    super.clear();
+    this.counts.clear();
+  }
+
+  @Override
+  public synchronized AdventureResult remove(final int index) {
+    AdventureResult removed = super.remove(index);
+    this.counts.remove(removed);
+    return removed;
+  }
+
+  @Override
+  public synchronized boolean remove(final Object o) {
+    int index = this.indexOf(o);
+    if (index == -1) {
+      return false;
+    }
+    this.remove(index);
+    return true;
+  }
+
+  @Override
+  public synchronized AdventureResult set(final int index, final AdventureResult element) {
+    AdventureResult original = super.set(index, element);
+    this.counts.remove(original);
+    this.counts.add(element);
+    return original;
+  }
+
+  // These remove or replace elements without going through remove or set
+
+  @Override
+  public synchronized boolean removeAll(final Collection<?> c) {
+    boolean changed = super.removeAll(c);
+    this.counts.rebuild(this);
+    return changed;
+  }
+
+  @Override
+  public synchronized boolean retainAll(final Collection<?> c) {
+    boolean changed = super.retainAll(c);
+    this.counts.rebuild(this);
+    return changed;
+  }
+
+  @Override
+  public synchronized boolean removeIf(final Predicate<? super AdventureResult> filter) {
+    boolean changed = super.removeIf(filter);
+    this.counts.rebuild(this);
+    return changed;
+  }
+
+  @Override
+  public synchronized void replaceAll(final UnaryOperator<AdventureResult> operator) {
+    super.replaceAll(operator);
+    this.counts.rebuild(this);
+  }
+
+  @Override
+  public Object clone() {
+    SortedItemList copy = (SortedItemList) super.clone();
+    copy.counts = this.counts.copy();
+    return copy;
+  }
+}
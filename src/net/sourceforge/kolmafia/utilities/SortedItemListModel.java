@@ -0,0 +1,76 @@
+package net.sourceforge.kolmafia.utilities;
+
+import java.util.Collection;
+import net.java.dev.spellcast.utilities.SortedListModel;
+import net.sourceforge.kolmafia.AdventureResult;
+
+/** A SortedListModel of items which keeps the count of each item by id. */
+public class SortedItemListModel extends SortedListModel<AdventureResult>
+    implements ItemCountList {
+  private ItemCounts counts = new ItemCounts();
+
+  @Override
+  public int getItemCount(final int itemId) {
+    return this.counts.get(itemId);
+  }
+
+  @Override
+  public boolean add(final AdventureResult o) {
+    synchronized (this.actualElements) {
+      boolean added = super.add(o);
+      if (added) {
+        this.counts.add(o);
+      }
+      return added;
+    }
+  }
+
+  @Override
+  public boolean addAll(final int index, final Collection<? extends AdventureResult> c) {
+    synchronized (this.actualElements) {
+      boolean added = super.addAll(index, c);
+      if (added) {
+        for (AdventureResult item : c) {
+          this.counts.add(item);
+        }
+      }
+      return added;
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (this.actualElements) {
+      super.clear();
+      this.counts.clear();
+    }
+  }
+
+  @Override
+  public AdventureResult remove(final int index) {
+    synchronized (this.actualElements) {
+      AdventureResult removed = super.remove(index);
+      this.counts.remove(removed);
+      return removed;
+    }
+  }
+
+  @Override
+  public AdventureResult set(final int index, final AdventureResult element) {
+    synchronized (this.actualElements) {
+      AdventureResult original = super.set(index, element);
+      if (element != null) {
+        this.counts.remove(original);
+        this.counts.add(element);
+      }
+      return original;
+    }
+  }
+
+  @Override
+  public Object clone() {
+    SortedItemListModel copy = (SortedItemListModel) super.clone();
+    copy.counts = this.counts.copy();
+    return copy;
+  }
+}
@@ -31,7 +31,7 @@ public class StringUtilities {
   private static final HashMap<String, String> canonicalNameCache = new HashMap<>();
 
   private static final HashMap<String, String> prepositionsMap = new HashMap<>();
-  private static final WeakHashMap<String[], int[]> hashCache = new WeakHashMap<>();
+  private static final WeakHashMap<String[], NameIndex> nameIndexes = new WeakHashMap<>();
 
   private static final Pattern COMMA_DELIMITED_PATTERN = Pattern.compile("\\s*,\\s*");
 
@@ -265,61 +265,18 @@ public class StringUtilities {
       return matchList;
     }
 
-    int nameCount = names.length;
-    int[] hashes = StringUtilities.hashCache.get(names);
-    if (hashes == null) {
-      hashes = new int[nameCount];
-      for (int i = 0; i < nameCount; ++i) {
-        hashes[i] = StringUtilities.stringHash(names[i]);
-      }
-      StringUtilities.hashCache.put(names, hashes);
-    }
-    int hash = StringUtilities.stringHash(searchString);
-
-    for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash
-          && StringUtilities.substringMatches(names[i], searchString, true)) {
-        matchList.add(names[i]);
-      }
-    }
-
-    if (!matchList.isEmpty()) {
-      return matchList;
-    }
-
-    for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash
-          && StringUtilities.substringMatches(names[i], searchString, false)) {
-        matchList.add(names[i]);
-      }
-    }
-
-    if (!matchList.isEmpty()) {
-      return matchList;
-    }
-
-    // There is an oddball special case here: a search string containing
-    // spaces can successfully fuzzy-match an item name with no spaces,
-    // for example "in the box" will match "chef-in-the-box".  However,
-    // the hash check would prevent us from even trying such a match.
-    // Therefore, strip out the bit representing a space in the hash:
-    hash &= ~StringUtilities.stringHash(" ");
-
-    for (int i = 0; i < nameCount; ++i) {
-      if ((hashes[i] & hash) == hash && StringUtilities.fuzzyMatches(names[i], searchString)) {
-        matchList.add(names[i]);
-      }
-    }
-
-    return matchList;
+    return StringUtilities.getNameIndex(names).getMatchingNames(searchString);
   }
 
-  private static int stringHash(final String s) {
-    int hash = 0;
-    for (int i = s.length() - 1; i >= 0; --i) {
-      hash |= 1 << (s.charAt(i) & 0x1F);
+  private static NameIndex getNameIndex(final String[] names) {
+    synchronized (StringUtilities.nameIndexes) {
+      NameIndex index = StringUtilities.nameIndexes.get(names);
+      if (index == null || !index.describes(names)) {
+        index = new NameIndex(names);
+        StringUtilities.nameIndexes.put(names, index);
+      }
+      return index;
     }
-    return hash;
   }
 
   public static boolean substringMatches(
@@ -402,7 +359,7 @@ public class StringUtilities {
     return false;
   }
 
-  private static boolean isWordBoundary(char ch) {
+  static boolean isWordBoundary(char ch) {
     return ch != '#' && !Character.isLetterOrDigit(ch);
   }
 
@@ -517,15 +474,29 @@ public class StringUtilities {
       replaceWith = "";
     }
 
-    // Using a regular expression, while faster, results
-    // in a lot of String allocation overhead.  So, use
-    // a static finally-allocated StringBuffers.
-
     int lastIndex = buffer.indexOf(tag);
+    if (lastIndex == -1) {
+      return;
+    }
+
+    // Assemble the result once, rather than shifting the
+    // rest of the buffer for each replacement.
+
+    String original = buffer.toString();
+    StringBuilder result = new StringBuilder(original.length());
+    int copied = 0;
+
     while (lastIndex != -1) {
-      buffer.replace(lastIndex, lastIndex + tag.length(), replaceWith);
-      lastIndex = buffer.indexOf(tag, lastIndex + replaceWith.length());
+      result.append(original, copied, lastIndex);
+      result.append(replaceWith);
+      copied = lastIndex + tag.length();
+      lastIndex = original.indexOf(tag, copied);
     }
+
+    result.append(original, copied, original.length());
+
+    buffer.setLength(0);
+    buffer.append(result);
   }
 
   public static boolean isNumeric(String string) {
@@ -4,12 +4,32 @@ import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TwoLevelEnumHashMap<K1 extends Enum<K1>, K2, V> {
   private final Map<K1, Map<K2, V>> level1;
+  private final boolean concurrent;
 
   public TwoLevelEnumHashMap(Class<K1> k1Class) {
     this.level1 = new EnumMap<>(k1Class);
+    this.concurrent = false;
+  }
+
+  private TwoLevelEnumHashMap(Class<K1> k1Class, boolean concurrent) {
+    this.level1 = new EnumMap<>(k1Class);
+    this.concurrent = concurrent;
+    if (concurrent) {
+      // The first level never changes after this, so only the second needs to be thread-safe
+      for (K1 k1 : k1Class.getEnumConstants()) {
+        this.level1.put(k1, new ConcurrentHashMap<>());
+      }
+    }
+  }
+
+  /** Returns a map which several threads may read and write at once. It does not allow nulls. */
+  public static <K1 extends Enum<K1>, K2, V> TwoLevelEnumHashMap<K1, K2, V> concurrent(
+      Class<K1> k1Class) {
+    return new TwoLevelEnumHashMap<>(k1Class, true);
   }
 
   public int size() {
@@ -53,6 +73,10 @@ public class TwoLevelEnumHashMap<K1 extends Enum<K1>, K2, V> {
   }
 
   public void clear() {
-    this.level1.clear();
+    if (this.concurrent) {
+      this.level1.values().forEach(Map::clear);
+    } else {
+      this.level1.clear();
+    }
   }
 }
@@ -70,6 +70,8 @@ public class CharPaneDecorator {
   private CharPaneDecorator() {}
 
   public static final void decorate(final StringBuffer buffer) {
+    PageEdits edits = new PageEdits();
+
     // If you are playing Spelunky or Batfellow, the charpane is
     // entirely different.
 
@@ -112,15 +114,15 @@ public class CharPaneDecorator {
       }
 
       // Update the safety text every time we load the charpane
-      StringUtilities.singleStringReplace(
-          buffer, "onload='startup();'", "onload='startup();updateSafetyText();'");
+      edits.singleStringReplace("onload='startup();'", "onload='startup();updateSafetyText();'");
     }
 
     // Add a "refresh" link at the end
-    StringUtilities.singleStringReplace(
-        buffer,
+    edits.singleStringReplace(
         "</body>",
         "<center><font size=1>[<a href=\"charpane.php\">refresh</a>]</font></center></body>");
+
+    edits.apply(buffer);
   }
 
   private static void decorateStatus(final StringBuffer buffer) {
@@ -792,34 +794,29 @@ public class CharPaneDecorator {
 
     // Colorize certain effects
     if (effectText != null) {
-      StringUtilities.singleStringReplace(
-          effects,
+      PageEdits colors = new PageEdits();
+      colors.singleStringReplace(
           "<font size=2>Everything Looks Yellow",
           "<font size=2 color=olive>Everything Looks Yellow");
-      StringUtilities.singleStringReplace(
-          effects,
+      colors.singleStringReplace(
           "<font size=2>Everything Looks Red ",
           "<font size=2 color=red>Everything Looks Red ");
-      StringUtilities.singleStringReplace(
-          effects,
+      colors.singleStringReplace(
           "<font size=2>Everything Looks Blue",
           "<font size=2 color=blue>Everything Looks Blue");
-      StringUtilities.singleStringReplace(
-          effects,
+      colors.singleStringReplace(
           "<font size=2>Everything Looks Red, White and Blue",
           "<font size=2>Everything Looks <font color=red>Red</font>, <font color=grey>White</font> and <font color=blue>Blue</font>");
-      StringUtilities.singleStringReplace(
-          effects,
+      colors.singleStringReplace(
           "<font size=2>Everything Looks Green ",
           "<font size=2 color=green>Everything Looks Green ");
-      StringUtilities.singleStringReplace(
-          effects,
+      colors.singleStringReplace(
           "<font size=2>Everything Looks Purple ",
           "<font size=2 color=purple>Everything Looks Purple ");
-      StringUtilities.singleStringReplace(
-          effects,
+      colors.singleStringReplace(
           "<font size=2>Everything looks Beige ",
           "<font size=2 color=burlywood>Everything looks Beige ");
+      colors.apply(effects);
     }
 
     if (effectText != null) {
@@ -0,0 +1,321 @@
+package net.sourceforge.kolmafia.webui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of edits to a page, each anchored on a literal string. All the anchors are found in one
+ * scan of the page, and the edited page is assembled once, rather than searching and shifting the
+ * whole buffer for each edit.
+ *
+ * <p>Each edit does what the StringUtilities method of the same name does, except that every anchor
+ * is found in the page as it was before the batch was applied. The edits in a batch must therefore
+ * be independent: none may add or remove the anchor of another. Edits are applied in page order,
+ * and in the order they were added where they begin at the same place. An edit which begins inside
+ * text that an earlier one replaces is dropped.
+ */
+public class PageEdits {
+  private enum Kind {
+    INSERT_BEFORE,
+    INSERT_AFTER,
+    SINGLE_REPLACE,
+    GLOBAL_REPLACE
+  }
+
+  private record Edit(Kind kind, int anchor, String text) {}
+
+  private record Change(int start, int end, String text, int order) {}
+
+  private final List<String> anchors = new ArrayList<>();
+  private final Map<String, Integer> anchorIndex = new HashMap<>();
+  private final List<Edit> edits = new ArrayList<>();
+
+  public void insertBefore(final String searchString, final String insertString) {
+    this.add(Kind.INSERT_BEFORE, searchString, insertString);
+  }
+
+  public void insertAfter(final String searchString, final String insertString) {
+    this.add(Kind.INSERT_AFTER, searchString, insertString);
+  }
+
+  public void singleStringReplace(final String searchString, final String replaceString) {
+    this.add(Kind.SINGLE_REPLACE, searchString, replaceString);
+  }
+
+  public void globalStringReplace(final String searchString, final String replaceString) {
+    this.add(Kind.GLOBAL_REPLACE, searchString, replaceString);
+  }
+
+  public void globalStringDelete(final String searchString) {
+    this.add(Kind.GLOBAL_REPLACE, searchString, "");
+  }
+
+  public boolean isEmpty() {
+    return this.edits.isEmpty();
+  }
+
+  private void add(final Kind kind, final String searchString, final String text) {
+    if (searchString.isEmpty()) {
+      return;
+    }
+
+    Integer anchor = this.anchorIndex.get(searchString);
+    if (anchor == null) {
+      anchor = this.anchors.size();
+      this.anchors.add(searchString);
+      this.anchorIndex.put(searchString, anchor);
+    }
+
+    this.edits.add(new Edit(kind, anchor, text == null ? "" : text));
+  }
+
+  public void apply(final StringBuffer buffer) {
+    if (this.edits.isEmpty()) {
+      return;
+    }
+
+    String page = buffer.toString();
+
+    boolean[] everyMatch = new boolean[this.anchors.size()];
+    for (Edit edit : this.edits) {
+      if (edit.kind() == Kind.GLOBAL_REPLACE) {
+        everyMatch[edit.anchor()] = true;
+      }
+    }
+
+    int[][] matches = new Automaton(this.anchors).find(page, everyMatch);
+
+    List<Change> changes = new ArrayList<>();
+    for (int order = 0; order < this.edits.size(); ++order) {
+      Edit edit = this.edits.get(order);
+      int[] starts = matches[edit.anchor()];
+      if (starts.length == 0) {
+        continue;
+      }
+
+      int length = this.anchors.get(edit.anchor()).length();
+      switch (edit.kind()) {
+        case INSERT_BEFORE -> changes.add(new Change(starts[0], starts[0], edit.text(), order));
+        case INSERT_AFTER -> {
+          int end = starts[0] + length;
+          changes.add(new Change(end, end, edit.text(), order));
+        }
+        case SINGLE_REPLACE ->
+            changes.add(new Change(starts[0], starts[0] + length, edit.text(), order));
+        case GLOBAL_REPLACE -> {
+          for (int start : starts) {
+            changes.add(new Change(start, start + length, edit.text(), order));
+          }
+        }
+      }
+    }
+
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    changes.sort(Comparator.comparingInt(Change::start).thenComparingInt(Change::order));
+
+    int size = page.length();
+    for (Change change : changes) {
+      size += change.text().length();
+    }
+
+    StringBuilder result = new StringBuilder(size);
+    int copied = 0;
+    for (Change change : changes) {
+      if (change.start() < copied) {
+        continue;
+      }
+
+      result.append(page, copied, change.start());
+      result.append(change.text());
+      copied = change.end();
+    }
+    result.append(page, copied, page.length());
+
+    buffer.setLength(0);
+    buffer.append(result);
+  }
+
+  /**
+   * An Aho-Corasick automaton over the anchors, which finds where each occurs in a single pass over
+   * the page.
+   */
+  private static class Automaton {
+    private static final int ROOT = 0;
+
+    // The children of each node, as sorted characters and the nodes they lead to
+    private final char[][] labels;
+    private final int[][] children;
+    // The longest proper suffix of each node which is also a node
+    private final int[] failure;
+    // The anchor which ends at each node, or -1
+    private final int[] anchor;
+    // The nearest node along the failure links at which an anchor ends, or ROOT
+    private final int[] nextMatch;
+    private int size;
+
+    // Children of the root, by character, for the common case of ASCII text
+    private final int[] rootChildren = new int[128];
+
+    private final int[] lengths;
+
+    Automaton(final List<String> anchors) {
+      int capacity = 1;
+      for (String anchor : anchors) {
+        capacity += anchor.length();
+      }
+
+      this.labels = new char[capacity][];
+      this.children = new int[capacity][];
+      this.failure = new int[capacity];
+      this.anchor = new int[capacity];
+      this.nextMatch = new int[capacity];
+      this.lengths = new int[anchors.size()];
+
+      this.size = 1;
+      this.labels[ROOT] = new char[0];
+      this.children[ROOT] = new int[0];
+      this.anchor[ROOT] = -1;
+
+      for (int i = 0; i < anchors.size(); ++i) {
+        String text = anchors.get(i);
+        int node = ROOT;
+        for (int j = 0; j < text.length(); ++j) {
+          int child = this.child(node, text.charAt(j));
+          node = child != -1 ? child : this.addChild(node, text.charAt(j));
+        }
+        this.anchor[node] = i;
+        this.lengths[i] = text.length();
+      }
+
+      this.link();
+    }
+
+    private int child(final int node, final char c) {
+      int index = Arrays.binarySearch(this.labels[node], c);
+      return index < 0 ? -1 : this.children[node][index];
+    }
+
+    private int addChild(final int node, final char c) {
+      int child = this.size++;
+      this.labels[child] = new char[0];
+      this.children[child] = new int[0];
+      this.anchor[child] = -1;
+
+      char[] labels = this.labels[node];
+      int[] children = this.children[node];
+      int index = -1 - Arrays.binarySearch(labels, c);
+
+      char[] newLabels = new char[labels.length + 1];
+      int[] newChildren = new int[children.length + 1];
+      System.arraycopy(labels, 0, newLabels, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      newLabels[index] = c;
+      newChildren[index] = child;
+      System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+      System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+      this.labels[node] = newLabels;
+      this.children[node] = newChildren;
+
+      if (node == ROOT && c < this.rootChildren.length) {
+        this.rootChildren[c] = child;
+      }
+
+      return child;
+    }
+
+    // Set the failure links breadth first, so that each node's parent is linked before it
+    private void link() {
+      ArrayDeque<Integer> queue = new ArrayDeque<>();
+      for (int child : this.children[ROOT]) {
+        this.failure[child] = ROOT;
+        this.nextMatch[child] = ROOT;
+        queue.add(child);
+      }
+
+      while (!queue.isEmpty()) {
+        int node = queue.poll();
+        char[] labels = this.labels[node];
+        int[] children = this.children[node];
+
+        for (int i = 0; i < labels.length; ++i) {
+          int child = children[i];
+          int fallback = this.step(this.failure[node], labels[i]);
+          this.failure[child] = fallback;
+          this.nextMatch[child] = this.anchor[fallback] != -1 ? fallback : this.nextMatch[fallback];
+          queue.add(child);
+        }
+      }
+    }
+
+    private int step(int node, final char c) {
+      while (true) {
+        int child =
+            node == ROOT && c < this.rootChildren.length
+                ? this.rootChildren[c]
+                : this.child(node, c);
+        if (child > 0) {
+          return child;
+        }
+        if (node == ROOT) {
+          return ROOT;
+        }
+        node = this.failure[node];
+      }
+    }
+
+    /**
+     * Returns, for each anchor, where it begins in the page: only the first place, or every place
+     * it does not overlap the one before, as a global replacement would find it.
+     */
+    int[][] find(final String page, final boolean[] everyMatch) {
+      int count = this.lengths.length;
+      int[][] starts = new int[count][];
+      int[] found = new int[count];
+      int[] nextFree = new int[count];
+      int remaining = count;
+
+      for (int i = 0; i < count; ++i) {
+        starts[i] = new int[everyMatch[i] ? 4 : 1];
+      }
+
+      int node = ROOT;
+      for (int position = 0; position < page.length() && remaining > 0; ++position) {
+        node = this.step(node, page.charAt(position));
+
+        for (int match = this.anchor[node] != -1 ? node : this.nextMatch[node];
+            match != ROOT;
+            match = this.nextMatch[match]) {
+          int i = this.anchor[match];
+          int start = position + 1 - this.lengths[i];
+
+          if (!everyMatch[i]) {
+            if (found[i] == 0) {
+              starts[i][found[i]++] = start;
+              remaining--;
+            }
+          } else if (start >= nextFree[i]) {
+            if (found[i] == starts[i].length) {
+              starts[i] = Arrays.copyOf(starts[i], found[i] * 2);
+            }
+            starts[i][found[i]++] = start;
+            nextFree[i] = start + this.lengths[i];
+          }
+        }
+      }
+
+      for (int i = 0; i < count; ++i) {
+        starts[i] = Arrays.copyOf(starts[i], found[i]);
+      }
+
+      return starts;
+    }
+  }
+}
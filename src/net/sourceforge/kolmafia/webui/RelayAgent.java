@@ -7,6 +7,10 @@ import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Set;
@@ -26,7 +30,6 @@ import net.sourceforge.kolmafia.session.ActionBarManager;
 import net.sourceforge.kolmafia.session.ChoiceManager;
 import net.sourceforge.kolmafia.session.LeafletManager;
 import net.sourceforge.kolmafia.session.VolcanoMazeManager;
-import net.sourceforge.kolmafia.utilities.PauseObject;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
 public class RelayAgent extends Thread {
@@ -47,11 +50,11 @@ public class RelayAgent extends Thread {
 
   private final char[] data = new char[8192];
   private final StringBuffer buffer = new StringBuffer();
-  private final PauseObject pauser = new PauseObject();
 
   private Socket socket = null;
   private BufferedReader reader;
   private PrintStream writer;
+  private boolean keepAlive;
 
   private String path;
   private String requestMethod;
@@ -63,38 +66,61 @@ public class RelayAgent extends Thread {
     this.request = new RelayRequest(true);
   }
 
-  public boolean isWaiting() {
-    return this.socket == null;
+  RelayAgent(final int id, final Runnable pool) {
+    super(pool, "LocalRelayAgent" + id);
+    this.request = new RelayRequest(true);
+  }
+
+  @Override
+  public void run() {
+    try {
+      super.run();
+    } finally {
+      RelayServer.agentThreads.remove(this);
+    }
   }
 
   public void setSocket(final Socket socket) {
     this.socket = socket;
-    this.pauser.unpause();
   }
 
-  @Override
-  public void run() {
-    while (true) {
-      if (this.socket == null) {
-        this.pauser.pause();
-      }
+  /**
+   * Answers the request waiting on a connection, and then either returns the connection to the
+   * relay server to wait for another, or closes it.
+   */
+  void serve(final SocketChannel channel) {
+    this.setSocket(channel.socket());
 
-      try {
-        this.performRelay();
-      } finally {
+    boolean reuse = false;
+    try {
+      reuse = this.performRelay() && RelayServer.isRunning();
+    } finally {
+      if (reuse) {
+        // The streams belong to the connection, which stays open
+        this.reader = null;
+        this.writer = null;
+        this.socket = null;
+        RelayServer.keepAlive(channel);
+      } else {
         this.closeRelay();
       }
     }
   }
 
-  public void performRelay() {
+  /**
+   * Answers one request from the socket.
+   *
+   * @return true if the browser may send another request on the same connection
+   */
+  public boolean performRelay() {
     if (this.socket == null) {
-      return;
+      return false;
     }
 
     this.path = null;
     this.reader = null;
     this.writer = null;
+    this.keepAlive = false;
 
     try {
       // readBrowserRequest returns true if we should process the request further, and otherwise
@@ -105,8 +131,17 @@ public class RelayAgent extends Thread {
 
       this.sendServerResponse();
     } catch (IOException e) {
+      return false;
     } catch (Exception e) {
       StaticEntity.printStackTrace(e, "Horrible relay failure");
+      return false;
+    }
+
+    // Anything already read past this request would be lost with the reader
+    try {
+      return this.keepAlive && !this.reader.ready();
+    } catch (IOException e) {
+      return false;
     }
   }
 
@@ -161,6 +196,7 @@ public class RelayAgent extends Thread {
 
     String host = null;
     String referer = null;
+    String connection = null;
 
     this.request.cookies = null;
     while ((currentLine = this.reader.readLine()) != null && !currentLine.equals("")) {
@@ -177,6 +213,7 @@ public class RelayAgent extends Thread {
       switch (headerType) {
         case "host" -> host = headerValue;
         case "referer" -> referer = headerValue;
+        case "connection" -> connection = headerValue;
         case "if-modified-since" -> this.isCheckingModified = headerValue;
         case "content-length" -> contentLength = StringUtilities.parseInt(headerValue);
         case "user-agent" -> GenericRequest.saveUserAgent(headerValue);
@@ -233,6 +270,13 @@ public class RelayAgent extends Thread {
       RequestLogger.updateDebugLog("----------");
     }
 
+    // The whole request has been read, so the connection can carry another. Only connections
+    // accepted by the relay server can go back to it to wait for one.
+    this.keepAlive =
+        this.socket.getChannel() != null
+            && (usePostMethod || this.requestMethod.equals("GET"))
+            && !"close".equalsIgnoreCase(connection);
+
     // Validate supplied password hashes
     String pwd = this.request.getFormField("pwd");
     if (pwd == null) {
@@ -478,10 +522,11 @@ public class RelayAgent extends Thread {
               + RelayAgent.NOCACHE_IMAGES);
 
   private void sendServerResponse() throws IOException {
-    if (this.request.rawByteBuffer == null) {
+    if (this.request.rawByteBuffer == null && this.request.rawFile == null) {
       if (this.request.responseText == null) {
         // We did not make a request of KoL and did not
         // create a pseudoResponse
+        this.keepAlive = false;
         return;
       }
 
@@ -509,9 +554,16 @@ public class RelayAgent extends Thread {
     this.writer = new PrintStream(this.socket.getOutputStream(), false);
     this.writer.print(this.request.statusLine);
     this.writer.print("\r\n");
-    this.request.printHeaders(this.writer);
+    this.request.printHeaders(this.writer, this.keepAlive);
     this.writer.print("\r\n");
-    this.writer.write(this.request.rawByteBuffer);
+    if (this.request.hasBody()) {
+      if (this.request.rawFile != null) {
+        this.writer.flush();
+        this.sendFile(this.request.rawFile);
+      } else {
+        this.writer.write(this.request.rawByteBuffer);
+      }
+    }
     this.writer.flush();
 
     if (RequestLogger.isTracing()) {
@@ -521,7 +573,7 @@ public class RelayAgent extends Thread {
       buffer.append(this.path);
       if (this.request.responseCode == 200) {
         buffer.append(" (");
-        buffer.append(this.request.rawByteBuffer.length);
+        buffer.append(this.request.getContentLength());
         buffer.append(" bytes)");
       } else if (this.request.responseCode == 302) {
         buffer.append(" -> ");
@@ -555,6 +607,23 @@ public class RelayAgent extends Thread {
     }
   }
 
+  private void sendFile(final File file) throws IOException {
+    // Straight from the file to a connection accepted by the relay server
+    SocketChannel channel = this.socket.getChannel();
+    WritableByteChannel target = channel != null ? channel : Channels.newChannel(this.writer);
+
+    try (FileChannel source = FileChannel.open(file.toPath())) {
+      long size = source.size();
+      for (long position = 0; position < size; ) {
+        long sent = source.transferTo(position, size - position, target);
+        if (sent == 0) {
+          break;
+        }
+        position += sent;
+      }
+    }
+  }
+
   private void closeRelay() {
     try {
       if (this.reader != null) {
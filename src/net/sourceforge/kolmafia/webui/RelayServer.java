@@ -1,11 +1,24 @@
 package net.sourceforge.kolmafia.webui;
 
+import java.io.IOException;
 import java.net.InetAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
-import java.util.HashSet;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.sourceforge.kolmafia.KoLConstants;
 import net.sourceforge.kolmafia.KoLmafia;
 import net.sourceforge.kolmafia.StaticEntity;
@@ -13,13 +26,30 @@ import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.utilities.FileUtilities;
 import net.sourceforge.kolmafia.utilities.StringUtilities;
 
+/**
+ * The local relay server. A single thread accepts connections and waits, on a selector, for each
+ * to send a request, which is then handed to a RelayAgent from a bounded pool. Once the response
+ * is sent, a connection the browser wants kept alive goes back to the selector to wait for the
+ * next request, so idle connections hold no thread. A request which stalls while being read gives
+ * up its agent after a timeout, and a connection which arrives while every agent is busy and the
+ * backlog is full is closed rather than queued.
+ */
 public class RelayServer implements Runnable {
-  public static final Set<RelayAgent> agentThreads = new HashSet<>();
+  public static final Set<RelayAgent> agentThreads = ConcurrentHashMap.newKeySet();
+
+  private static final int MAX_AGENTS = 32;
+  private static final int MAX_WAITING = 64;
+  private static final long AGENT_IDLE_SECONDS = 60;
+  private static final int REQUEST_TIMEOUT_MILLIS = 30000;
+  private static final AtomicInteger agentCount = new AtomicInteger();
 
   private static long lastStatusMessage = 0;
   private static Thread relayThread = null;
 
-  private ServerSocket serverSocket = null;
+  private ServerSocketChannel serverChannel = null;
+  private Selector selector = null;
+  private ThreadPoolExecutor agents = null;
+  private final Queue<SocketChannel> keptAlive = new ConcurrentLinkedQueue<>();
   private static int port = 60080;
   private static boolean listening = false;
   private static boolean updateStatus = false;
@@ -91,6 +121,19 @@ public class RelayServer implements Runnable {
 
   public static final void stop() {
     RelayServer.listening = false;
+    RelayServer.INSTANCE.wakeup();
+  }
+
+  private synchronized void wakeup() {
+    if (this.selector != null) {
+      this.selector.wakeup();
+    }
+  }
+
+  /** Returns a connection whose response has been sent, to wait for the browser's next request. */
+  static void keepAlive(final SocketChannel channel) {
+    RelayServer.INSTANCE.keptAlive.add(channel);
+    RelayServer.INSTANCE.wakeup();
   }
 
   @Override
@@ -133,7 +176,9 @@ public class RelayServer implements Runnable {
 
     while (RelayServer.listening) {
       try {
-        this.dispatchAgent(this.serverSocket.accept());
+        this.selector.select();
+        this.registerKeptAlive();
+        this.dispatchReady();
       } catch (Exception e) {
         // If an exception occurs here, that means
         // someone closed the thread; just reset
@@ -146,8 +191,11 @@ public class RelayServer implements Runnable {
     this.closeAgents();
 
     try {
-      if (this.serverSocket != null) {
-        this.serverSocket.close();
+      if (this.serverChannel != null) {
+        this.serverChannel.close();
+      }
+      if (this.selector != null) {
+        this.selector.close();
       }
     } catch (Exception e) {
       // The end result of a socket closing
@@ -155,49 +203,142 @@ public class RelayServer implements Runnable {
       // if it does, the socket closes.
     }
 
-    this.serverSocket = null;
+    this.serverChannel = null;
+    this.selector = null;
     RelayServer.relayThread = null;
   }
 
   private synchronized boolean openServerSocket() {
     try {
-      if (Preferences.getBoolean("relayAllowRemoteAccess")) {
-        this.serverSocket = new ServerSocket(RelayServer.port, 25);
-      } else {
-        this.serverSocket =
-            new ServerSocket(RelayServer.port, 25, InetAddress.getByName("127.0.0.1"));
+      ServerSocketChannel channel = ServerSocketChannel.open();
+      try {
+        if (Preferences.getBoolean("relayAllowRemoteAccess")) {
+          channel.bind(new InetSocketAddress(RelayServer.port), 25);
+        } else {
+          channel.bind(
+              new InetSocketAddress(InetAddress.getByName("127.0.0.1"), RelayServer.port), 25);
+        }
+        channel.configureBlocking(false);
+
+        if (this.selector == null) {
+          this.selector = Selector.open();
+        }
+        channel.register(this.selector, SelectionKey.OP_ACCEPT);
+      } catch (IOException e) {
+        channel.close();
+        throw e;
       }
 
+      this.serverChannel = channel;
       return true;
     } catch (Exception e) {
       return false;
     }
   }
 
-  private synchronized void closeAgents() {
-    for (RelayAgent agent : agentThreads) {
-      agent.setSocket(null);
+  private void registerKeptAlive() throws IOException {
+    SocketChannel channel;
+    while ((channel = this.keptAlive.poll()) != null) {
+      try {
+        channel.configureBlocking(false);
+        channel.register(this.selector, SelectionKey.OP_READ);
+      } catch (IOException e) {
+        channel.close();
+      }
+    }
+  }
+
+  private void dispatchReady() throws IOException {
+    List<SocketChannel> ready = new ArrayList<>();
+
+    Set<SelectionKey> keys = this.selector.selectedKeys();
+    for (SelectionKey key : keys) {
+      if (!key.isValid()) {
+        continue;
+      }
+
+      if (key.isAcceptable()) {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel != null) {
+          channel.configureBlocking(false);
+          channel.register(this.selector, SelectionKey.OP_READ);
+        }
+      } else if (key.isReadable()) {
+        key.cancel();
+        ready.add((SocketChannel) key.channel());
+      }
+    }
+    keys.clear();
+
+    if (ready.isEmpty()) {
+      return;
+    }
+
+    // A cancelled key leaves the selector on its next selection, and
+    // only then may its channel block while an agent reads from it.
+    this.selector.selectNow();
+
+    for (SocketChannel channel : ready) {
+      this.dispatchAgent(channel);
     }
-    agentThreads.clear();
   }
 
-  private synchronized void dispatchAgent(final Socket socket) {
-    for (RelayAgent agent : agentThreads) {
-      if (agent.isWaiting()) {
-        agent.setSocket(socket);
-        return;
+  private synchronized void closeAgents() {
+    if (this.agents != null) {
+      this.agents.shutdown();
+      this.agents = null;
+    }
+
+    if (this.selector != null) {
+      for (SelectionKey key : this.selector.keys()) {
+        if (key.channel() instanceof SocketChannel channel) {
+          RelayServer.close(channel);
+        }
       }
     }
 
-    this.createAgent(socket);
+    SocketChannel channel;
+    while ((channel = this.keptAlive.poll()) != null) {
+      RelayServer.close(channel);
+    }
+  }
+
+  private static void close(final SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // The only time this happens is if the
+      // channel is already closed.  Ignore.
+    }
   }
 
-  private synchronized void createAgent(final Socket socket) {
-    RelayAgent agent = new RelayAgent(RelayServer.agentThreads.size());
-    agent.setSocket(socket);
+  private synchronized void dispatchAgent(final SocketChannel channel) {
+    if (this.agents == null) {
+      this.agents =
+          new ThreadPoolExecutor(
+              MAX_AGENTS,
+              MAX_AGENTS,
+              AGENT_IDLE_SECONDS,
+              TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(MAX_WAITING),
+              RelayServer::createAgent);
+      this.agents.allowCoreThreadTimeOut(true);
+    }
+
+    try {
+      channel.configureBlocking(true);
+      channel.socket().setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+      this.agents.execute(() -> ((RelayAgent) Thread.currentThread()).serve(channel));
+    } catch (IOException | RejectedExecutionException e) {
+      // Every agent is busy and the backlog is full, or the connection is already broken
+      RelayServer.close(channel);
+    }
+  }
 
+  private static Thread createAgent(final Runnable pool) {
+    RelayAgent agent = new RelayAgent(RelayServer.agentCount.getAndIncrement(), pool);
     RelayServer.agentThreads.add(agent);
-    agent.start();
+    return agent;
   }
 
   public static final void addStatusMessage(final String message) {
@@ -401,23 +401,25 @@ public class StationaryButtonDecorator {
 
     buffer.insert(insertionPoint, actionBuffer);
 
-    StringUtilities.insertBefore(buffer, "</body>", "</div>");
+    PageEdits edits = new PageEdits();
+
+    edits.insertBefore("</body>", "</div>");
     // *** End of 'extra' div
 
-    StringUtilities.insertBefore(buffer, "</body>", "</div>");
+    edits.insertBefore("</body>", "</div>");
     // *** End of 'content_' div
 
-    StringUtilities.insertBefore(buffer, "</body>", "</div>");
+    edits.insertBefore("</body>", "</div>");
     // *** End of 'page' div
 
     if (useHotKeys) {
-      StringUtilities.insertBefore(
-          buffer, "</head>", "<script src=\"/" + KoLConstants.HOTKEYS_JS + "\"></script>");
-      StringUtilities.insertAfter(
-          buffer,
+      edits.insertBefore("</head>", "<script src=\"/" + KoLConstants.HOTKEYS_JS + "\"></script>");
+      edits.insertAfter(
           "<body",
           " onkeyup=\"handleCombatHotkey(event,false);\" onkeydown=\"handleCombatHotkey(event,true);\" ");
     }
+
+    edits.apply(buffer);
   }
 
   public static void addCombatButtons(
@@ -114,8 +114,12 @@ public class FakeHttpClient extends HttpClient {
 
   @Override
   public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> responseBodyHandler) {
-    this.requests.add(request);
-    var response = responseFunc == null ? responses.poll() : responseFunc.apply(request);
+    FakeHttpResponse<String> response;
+    // Requests may be sent from several threads at once
+    synchronized (this) {
+      this.requests.add(request);
+      response = responseFunc == null ? responses.poll() : responseFunc.apply(request);
+    }
 
     var responseCode = response != null ? response.statusCode() : 0;
     var headers = response != null ? response.rawHeaders() : new HashMap<String, List<String>>();
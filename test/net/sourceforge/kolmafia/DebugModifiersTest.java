@@ -396,7 +396,7 @@ public class DebugModifiersTest {
     try (var cleanups = withEquipped(ItemPool.HODGMANS_LOBSTERSKIN_PANTS)) {
       evaluateDebugModifiers(DoubleModifier.HOBO_POWER);
       assertThat(output(), containsDebugRow("Item", "Hodgman's lobsterskin pants", 25.0, 25.0));
-      assertThat(Modifiers.hoboPower, equalTo(25.0));
+      assertThat(Modifiers.getHoboPower(), equalTo(25.0));
     }
   }
 
@@ -405,7 +405,7 @@ public class DebugModifiersTest {
     try (var cleanups = withEffect(EffectPool.MERRY_SMITHSNESS)) {
       evaluateDebugModifiers(DoubleModifier.SMITHSNESS);
       assertThat(output(), containsDebugRow("Effect", "Merry Smithsness", 25.0, 25.0));
-      assertThat(Modifiers.smithsness, equalTo(25.0));
+      assertThat(Modifiers.getSmithsness(), equalTo(25.0));
     }
   }
 
@@ -7,6 +7,9 @@ import static internal.helpers.Player.withItemInCloset;
 import static internal.helpers.Player.withItemInStorage;
 import static internal.helpers.Player.withProperty;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -174,6 +177,72 @@ public class ExpressionTest {
     }
   }
 
+  @Nested
+  class Compilation {
+    @ParameterizedTest
+    @CsvSource({"'1+2*3', 7", "'(10/4)*2', 5", "'max(1,roman(XII))', 12", "'0.5*3', 1.5"})
+    void constantExpressionsReadNothing(String input, double expected) {
+      var exp = new ModifierExpression(input, input);
+      assertThat(exp.getDependencies(), empty());
+      assertThat(exp.eval(), is(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"'1+lte(1,2)', 2", "'1+gte(1,2)', 1", "'1+neq(1,2)', 2"})
+    void foldsComparisons(String input, double expected) {
+      var exp = new ModifierExpression(input, input);
+      // One value, then return
+      assertThat(exp.getBytecode().length(), is(2));
+      assertThat(exp.eval(), is(expected));
+    }
+
+    @Test
+    void recordsPreferencesRead() {
+      var exp = new Expression("pref(test)+pref(other,abc)", "two prefs");
+      assertThat(exp.getDependencies(), contains(Expression.Dependency.PREFERENCES));
+      assertThat(exp.getPreferences(), containsInAnyOrder("test", "other"));
+    }
+
+    @Test
+    void recordsOtherStateRead() {
+      var exp = new ModifierExpression("haveitem(2528)+effect(Fishy)+advsleft+L", "everything");
+      assertThat(
+          exp.getDependencies(),
+          containsInAnyOrder(
+              Expression.Dependency.INVENTORY,
+              Expression.Dependency.EFFECTS,
+              Expression.Dependency.TURNS,
+              Expression.Dependency.CHARACTER));
+    }
+
+    @Test
+    void preferenceExpressionsSeeChangedPreferences() {
+      var exp = new Expression("pref(test)*2", "pref(test)*2");
+
+      try (var cleanups = withProperty("test", 3)) {
+        assertThat(exp.eval(), is(6.0));
+        assertThat(exp.eval(), is(6.0));
+        Preferences.setInteger("test", 5);
+        assertThat(exp.eval(), is(10.0));
+      }
+    }
+
+    @Test
+    void combinedExpressionsKeepTheirLiterals() {
+      var cleanups =
+          new Cleanups(withProperty("test", 3), withItem(ItemPool.FILET_OF_TANGY_GNAT, 2));
+
+      try (cleanups) {
+        var exp = new ModifierExpression("pref(test)+0.5", "first");
+        exp.combine(new ModifierExpression("haveitem(2528)*100", "second"), '+');
+        assertThat(exp.eval(), is(203.5));
+        assertThat(
+            exp.getDependencies(),
+            containsInAnyOrder(Expression.Dependency.PREFERENCES, Expression.Dependency.INVENTORY));
+      }
+    }
+  }
+
   @Nested
   class Overrides {
     @Test
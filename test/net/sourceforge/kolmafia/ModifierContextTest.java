@@ -0,0 +1,49 @@
+package net.sourceforge.kolmafia;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import net.sourceforge.kolmafia.objectpool.EffectPool;
+import net.sourceforge.kolmafia.persistence.AdventureDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ModifierContextTest {
+  @BeforeAll
+  static void beforeAll() {
+    KoLCharacter.reset("ModifierContextTest");
+  }
+
+  @AfterEach
+  void afterEach() {
+    ModifierContext.release();
+    Modifiers.setLocation(null);
+    KoLConstants.activeEffects.clear();
+  }
+
+  @Test
+  void confinedThreadKeepsLocationOfSnapshot() {
+    Modifiers.setLocation(AdventureDatabase.getAdventureByName("The Haunted Pantry"));
+    var snapshot = ModifierContext.snapshot();
+    Modifiers.setLocation(AdventureDatabase.getAdventureByName("The Haunted Kitchen"));
+
+    ModifierContext.confine(snapshot);
+    assertThat(Modifiers.getCurrentLocation(), is("The Haunted Pantry"));
+
+    ModifierContext.release();
+    assertThat(Modifiers.getCurrentLocation(), is("The Haunted Kitchen"));
+  }
+
+  @Test
+  void confinedThreadKeepsEffectsOfSnapshot() {
+    var snapshot = ModifierContext.snapshot();
+    KoLConstants.activeEffects.add(EffectPool.get(EffectPool.LUCKY, 1));
+
+    ModifierContext.confine(snapshot);
+    assertThat(ModifierContext.current().getActiveEffects().isEmpty(), is(true));
+
+    ModifierContext.release();
+    assertThat(ModifierContext.current().getActiveEffects().size(), is(1));
+  }
+}
@@ -0,0 +1,126 @@
+package net.sourceforge.kolmafia;
+
+import static internal.helpers.Player.withPath;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.List;
+import net.sourceforge.kolmafia.AscensionPath.Path;
+import net.sourceforge.kolmafia.modifiers.DoubleModifier;
+import net.sourceforge.kolmafia.modifiers.Lookup;
+import net.sourceforge.kolmafia.modifiers.StringModifier;
+import net.sourceforge.kolmafia.persistence.ModifierDatabase;
+import net.sourceforge.kolmafia.preferences.Preferences;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ModifierSourceGroupTest {
+  @BeforeAll
+  static void beforeAll() {
+    KoLCharacter.reset("ModifierSourceGroupTest");
+    Preferences.reset("ModifierSourceGroupTest");
+  }
+
+  private static Modifiers constant(String name, String text) {
+    Modifiers mods = ModifierDatabase.parseModifiers(ModifierType.EFFECT, name, text);
+    mods.variable = false;
+    return mods;
+  }
+
+  @Test
+  void sumsConstantSources() {
+    var group = new ModifierSourceGroup(new Lookup(ModifierType.EFFECT, -1));
+    var first = constant("first", "Item Drop: +10");
+    var second = constant("second", "Item Drop: +15, Meat Drop: +5");
+
+    Modifiers target = new Modifiers();
+    group.addTo(target, List.of(first, second), false);
+
+    assertThat(target.getDouble(DoubleModifier.ITEMDROP), equalTo(25.0));
+    assertThat(target.getDouble(DoubleModifier.MEATDROP), equalTo(5.0));
+  }
+
+  @Test
+  void reflectsChangedSources() {
+    var group = new ModifierSourceGroup(new Lookup(ModifierType.EFFECT, -1));
+    var first = constant("first", "Item Drop: +10");
+    var second = constant("second", "Item Drop: +15");
+
+    Modifiers target = new Modifiers();
+    group.addTo(target, List.of(first, second), false);
+    assertThat(target.getDouble(DoubleModifier.ITEMDROP), equalTo(25.0));
+
+    target = new Modifiers();
+    group.addTo(target, List.of(first), false);
+    assertThat(target.getDouble(DoubleModifier.ITEMDROP), equalTo(10.0));
+  }
+
+  @Test
+  void matchesAddingEachSource() {
+    var group = new ModifierSourceGroup(new Lookup(ModifierType.EFFECT, -1));
+    var sources =
+        List.of(
+            constant("first", "Item Drop: +10, Muscle: +3"),
+            constant("second", "Item Drop: +15, Never Fumble"),
+            constant("third", "Muscle Percent: +20"));
+
+    Modifiers expected = new Modifiers();
+    sources.forEach(expected::add);
+
+    // Once to fill the cache, once to use it
+    group.addTo(new Modifiers(), sources, false);
+    Modifiers actual = new Modifiers();
+    group.addTo(actual, sources, false);
+
+    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
+      assertThat(mod.getName(), actual.getDouble(mod), equalTo(expected.getDouble(mod)));
+    }
+  }
+
+  @Test
+  void reflectsChangedCharacterState() {
+    var group = new ModifierSourceGroup(new Lookup(ModifierType.EFFECT, -1));
+    var sources = List.of(constant("first", "Muscle Experience: +3"));
+
+    Modifiers target = new Modifiers();
+    group.addTo(target, sources, false);
+    assertThat(target.getDouble(DoubleModifier.MUS_EXPERIENCE), equalTo(3.0));
+
+    try (var cleanups = withPath(Path.Z_IS_FOR_ZOOTOMIST)) {
+      target = new Modifiers();
+      group.addTo(target, sources, false);
+      assertThat(target.getDouble(DoubleModifier.MUS_EXPERIENCE), equalTo(0.0));
+    }
+  }
+
+  @Test
+  void addsSourcesInOrder() {
+    var group = new ModifierSourceGroup(new Lookup(ModifierType.EFFECT, -1));
+    var first = constant("first", "Stat Tuning: \"Moxie\"");
+    var second = constant("second", "Stat Tuning: \"Muscle\"");
+    second.variable = true;
+    var sources = List.of(first, second);
+
+    // Once to fill the cache, once to use it
+    for (int i = 0; i < 2; ++i) {
+      Modifiers target = new Modifiers();
+      group.addTo(target, sources, false);
+      assertThat(target.getString(StringModifier.STAT_TUNING), equalTo("Muscle"));
+    }
+  }
+
+  @Test
+  void clampsManaCostAsEachSourceIsAdded() {
+    var group = new ModifierSourceGroup(new Lookup(ModifierType.EFFECT, -1));
+    var sources = List.of(constant("first", "Mana Cost: -3"), constant("second", "Mana Cost: +1"));
+
+    // Once to fill the cache, once to use it
+    for (int i = 0; i < 2; ++i) {
+      Modifiers target = new Modifiers();
+      target.addDouble(DoubleModifier.MANA_COST, -1, ModifierType.EFFECT, "target");
+      group.addTo(target, sources, false);
+      // -1 - 3 is clamped to -3 before +1 is added
+      assertThat(target.getDouble(DoubleModifier.MANA_COST), equalTo(-2.0));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package net.sourceforge.kolmafia.listener;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sourceforge.kolmafia.listener.ListenerRegistry.Statistics;
+import org.junit.jupiter.api.Test;
+
+class ListenerRegistryTest {
+  private static class CountingListener implements Listener {
+    private final AtomicInteger updates = new AtomicInteger();
+
+    @Override
+    public void update() {
+      this.updates.incrementAndGet();
+    }
+
+    int updates() {
+      return this.updates.get();
+    }
+  }
+
+  private final ListenerRegistry registry = new ListenerRegistry();
+
+  @Test
+  void firesAtOnceWhenNotDeferred() {
+    var listener = new CountingListener();
+    registry.registerListener("a", listener);
+
+    registry.fireListener("a");
+    registry.fireListener("a");
+
+    assertThat(listener.updates(), equalTo(2));
+  }
+
+  @Test
+  void deliversDeferredKeyOnce() {
+    var listener = new CountingListener();
+    registry.registerListener("a", listener);
+
+    try (var ignored = registry.defer()) {
+      registry.fireListener("a");
+      registry.fireListener("a");
+      registry.fireListener("a");
+      assertThat(listener.updates(), equalTo(0));
+    }
+
+    assertThat(listener.updates(), equalTo(1));
+  }
+
+  @Test
+  void updatesListenerOnceForAllDeferredKeys() {
+    var listener = new CountingListener();
+    registry.registerListener("a", listener);
+    registry.registerListener("b", listener);
+
+    try (var ignored = registry.defer()) {
+      registry.fireListener("a");
+      registry.fireListener("b");
+    }
+
+    assertThat(listener.updates(), equalTo(1));
+  }
+
+  @Test
+  void deliversWhenOutermostDeferralCloses() {
+    var listener = new CountingListener();
+    registry.registerListener("a", listener);
+
+    try (var outer = registry.defer()) {
+      var inner = registry.defer();
+      registry.fireListener("a");
+      inner.close();
+      inner.close();
+      assertThat(listener.updates(), equalTo(0));
+    }
+
+    assertThat(listener.updates(), equalTo(1));
+  }
+
+  @Test
+  void defersAllListeners() {
+    var first = new CountingListener();
+    var second = new CountingListener();
+    registry.registerListener("a", first);
+    registry.registerListener("b", second);
+
+    try (var ignored = registry.defer()) {
+      registry.fireAllListeners();
+      registry.fireListener("a");
+    }
+
+    assertThat(first.updates(), equalTo(1));
+    assertThat(second.updates(), equalTo(1));
+  }
+
+  @Test
+  void countsFiresAndDeliveries() {
+    var listener = new CountingListener();
+    registry.registerListener("a", listener);
+
+    registry.fireListener("a");
+    try (var ignored = registry.defer()) {
+      registry.fireListener("a");
+      registry.fireListener("a");
+      registry.fireListener("unheard");
+    }
+
+    assertThat(registry.getStatistics(), equalTo(new Statistics(4, 2)));
+  }
+
+  @Test
+  void deliversKeysFiredOnOtherThreadsWhileDeferred() throws InterruptedException {
+    List<CountingListener> listeners = new ArrayList<>();
+    for (int i = 0; i < 8; ++i) {
+      var listener = new CountingListener();
+      listeners.add(listener);
+      registry.registerListener(i, listener);
+    }
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; ++i) {
+      final int key = i;
+      threads.add(
+          new Thread(
+              () -> {
+                for (int j = 0; j < 100; ++j) {
+                  try (var ignored = registry.defer()) {
+                    registry.fireListener(key);
+                  }
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (CountingListener listener : listeners) {
+      assertThat(listener.updates(), greaterThan(0));
+    }
+    assertThat(registry.getStatistics().fires(), equalTo(800L));
+  }
+}
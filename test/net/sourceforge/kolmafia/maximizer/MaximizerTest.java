@@ -896,7 +896,8 @@ public class MaximizerTest {
 
       try (cleanups) {
         assertEquals(
-            Environment.UNDERWATER, AdventureDatabase.getEnvironment(Modifiers.currentLocation));
+            Environment.UNDERWATER,
+            AdventureDatabase.getEnvironment(Modifiers.getCurrentLocation()));
         assertTrue(maximize("-combat -tie"));
 
         assertThat(getBoosts(), hasItem(recommendsSlot(Slot.HAT, "Mer-kin sneakmask")));
@@ -2250,6 +2251,30 @@ public class MaximizerTest {
         assertThat(getBoosts(), hasItem(hasProperty("cmd", startsWith("familiar Purse Rat"))));
       }
     }
+
+    @Test
+    public void parallelSearchFindsSameFamiliarAsSerial() {
+      var cleanups =
+          new Cleanups(
+              withProperty("maximizerParallelSearch", true),
+              withFamiliarInTerrarium(FamiliarPool.TRICK_TOT),
+              withFamiliarInTerrarium(FamiliarPool.HAND),
+              withFamiliarInTerrarium(FamiliarPool.MOSQUITO),
+              withItem(ItemPool.TRICK_TOT_UNICORN), // 5 adv with tot
+              withItem(ItemPool.TRICK_TOT_CANDY), // 0 adv
+              withItem(ItemPool.TIME_SWORD), // 3 adv with hand
+              withItem(ItemPool.SOLID_SHIFTING_TIME_WEIRDNESS) // 4 adv with any familiar
+              );
+
+      try (cleanups) {
+        assertTrue(
+            maximize(
+                "adv -weapon -offhand -tie +switch tot +switch disembodied hand +switch mosquito"));
+        assertThat(getBoosts(), hasItem(recommendsSlot(Slot.FAMILIAR, "li'l unicorn costume")));
+        assertThat(
+            getBoosts(), hasItem(hasProperty("cmd", startsWith("familiar Trick-or-Treating Tot"))));
+      }
+    }
   }
 
   @Nested
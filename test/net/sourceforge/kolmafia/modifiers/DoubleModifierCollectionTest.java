@@ -0,0 +1,106 @@
+package net.sourceforge.kolmafia.modifiers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DoubleModifierCollectionTest {
+  @Test
+  void unsetModifiersAreZero() {
+    var doubles = new DoubleModifierCollection();
+
+    assertThat(doubles.getDouble(DoubleModifier.ITEMDROP), equalTo(0.0));
+    assertThat(doubles.getList(DoubleModifier.EFFECT_DURATION), empty());
+  }
+
+  @Test
+  void setReportsChanges() {
+    var doubles = new DoubleModifierCollection();
+
+    assertThat(doubles.set(DoubleModifier.ITEMDROP, 10.0), is(true));
+    assertThat(doubles.set(DoubleModifier.ITEMDROP, 10.0), is(false));
+    assertThat(doubles.set(DoubleModifier.ITEMDROP, 0.0), is(true));
+    assertThat(doubles.getDouble(DoubleModifier.ITEMDROP), equalTo(0.0));
+  }
+
+  @Test
+  void multipleModifiersAppend() {
+    var doubles = new DoubleModifierCollection();
+
+    doubles.set(DoubleModifier.EFFECT_DURATION, 5.0);
+    doubles.set(DoubleModifier.EFFECT_DURATION, 10.0);
+    doubles.increment(DoubleModifier.EFFECT_DURATION, 2.0);
+
+    assertThat(doubles.getList(DoubleModifier.EFFECT_DURATION), contains(5.0, 12.0));
+    assertThat(doubles.getDouble(DoubleModifier.EFFECT_DURATION), equalTo(12.0));
+
+    assertThat(doubles.set(DoubleModifier.EFFECT_DURATION, List.of(5.0, 12.0)), is(false));
+    assertThat(doubles.set(DoubleModifier.EFFECT_DURATION, List.of()), is(true));
+    assertThat(doubles.getList(DoubleModifier.EFFECT_DURATION), empty());
+    assertThat(doubles.set(DoubleModifier.EFFECT_DURATION, List.of()), is(false));
+  }
+
+  @Test
+  void keepsValuesWhenGrowingDense() {
+    var doubles = new DoubleModifierCollection();
+    int count = DoubleModifierCollection.SPARSE_DOUBLES_MAX_SIZE * 2;
+
+    List<DoubleModifier> chosen = new ArrayList<>();
+    for (var mod : DoubleModifier.DOUBLE_MODIFIERS) {
+      if (!mod.isMultiple() && chosen.size() < count) chosen.add(mod);
+    }
+    // Set in reverse order, so that each value is inserted ahead of the others while sparse
+    for (int j = chosen.size() - 1; j >= 0; --j) {
+      doubles.set(chosen.get(j), j + 1);
+    }
+
+    for (int j = 0; j < chosen.size(); ++j) {
+      assertThat(doubles.getDouble(chosen.get(j)), equalTo(j + 1.0));
+    }
+
+    List<DoubleModifier> visited = new ArrayList<>();
+    doubles.forEach((mod, value) -> visited.add(mod));
+    assertThat(visited, equalTo(chosen));
+  }
+
+  @Test
+  void keepsValuesWhenRemovingWhileSparse() {
+    var doubles = new DoubleModifierCollection();
+    var mods =
+        List.of(
+            DoubleModifier.INITIATIVE,
+            DoubleModifier.EXPERIENCE,
+            DoubleModifier.ITEMDROP,
+            DoubleModifier.MEATDROP,
+            DoubleModifier.DAMAGE_ABSORPTION);
+
+    for (int j = mods.size() - 1; j >= 0; --j) {
+      doubles.set(mods.get(j), j + 1);
+    }
+    doubles.set(DoubleModifier.ITEMDROP, 0.0);
+    doubles.set(DoubleModifier.INITIATIVE, 0.0);
+    doubles.set(DoubleModifier.ITEMDROP, 6.0);
+
+    List<Double> values = new ArrayList<>();
+    doubles.forEach((mod, value) -> values.add(value));
+    assertThat(values, contains(2.0, 6.0, 4.0, 5.0));
+  }
+
+  @Test
+  void incrementKeepsZeroSums() {
+    var doubles = new DoubleModifierCollection();
+
+    doubles.set(DoubleModifier.MEATDROP, 5.0);
+    assertThat(doubles.increment(DoubleModifier.MEATDROP, -5.0), equalTo(0.0));
+
+    List<DoubleModifier> visited = new ArrayList<>();
+    doubles.forEach((mod, value) -> visited.add(mod));
+    assertThat(visited, contains(DoubleModifier.MEATDROP));
+  }
+}
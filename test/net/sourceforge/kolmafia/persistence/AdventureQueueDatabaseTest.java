@@ -0,0 +1,96 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.TreeMap;
+import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.utilities.RollingLinkedList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AdventureQueueDatabaseTest {
+  @BeforeAll
+  public static void beforeAll() {
+    KoLCharacter.reset("AdventureQueueDatabaseTest");
+  }
+
+  @BeforeEach
+  public void beforeEach() {
+    AdventureQueueDatabase.allowSerializationWrite = true;
+    AdventureQueueDatabase.resetQueue();
+  }
+
+  @AfterEach
+  public void afterEach() {
+    queueFile().delete();
+  }
+
+  private static File queueFile() {
+    return new File(KoLConstants.DATA_LOCATION, KoLCharacter.baseUserName() + "_queue.ser");
+  }
+
+  @Test
+  public void canSaveAndRestoreQueues() {
+    AdventureQueueDatabase.enqueue("The Haunted Pantry", "possessed can of tomatoes");
+    AdventureQueueDatabase.enqueue("The Haunted Pantry", "fiendish can of asparagus");
+    AdventureQueueDatabase.enqueueNoncombat("The Haunted Pantry", "Trick or Treat!");
+    AdventureQueueDatabase.serialize();
+
+    AdventureQueueDatabase.allowSerializationWrite = false;
+    AdventureQueueDatabase.resetQueue();
+    AdventureQueueDatabase.allowSerializationWrite = true;
+    assertThat(AdventureQueueDatabase.getZoneQueue("The Haunted Pantry"), empty());
+
+    AdventureQueueDatabase.deserialize();
+
+    assertThat(
+        AdventureQueueDatabase.getZoneQueue("The Haunted Pantry"),
+        contains("possessed can of tomatoes", "fiendish can of asparagus"));
+    assertThat(
+        AdventureQueueDatabase.getZoneNoncombatQueue("The Haunted Pantry"),
+        contains("Trick or Treat!"));
+    assertThat(AdventureQueueDatabase.getZoneQueue("The Haunted Kitchen"), empty());
+  }
+
+  @Test
+  public void canRestoreQueuesSavedBySerialization() throws IOException {
+    var combats = new TreeMap<String, RollingLinkedList<String>>();
+    var noncombats = new TreeMap<String, RollingLinkedList<String>>();
+    var pantry = new RollingLinkedList<String>(5);
+    pantry.add("possessed can of tomatoes");
+    combats.put("The Haunted Pantry", pantry);
+    noncombats.put("The Haunted Pantry", new RollingLinkedList<>(5));
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(queueFile()))) {
+      out.writeObject(List.of(combats, noncombats));
+    }
+
+    AdventureQueueDatabase.deserialize();
+
+    assertThat(
+        AdventureQueueDatabase.getZoneQueue("The Haunted Pantry"),
+        contains("possessed can of tomatoes"));
+    assertThat(AdventureQueueDatabase.getZoneQueue("The Haunted Kitchen"), empty());
+  }
+
+  @Test
+  public void resetsQueuesWhenFileIsUnrecognized() throws IOException {
+    AdventureQueueDatabase.enqueue("The Haunted Pantry", "possessed can of tomatoes");
+    Files.write(queueFile().toPath(), "not a queue".getBytes(StandardCharsets.UTF_8));
+
+    AdventureQueueDatabase.deserialize();
+
+    assertThat(AdventureQueueDatabase.getZoneQueue("The Haunted Pantry"), empty());
+  }
+}
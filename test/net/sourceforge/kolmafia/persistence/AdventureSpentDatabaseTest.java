@@ -3,6 +3,13 @@ package net.sourceforge.kolmafia.persistence;
 import static internal.helpers.Networking.html;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.TreeMap;
 import net.sourceforge.kolmafia.AdventureResult;
 import net.sourceforge.kolmafia.KoLAdventure;
 import net.sourceforge.kolmafia.KoLCharacter;
@@ -1205,4 +1212,92 @@ public class AdventureSpentDatabaseTest {
     assertFalse(AdventureSpentDatabase.getNoncombatEncountered());
     assertEquals(1333903, AdventureSpentDatabase.getLastTurnUpdated());
   }
+
+  private static File turnsFile() {
+    return new File(KoLConstants.DATA_LOCATION, KoLCharacter.baseUserName() + "_turns.ser");
+  }
+
+  @Test
+  public void canSaveAndRestoreTurns() {
+    try {
+      AdventureSpentDatabase.setTurns("The Haunted Pantry", 3);
+      AdventureSpentDatabase.setTurns("The Haunted Bedroom", 7);
+      AdventureSpentDatabase.serialize();
+
+      AdventureSpentDatabase.resetTurns(false);
+      AdventureSpentDatabase.deserialize();
+
+      assertEquals(3, AdventureSpentDatabase.getTurns("The Haunted Pantry", true));
+      assertEquals(7, AdventureSpentDatabase.getTurns("The Haunted Bedroom", true));
+      assertEquals(0, AdventureSpentDatabase.getTurns("The Haunted Kitchen", true));
+      assertEquals(10, AdventureSpentDatabase.getTotalTrackedTurns());
+    } finally {
+      turnsFile().delete();
+    }
+  }
+
+  @Test
+  public void canRestoreTurnsSavedBySerialization() throws IOException {
+    TreeMap<String, Integer> turns = new TreeMap<>();
+    turns.put("The Haunted Pantry", 4);
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(turnsFile()))) {
+      out.writeObject(turns);
+    }
+
+    try {
+      AdventureSpentDatabase.deserialize();
+
+      assertEquals(4, AdventureSpentDatabase.getTurns("The Haunted Pantry", true));
+      assertEquals(0, AdventureSpentDatabase.getTurns("The Haunted Bedroom", true));
+      assertEquals(4, AdventureSpentDatabase.getTotalTrackedTurns());
+    } finally {
+      turnsFile().delete();
+    }
+  }
+
+  @Test
+  public void resetsTurnsWhenFileIsTruncated() throws IOException {
+    try {
+      AdventureSpentDatabase.setTurns("The Haunted Pantry", 3);
+      AdventureSpentDatabase.setTurns("The Haunted Bedroom", 7);
+      AdventureSpentDatabase.serialize();
+
+      byte[] bytes = Files.readAllBytes(turnsFile().toPath());
+      Files.write(turnsFile().toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+
+      AdventureSpentDatabase.resetTurns(false);
+      AdventureSpentDatabase.deserialize();
+
+      assertEquals(0, AdventureSpentDatabase.getTurns("The Haunted Bedroom", true));
+      assertEquals(0, AdventureSpentDatabase.getTurns("The Haunted Pantry", true));
+      assertEquals(0, AdventureSpentDatabase.getTotalTrackedTurns());
+
+      // The bogus file was replaced with one that can be read
+      AdventureSpentDatabase.setTurns("The Haunted Pantry", 1);
+      AdventureSpentDatabase.deserialize();
+      assertEquals(0, AdventureSpentDatabase.getTurns("The Haunted Pantry", true));
+    } finally {
+      turnsFile().delete();
+    }
+  }
+
+  @Test
+  public void resetsTurnsWhenZoneNameIsMalformed() throws IOException {
+    try {
+      AdventureSpentDatabase.setTurns("The Haunted Pantry", 3);
+      AdventureSpentDatabase.serialize();
+
+      // Replace the first byte of the zone name with a stray continuation byte
+      byte[] bytes = Files.readAllBytes(turnsFile().toPath());
+      bytes[2 + 1 + 4 + 2] = (byte) 0x80;
+      Files.write(turnsFile().toPath(), bytes);
+
+      AdventureSpentDatabase.deserialize();
+
+      assertEquals(0, AdventureSpentDatabase.getTurns("The Haunted Pantry", true));
+      assertEquals(0, AdventureSpentDatabase.getTotalTrackedTurns());
+    } finally {
+      turnsFile().delete();
+    }
+  }
 }
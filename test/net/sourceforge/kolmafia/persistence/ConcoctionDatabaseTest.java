@@ -2,11 +2,18 @@ package net.sourceforge.kolmafia.persistence;
 
 import static internal.helpers.HttpClientWrapper.getRequests;
 import static internal.helpers.HttpClientWrapper.setupFakeClient;
+import static internal.helpers.Player.withAdventuresLeft;
 import static internal.helpers.Player.withItem;
+import static internal.helpers.Player.withProperty;
+import static internal.helpers.Player.withRange;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import internal.helpers.Cleanups;
 import net.sourceforge.kolmafia.KoLCharacter;
+import net.sourceforge.kolmafia.objectpool.ConcoctionPool;
 import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.preferences.Preferences;
 import net.sourceforge.kolmafia.session.ResultProcessor;
@@ -38,4 +45,60 @@ public class ConcoctionDatabaseTest {
       assertFalse(requests.isEmpty());
     }
   }
+
+  @Test
+  public void changedItemOnlyRecalculatesConcoctionsMadeFromIt() {
+    var cleanups =
+        new Cleanups(withItem(ItemPool.MEAT_PASTE, 2), withItem(ItemPool.ANCIENT_AMULET));
+
+    try (cleanups) {
+      ConcoctionDatabase.refreshConcoctionsNow();
+      var headpiece = ConcoctionPool.get(ItemPool.HEADPIECE_OF_ED);
+      var almost = ConcoctionPool.get(ItemPool.get("Staff of Ed, almost"));
+      assertThat(headpiece.creatable, equalTo(0));
+      assertThat(almost.creatable, equalTo(0));
+
+      // Not made from the Eye of Ed, so left alone until everything is recalculated
+      almost.creatable = -1;
+
+      try (var eye = withItem(ItemPool.EYE_OF_ED)) {
+        ConcoctionDatabase.setRefreshNeeded(ItemPool.EYE_OF_ED);
+        ConcoctionDatabase.refreshConcoctions(false);
+        assertThat(headpiece.creatable, equalTo(1));
+        assertThat(almost.creatable, equalTo(-1));
+
+        ConcoctionDatabase.refreshConcoctions();
+        assertThat(headpiece.creatable, equalTo(1));
+        assertThat(almost.creatable, equalTo(0));
+      }
+    }
+  }
+
+  @Test
+  public void changedBoxServantRecalculatesConcoctionsItPermits() {
+    var cleanups =
+        new Cleanups(
+            withRange(),
+            withAdventuresLeft(0),
+            withProperty("autoRepairBoxServants", true),
+            withProperty("requireBoxServants", true),
+            withProperty("autoSatisfyWithMall", false),
+            withProperty("autoSatisfyWithStash", false),
+            withItem("unfrosted Knob cake"),
+            withItem("Knob frosting"));
+
+    try (cleanups) {
+      ConcoctionDatabase.refreshConcoctionsNow();
+      var cake = ConcoctionPool.get(ItemPool.get("Knob cake"));
+      assertThat(ConcoctionDatabase.isPermittedMethod(cake), is(false));
+      assertThat(cake.creatable, equalTo(0));
+
+      try (var chef = withItem(ItemPool.CHEF)) {
+        ConcoctionDatabase.setRefreshNeeded(ItemPool.CHEF);
+        ConcoctionDatabase.refreshConcoctions(false);
+        assertThat(ConcoctionDatabase.isPermittedMethod(cake), is(true));
+        assertThat(cake.creatable, equalTo(1));
+      }
+    }
+  }
 }
@@ -0,0 +1,128 @@
+package net.sourceforge.kolmafia.persistence;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.persistence.DatabaseStartup.DataFile;
+import net.sourceforge.kolmafia.persistence.DatabaseStartup.Loader;
+import net.sourceforge.kolmafia.persistence.DatabaseStartup.Timing;
+import net.sourceforge.kolmafia.utilities.FileUtilities;
+import org.junit.jupiter.api.Test;
+
+class DatabaseStartupTest {
+  private static final List<String> initialized = new ArrayList<>();
+
+  static class First {
+    static {
+      initialized.add("first");
+    }
+  }
+
+  static class Second {
+    static {
+      initialized.add("second");
+    }
+  }
+
+  static class Third {
+    static {
+      initialized.add("third");
+    }
+  }
+
+  private static Loader loader(String name, Class<?> database, String... dependencies) {
+    return new Loader(name, database, List.of(), List.of(dependencies));
+  }
+
+  private static List<String[]> readAll(BufferedReader reader) throws IOException {
+    List<String[]> rows = new ArrayList<>();
+    try (reader) {
+      String[] row;
+      while ((row = FileUtilities.readData(reader)) != null) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  @Test
+  void initializesDatabasesAfterTheirDependencies() {
+    List<Timing> timings =
+        DatabaseStartup.load(
+            List.of(
+                loader("third", Third.class, "first", "second"),
+                loader("second", Second.class, "first"),
+                loader("first", First.class)),
+            Runnable::run);
+
+    assertThat(initialized, contains("first", "second", "third"));
+    assertThat(timings.stream().map(Timing::name).toList(), contains("first", "second", "third"));
+  }
+
+  @Test
+  void keepsDeclaredOrderOfIndependentDatabases() {
+    var ordered =
+        DatabaseStartup.inDependencyOrder(
+            List.of(
+                loader("b", Second.class),
+                loader("c", Third.class, "a"),
+                loader("a", First.class)));
+
+    assertThat(ordered.stream().map(Loader::name).toList(), contains("b", "a", "c"));
+  }
+
+  @Test
+  void rejectsCircularDependencies() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            DatabaseStartup.inDependencyOrder(
+                List.of(loader("a", First.class, "b"), loader("b", Second.class, "a"))));
+  }
+
+  @Test
+  void rejectsUnknownDependencies() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> DatabaseStartup.inDependencyOrder(List.of(loader("a", First.class, "b"))));
+  }
+
+  @Test
+  void declaresStartupDatabasesInDependencyOrder() {
+    var names = DatabaseStartup.LOADERS.stream().map(Loader::name).toList();
+
+    for (Loader loader : DatabaseStartup.LOADERS) {
+      for (String dependency : loader.dependencies()) {
+        assertThat(names.indexOf(dependency), lessThan(names.indexOf(loader.name())));
+      }
+    }
+  }
+
+  @Test
+  void readsPrefetchedFilesAsTheyWouldBeRead() throws IOException {
+    DataFile file = new DataFile("zapgroups.txt", KoLConstants.ZAPGROUPS_VERSION);
+    List<String[]> expected =
+        readAll(FileUtilities.getVersionedReader(file.filename(), file.version()));
+
+    try {
+      FileUtilities.prefetchVersionedData(file.filename(), file.version(), Runnable::run);
+      List<String[]> actual =
+          readAll(FileUtilities.getVersionedReader(file.filename(), file.version()));
+
+      assertThat(actual.size(), equalTo(expected.size()));
+      for (int i = 0; i < expected.size(); ++i) {
+        assertThat(actual.get(i), equalTo(expected.get(i)));
+      }
+    } finally {
+      FileUtilities.clearPrefetchedData();
+    }
+  }
+}
@@ -12,6 +12,7 @@ import static org.hamcrest.Matchers.startsWith;
 import internal.helpers.Utilities;
 import internal.network.FakeHttpClientBuilder;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import net.sourceforge.kolmafia.utilities.HttpUtilities;
@@ -77,4 +78,24 @@ public class MallPriceDatabaseTest {
     assertThat(lines[2], matchesPattern("^600\t\\d+\t5$"));
     assertThat(lines[3], matchesPattern("^607\t\\d+\t50$"));
   }
+
+  @Test
+  void writesOnlyChangedPrices() {
+    // Forget prices recorded by other tests
+    MallPriceDatabase.writeChangedPrices(new PrintStream(OutputStream.nullOutputStream()));
+
+    MallPriceDatabase.recordPrice(600, 6, true);
+    MallPriceDatabase.recordPrice(555, 555, true);
+
+    var baos = new ByteArrayOutputStream();
+    try (PrintStream writer = new PrintStream(baos, true, StandardCharsets.UTF_8)) {
+      MallPriceDatabase.writeChangedPrices(writer);
+      // Nothing has changed since
+      MallPriceDatabase.writeChangedPrices(writer);
+    }
+    var lines = baos.toString(StandardCharsets.UTF_8).split("\\r?\\n");
+    assertThat(lines, arrayWithSize(2));
+    assertThat(lines[0], matchesPattern("^555\t\\d+\t555$"));
+    assertThat(lines[1], matchesPattern("^600\t\\d+\t6$"));
+  }
 }
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -778,6 +779,161 @@ class PreferencesTest {
     }
   }
 
+  @Nested
+  class JournaledPreferences {
+    // Lowercase because of filenames
+    private final String USER_NAME = "PreferencesTestJournalUser".toLowerCase();
+    private final File userFile = new File("settings/" + USER_NAME + "_prefs.txt");
+    private final File backupFile = new File("settings/" + USER_NAME + "_prefs.bak");
+    private final File journalFile = new File("settings/" + USER_NAME + "_prefs.journal");
+
+    @BeforeEach
+    public void initializeCharPreferences() {
+      verboseDelete(userFile);
+      verboseDelete(backupFile);
+      verboseDelete(journalFile);
+      KoLCharacter.reset(USER_NAME);
+    }
+
+    @AfterEach
+    public void resetCharAndPreferences() {
+      deleteSerFiles(USER_NAME);
+      KoLCharacter.reset("");
+      verboseDelete(userFile);
+      verboseDelete(backupFile);
+      verboseDelete(journalFile);
+    }
+
+    private Cleanups withJournal() {
+      return new Cleanups(
+          withSavePreferencesToFile(),
+          withProperty("saveSettingsOnSet", true),
+          withProperty("saveSettingsJournal", true));
+    }
+
+    @Test
+    public void journalsChangesAfterFullSave() throws IOException {
+      try (var cleanups = withJournal()) {
+        Preferences.setString("xyz", "abc");
+        Preferences.setString("wxy", "def");
+
+        String contents = Files.readString(userFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(contents, containsString("\nxyz=abc\n"));
+        assertThat(contents, not(containsString("wxy=def")));
+        assertThat(
+            Files.readString(journalFile.toPath(), StandardCharsets.UTF_8),
+            containsString("wxy=def"));
+
+        Preferences.reset("");
+      }
+    }
+
+    @Test
+    public void replaysJournalOnLoad() throws IOException {
+      try (var cleanups = withJournal()) {
+        Preferences.setString("xyz", "abc");
+        Preferences.setString("wxy", "def");
+        Preferences.setString("wxy", "ghi");
+        Preferences.removeProperty("xyz", false);
+
+        Preferences.reset(USER_NAME);
+        assertEquals("ghi", Preferences.getString("wxy"));
+        assertFalse(Preferences.propertyExists("xyz", false));
+
+        // Logging out writes everything and deletes the journal
+        Preferences.reset("");
+        assertFalse(journalFile.exists());
+        String contents = Files.readString(userFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(contents, containsString("\nwxy=ghi\n"));
+        assertThat(contents, not(containsString("xyz=abc")));
+      }
+    }
+
+    @Test
+    public void ignoresJournalOfReplacedFile() throws IOException {
+      try (var cleanups = withJournal()) {
+        Preferences.setString("wxy", "def");
+        Preferences.setString("wxy", "old");
+        byte[] staleJournal = Files.readAllBytes(journalFile.toPath());
+
+        Preferences.reset(USER_NAME);
+        Preferences.setString("wxy", "new");
+        Preferences.reset("");
+
+        // As if a crash had left the journal behind after the file was replaced
+        Files.write(journalFile.toPath(), staleJournal);
+        Preferences.reset(USER_NAME);
+        assertEquals("new", Preferences.getString("wxy"));
+
+        Preferences.reset("");
+      }
+    }
+
+    @Test
+    public void leavesNoTemporaryFile() {
+      try (var cleanups = withJournal()) {
+        Preferences.setString("xyz", "abc");
+
+        assertTrue(userFile.exists());
+        assertFalse(new File("settings/" + USER_NAME + "_prefs.txt.tmp").exists());
+
+        Preferences.reset("");
+      }
+    }
+
+    @Test
+    public void replaysJournalInTheCharsetItWasWrittenIn() throws IOException {
+      try (var cleanups = withJournal()) {
+        Preferences.setString("xyz", "abc");
+        Preferences.setString("wxy", "def");
+        Files.writeString(
+            journalFile.toPath(),
+            "wxy=caf\u00e9\n",
+            StandardCharsets.UTF_8,
+            StandardOpenOption.APPEND);
+
+        Preferences.reset(USER_NAME);
+        assertEquals("caf\u00e9", Preferences.getString("wxy"));
+
+        Preferences.reset("");
+      }
+    }
+
+    @Test
+    public void savesEachChangeWithoutJournal() throws IOException {
+      try (var cleanups =
+          new Cleanups(
+              withSavePreferencesToFile(),
+              withProperty("saveSettingsOnSet", true),
+              withProperty("saveSettingsJournal", false))) {
+        Preferences.setString("xyz", "abc");
+        Preferences.setString("wxy", "def");
+
+        String contents = Files.readString(userFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(contents, containsString("\nxyz=abc\n"));
+        assertThat(contents, containsString("\nwxy=def\n"));
+        assertFalse(journalFile.exists());
+
+        Preferences.reset("");
+      }
+    }
+
+    @Test
+    public void ignoresIncompleteJournalLine() throws IOException {
+      try (var cleanups = withJournal()) {
+        Preferences.setString("xyz", "abc");
+        Preferences.setString("wxy", "def");
+        Files.writeString(
+            journalFile.toPath(), "wxy=ghi", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        Preferences.reset(USER_NAME);
+        assertEquals("def", Preferences.getString("wxy"));
+
+        Preferences.reset("");
+      }
+    }
+  }
+
   @Nested
   class AvoidsPartialSaveCorruption {
     // Lowercase because of filenames
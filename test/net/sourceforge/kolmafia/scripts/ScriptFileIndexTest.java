@@ -0,0 +1,92 @@
+package net.sourceforge.kolmafia.scripts;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScriptFileIndexTest {
+  @TempDir Path root;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    create("top.ash");
+    create("b-project/lib.ash");
+    create("a-project/lib.ash");
+    create("a-project/sub/lib.ash");
+    create(".git/lib.ash");
+  }
+
+  @AfterEach
+  void afterEach() {
+    ScriptFileIndex.of(root.toFile()).close();
+  }
+
+  private void create(String name) throws IOException {
+    Path path = root.resolve(name);
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, "");
+  }
+
+  private File file(String name) {
+    return new File(root.toFile(), name);
+  }
+
+  @Test
+  void findsFilesInTreeOrder() {
+    var index = ScriptFileIndex.of(root.toFile());
+
+    assertThat(
+        index.find("lib.ash"),
+        contains(
+            file("a-project/lib.ash"), file("a-project/sub/lib.ash"), file("b-project/lib.ash")));
+  }
+
+  @Test
+  void findsFilesBySubdirectory() {
+    var index = ScriptFileIndex.of(root.toFile());
+
+    assertThat(index.find("sub/lib.ash"), contains(file("a-project/sub/lib.ash")));
+    assertThat(index.find("a-project/lib.ash"), contains(file("a-project/lib.ash")));
+    assertThat(index.find("top.ash"), contains(file("top.ash")));
+  }
+
+  @Test
+  void doesNotFindDirectoriesOrMissingFiles() {
+    var index = ScriptFileIndex.of(root.toFile());
+
+    assertThat(index.find("sub"), empty());
+    assertThat(index.find("missing.ash"), empty());
+  }
+
+  @Test
+  void doesNotFindDeletedFiles() throws IOException {
+    var index = ScriptFileIndex.of(root.toFile());
+    assertThat(index.find("top.ash"), contains(file("top.ash")));
+
+    Files.delete(root.resolve("top.ash"));
+
+    assertThat(index.find("top.ash"), empty());
+  }
+
+  @Test
+  void keepsOneIndexPerTree() {
+    var index = ScriptFileIndex.of(root.toFile());
+
+    assertThat(ScriptFileIndex.of(root.toFile()), sameInstance(index));
+    assertThat(ScriptFileIndex.of(new File(root.toFile(), ".")), sameInstance(index));
+
+    index.close();
+    assertThat(ScriptFileIndex.of(root.toFile()), not(sameInstance(index)));
+  }
+}
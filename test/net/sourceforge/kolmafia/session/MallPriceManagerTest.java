@@ -8,6 +8,7 @@ import static internal.helpers.Player.withNextResponse;
 import static internal.helpers.Player.withProperty;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -20,6 +21,7 @@ import static org.mockito.Mockito.mockStatic;
 import internal.helpers.Cleanups;
 import internal.network.FakeHttpClientBuilder;
 import internal.network.FakeHttpResponse;
+import internal.network.RequestBodyReader;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.Month;
@@ -780,6 +782,47 @@ public class MallPriceManagerTest {
     }
   }
 
+  @Test
+  public void canGetMallPricesForSeveralItemsAtOnce() {
+    var builder = new FakeHttpClientBuilder();
+    var client = builder.client;
+    var reader = new RequestBodyReader();
+    client.setResponseFunc(
+        request -> {
+          String body = reader.bodyAsString(request);
+          String page = body.contains("ramen") ? "hell_ramen" : "sprocket";
+          return new FakeHttpResponse<>(200, html("request/test_mall_search_" + page + ".html"));
+        });
+
+    AdventureResult ramen = ItemPool.get(ItemPool.HELL_RAMEN);
+    AdventureResult sprocket = ItemPool.get(ItemPool.SPROCKET);
+    AdventureResult[] items = {ramen, sprocket};
+
+    try (var cleanups =
+        new Cleanups(
+            withHttpClientBuilder(builder),
+            withProperty("mallPriceSearchLimit", 2),
+            withProperty("mallPriceSearchInterval", 0))) {
+      int count = MallPriceManager.getMallPrices(items, 0.0f);
+      assertEquals(2, count);
+      assertEquals(2, client.getRequests().size());
+
+      for (AdventureResult item : items) {
+        int itemId = item.getItemId();
+        List<PurchaseRequest> search = MallPriceManager.getSavedSearch(itemId, 0);
+        assertNotNull(search);
+        assertEquals(60, search.size());
+
+        long price = MallPriceManager.getMallPrice(itemId);
+        assertThat(price, greaterThan(0L));
+        assertEquals(MallPriceDatabase.getPrice(itemId), price);
+      }
+
+      // Prices came from the searches already made
+      assertEquals(2, client.getRequests().size());
+    }
+  }
+
   @Test
   public void canSearchMallStore() {
     // Not actually used in MallPriceManager, but may as well test the fourth
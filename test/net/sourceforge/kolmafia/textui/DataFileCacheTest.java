@@ -0,0 +1,122 @@
+package net.sourceforge.kolmafia.textui;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.textui.parsetree.AggregateType;
+import net.sourceforge.kolmafia.textui.parsetree.CompositeType;
+import net.sourceforge.kolmafia.textui.parsetree.MapValue;
+import net.sourceforge.kolmafia.textui.parsetree.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DataFileCacheTest {
+  private static final String FILENAME = "DataFileCacheTest.txt";
+  private static final AggregateType TYPE =
+      new AggregateType(
+          new AggregateType(DataTypes.INT_TYPE, DataTypes.STRING_TYPE), DataTypes.STRING_TYPE);
+
+  private final AshRuntime runtime = new AshRuntime();
+
+  @BeforeEach
+  void beforeEach() {
+    DataFileCache.clearCache();
+  }
+
+  @AfterEach
+  void afterEach() {
+    new File(KoLConstants.DATA_LOCATION, FILENAME).delete();
+    DataFileCache.clearCache();
+  }
+
+  private MapValue write(final String... keys) {
+    var map = new MapValue(TYPE);
+    for (String key : keys) {
+      var inner = new MapValue((AggregateType) TYPE.getDataType());
+      inner.aset(new Value("count"), new Value(key.length()));
+      map.aset(new Value(key), inner);
+    }
+    RuntimeLibrary.map_to_file(runtime, map, new Value(FILENAME));
+    return map;
+  }
+
+  private MapValue read() {
+    var map = new MapValue(TYPE);
+    RuntimeLibrary.file_to_map(runtime, new Value(FILENAME), map);
+    return map;
+  }
+
+  private static long count(final MapValue map, final String key) {
+    return ((MapValue) map.aref(new Value(key))).aref(new Value("count")).intValue();
+  }
+
+  @Test
+  void readingAgainGivesAnUnsharedCopy() {
+    write("one", "three");
+
+    var first = read();
+    ((MapValue) first.aref(new Value("one"))).aset(new Value("count"), new Value(100));
+    first.remove(new Value("three"), runtime);
+
+    var second = read();
+    assertThat(second.count(), is(2));
+    assertThat(count(second, "one"), is(3L));
+    assertThat(count(second, "three"), is(5L));
+  }
+
+  @Test
+  void writingTheFileReplacesWhatWasRead() {
+    write("one");
+    assertThat(read().count(), is(1));
+
+    write("one", "three");
+    var map = read();
+    assertThat(map.count(), is(2));
+    assertThat(count(map, "three"), is(5L));
+  }
+
+  private static CompositeType declaredType(final String script) throws InterruptedException {
+    var parser =
+        new Parser(null, new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), null);
+    return (CompositeType) parser.parse().findVariable("data").getType();
+  }
+
+  @Test
+  void sharesWhatWasReadBetweenScripts() throws InterruptedException {
+    write("one", "three");
+    var first = declaredType("int [string, string] data;");
+    var second = declaredType("int [string, string] data;");
+    assertThat(second, not(sameInstance(first)));
+
+    var map = (MapValue) first.initialValue();
+    RuntimeLibrary.file_to_map(runtime, new Value(FILENAME), map);
+
+    var key = DataFileCache.getParsedKey(FILENAME, second, true);
+    assertThat(DataFileCache.getParsed(key), notNullValue());
+  }
+
+  @Test
+  void keepsWhatWasReadIntoOtherTypesApart() throws InterruptedException {
+    write("one", "three");
+    var read = declaredType("int [string, string] data;");
+    var other = declaredType("string [string, string] data;");
+    var record = declaredType("record r { int count; }; r [string] data;");
+
+    var map = (MapValue) read.initialValue();
+    RuntimeLibrary.file_to_map(runtime, new Value(FILENAME), map);
+
+    assertThat(
+        DataFileCache.getParsed(DataFileCache.getParsedKey(FILENAME, other, true)), nullValue());
+    assertThat(
+        DataFileCache.getParsed(DataFileCache.getParsedKey(FILENAME, record, true)), nullValue());
+  }
+}
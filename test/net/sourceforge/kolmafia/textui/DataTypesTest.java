@@ -1,7 +1,15 @@
 package net.sourceforge.kolmafia.textui;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import net.sourceforge.kolmafia.objectpool.EffectPool;
+import net.sourceforge.kolmafia.objectpool.FamiliarPool;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import net.sourceforge.kolmafia.objectpool.SkillPool;
+import net.sourceforge.kolmafia.persistence.MonsterDatabase;
 import net.sourceforge.kolmafia.textui.parsetree.Value;
 import org.junit.jupiter.api.Test;
 
@@ -12,4 +20,41 @@ class DataTypesTest {
     Value parsed = DataTypes.parseLocationValue(name, false);
     assertEquals(name, parsed.toString());
   }
+
+  @Test
+  public void itShouldShareValuesOfTheSameId() {
+    Value item = DataTypes.makeItemValue(ItemPool.SEAL_TOOTH, true);
+    assertThat(DataTypes.makeItemValue(ItemPool.SEAL_TOOTH, true), sameInstance(item));
+    assertThat(DataTypes.parseItemValue("seal tooth", true), sameInstance(item));
+
+    Value skill = DataTypes.makeSkillValue(SkillPool.ODE_TO_BOOZE, true);
+    assertThat(DataTypes.parseSkillValue("The Ode to Booze", true), sameInstance(skill));
+
+    Value effect = DataTypes.makeEffectValue(EffectPool.LEASH_OF_LINGUINI, true);
+    assertThat(DataTypes.parseEffectValue("Leash of Linguini", true), sameInstance(effect));
+
+    Value familiar = DataTypes.makeFamiliarValue(FamiliarPool.MOSQUITO, true);
+    assertThat(DataTypes.parseFamiliarValue("Mosquito", true), sameInstance(familiar));
+  }
+
+  @Test
+  public void itShouldRenameSharedValuesWhenNamesAreDuplicated() {
+    var first = MonsterDatabase.registerMonster("twice-registered interning monster", 999991);
+    Value value = DataTypes.makeMonsterValue(first);
+    assertThat(value.toString(), is("twice-registered interning monster"));
+    assertThat(DataTypes.makeMonsterValue(first), sameInstance(value));
+
+    var second = MonsterDatabase.registerMonster("twice-registered interning monster", 999992);
+    try {
+      assertThat(
+          DataTypes.makeMonsterValue(first).toString(),
+          is("[999991]twice-registered interning monster"));
+      assertThat(
+          DataTypes.makeMonsterValue(second).toString(),
+          is("[999992]twice-registered interning monster"));
+    } finally {
+      MonsterDatabase.unregisterMonster(first);
+      MonsterDatabase.unregisterMonster(second);
+    }
+  }
 }
@@ -133,4 +133,46 @@ public class JavaScriptCommandTest extends AbstractCommandTestBase {
               """));
     }
   }
+
+  @Nested
+  class SharedScope {
+    @Test
+    public void globalsDoNotOutliveTheirScript() {
+      execute("var leaked = 1");
+      String output = execute("typeof leaked");
+
+      assertThat(output, startsWith("Returned: undefined"));
+    }
+
+    @Test
+    public void standardObjectsCanBeExtendedWithinTheirScript() {
+      String output = execute("Array.prototype.polyfilled = () => 'yes'; [].polyfilled()");
+
+      assertThat(output, startsWith("Returned: yes"));
+      assertThat(execute("typeof [].polyfilled"), startsWith("Returned: undefined"));
+    }
+
+    @Test
+    public void globalThisIsTheScriptScope() {
+      String output = execute("globalThis.assigned = 'yes'; this.other = 'too'; assigned + other");
+
+      assertThat(output, startsWith("Returned: yestoo"));
+      assertThat(execute("typeof assigned"), startsWith("Returned: undefined"));
+    }
+
+    @Test
+    public void enumeratedTypesAreShared() {
+      String output = execute("Item.get('seal tooth') === Item.get('seal tooth')");
+
+      assertThat(output, startsWith("Returned: true"));
+    }
+
+    @Test
+    public void sessionStorageIsSharedBetweenCommands() {
+      execute("sessionStorage.setItem('shared', 'yes')");
+      String output = execute("sessionStorage.getItem('shared')");
+
+      assertThat(output, startsWith("Returned: yes"));
+    }
+  }
 }
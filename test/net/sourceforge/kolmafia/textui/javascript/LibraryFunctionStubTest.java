@@ -60,7 +60,7 @@ public class LibraryFunctionStubTest {
       String script, String ashFunction, Object[] args, String expectedException) {
     try {
       var runtime = new JavascriptRuntime(script);
-      runtime.initRuntimeLibrary(cx, scope, null);
+      JavascriptRuntime.initRuntimeLibrary(cx, scope);
       var stub =
           new LibraryFunctionStub(
               scope, ScriptableObject.getFunctionPrototype(scope), runtime, ashFunction);
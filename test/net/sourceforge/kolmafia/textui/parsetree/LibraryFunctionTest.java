@@ -3,14 +3,18 @@ package net.sourceforge.kolmafia.textui.parsetree;
 import static internal.helpers.Player.withContinuationState;
 import static internal.helpers.Player.withTurnsPlayed;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import internal.helpers.Cleanups;
 import net.sourceforge.kolmafia.KoLConstants;
+import net.sourceforge.kolmafia.objectpool.SkillPool;
 import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes;
 import net.sourceforge.kolmafia.textui.RuntimeLibrary;
+import net.sourceforge.kolmafia.textui.ScriptException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -52,4 +56,35 @@ class LibraryFunctionTest {
       assertThat(result, nullValue());
     }
   }
+
+  @Test
+  void executeWithSeveralArguments() {
+    var substring = allFunctions.findFunctions("substring");
+    var function = substring[0].getVariableReferences().size() == 3 ? substring[0] : substring[1];
+    var result =
+        function.execute(
+            runtime, new Object[] {runtime, new Value("kolmafia"), new Value(1), new Value(4)});
+
+    assertThat(result.toString(), is("olm"));
+  }
+
+  @Test
+  void executeFunctionWithNarrowerReturnType() {
+    var toEffects = allFunctions.findFunctions("to_effects")[0];
+    var ode = DataTypes.makeSkillValue(SkillPool.ODE_TO_BOOZE, true);
+    var result = toEffects.execute(runtime, new Object[] {runtime, ode});
+
+    assertThat(result, instanceOf(ArrayValue.class));
+    assertThat(result.count(), is(1));
+  }
+
+  @Test
+  void executePassesUpScriptExceptions() {
+    var substring = allFunctions.findFunctions("substring");
+    var function = substring[0].getVariableReferences().size() == 2 ? substring[0] : substring[1];
+
+    assertThrows(
+        ScriptException.class,
+        () -> function.execute(runtime, new Object[] {runtime, new Value("ash"), new Value(10)}));
+  }
 }
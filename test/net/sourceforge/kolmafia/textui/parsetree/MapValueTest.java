@@ -0,0 +1,113 @@
+package net.sourceforge.kolmafia.textui.parsetree;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ConcurrentModificationException;
+import net.sourceforge.kolmafia.textui.AshRuntime;
+import net.sourceforge.kolmafia.textui.DataTypes;
+import org.junit.jupiter.api.Test;
+
+class MapValueTest {
+  private final AshRuntime runtime = new AshRuntime();
+
+  private static MapValue map(final Type indexType, final boolean caseInsensitive) {
+    return new MapValue(
+        new AggregateType(DataTypes.INT_TYPE, indexType, caseInsensitive), caseInsensitive);
+  }
+
+  @Test
+  void intKeysAreInOrder() {
+    var map = map(DataTypes.INT_TYPE, false);
+    for (int key : new int[] {30, -5, 1000, 7, 0}) {
+      map.aset(new Value(key), new Value(key * 2), runtime);
+    }
+
+    assertThat(
+        map.keys(),
+        arrayContaining(new Value(-5), new Value(0), new Value(7), new Value(30), new Value(1000)));
+    assertThat(map.aref(new Value(7), runtime), is(new Value(14)));
+    assertThat(map.aref(new Value(8), runtime), nullValue());
+  }
+
+  @Test
+  void manyIntKeysCanBeAddedAndRemoved() {
+    var map = map(DataTypes.INT_TYPE, false);
+    for (int key = 0; key < 1000; ++key) {
+      map.aset(new Value(key), new Value(key), runtime);
+    }
+    for (int key = 0; key < 1000; key += 2) {
+      map.remove(new Value(key), runtime);
+    }
+
+    assertThat(map.count(), is(500));
+    for (int key = 0; key < 1000; ++key) {
+      assertThat(map.contains(new Value(key)), is(key % 2 == 1));
+    }
+  }
+
+  @Test
+  void itemKeysAreFoundById() {
+    var map = map(DataTypes.ITEM_TYPE, false);
+    map.aset(DataTypes.makeItemValue(4, true), new Value(1), runtime);
+
+    assertThat(map.aref(DataTypes.makeItemValue(4, true), runtime), is(new Value(1)));
+    assertThat(map.aref(DataTypes.makeItemValue(5, true), runtime), nullValue());
+  }
+
+  @Test
+  void stringKeysAreInOrder() {
+    var map = map(DataTypes.STRING_TYPE, false);
+    for (String key : new String[] {"b", "B", "a", "c"}) {
+      map.aset(new Value(key), new Value(1), runtime);
+    }
+
+    assertThat(
+        map.keys(),
+        arrayContaining(new Value("B"), new Value("a"), new Value("b"), new Value("c")));
+  }
+
+  @Test
+  void caseInsensitiveKeysKeepTheirFirstSpelling() {
+    var map = map(DataTypes.STRING_TYPE, true);
+    map.aset(new Value("Hello"), new Value(1), runtime);
+    map.aset(new Value("HELLO"), new Value(2), runtime);
+
+    assertThat(map.count(), is(1));
+    assertThat(map.aref(new Value("hello"), runtime), is(new Value(2)));
+    assertThat(map.keys()[0].toString(), is("Hello"));
+  }
+
+  @Test
+  void addingKeysWhileIteratingFails() {
+    var map = map(DataTypes.INT_TYPE, false);
+    map.aset(new Value(1), new Value(1), runtime);
+    map.aset(new Value(2), new Value(2), runtime);
+
+    var iterator = map.iterator();
+    iterator.next();
+    map.aset(new Value(3), new Value(3), runtime);
+
+    assertThrows(ConcurrentModificationException.class, iterator::next);
+  }
+
+  @Test
+  void keysCanBeRemovedWhileIterating() {
+    var map = map(DataTypes.INT_TYPE, false);
+    for (int key = 0; key < 10; ++key) {
+      map.aset(new Value(key), new Value(key), runtime);
+    }
+
+    var iterator = map.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().intValue() % 3 != 0) {
+        iterator.remove();
+      }
+    }
+
+    assertThat(map.keys(), arrayContaining(new Value(0), new Value(3), new Value(6), new Value(9)));
+  }
+}
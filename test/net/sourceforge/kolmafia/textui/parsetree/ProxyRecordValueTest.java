@@ -9,8 +9,10 @@ import static org.hamcrest.Matchers.is;
 import internal.helpers.Cleanups;
 import net.sourceforge.kolmafia.KoLCharacter;
 import net.sourceforge.kolmafia.objectpool.AdventurePool;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
 import net.sourceforge.kolmafia.persistence.AdventureDatabase;
 import net.sourceforge.kolmafia.persistence.AdventureSpentDatabase;
+import net.sourceforge.kolmafia.textui.AshRuntime;
 import net.sourceforge.kolmafia.textui.DataTypes;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -102,4 +104,34 @@ public class ProxyRecordValueTest {
       }
     }
   }
+
+  @Nested
+  class FieldReads {
+    private final AshRuntime runtime = new AshRuntime();
+
+    private Value field(final ProxyRecordValue proxy, final String name) {
+      return proxy.aref(new Value(name), runtime);
+    }
+
+    @Test
+    public void readsEachKindOfGetter() {
+      var item = new ProxyRecordValue.ItemProxy(DataTypes.makeItemValue(ItemPool.SEAL_TOOTH, true));
+
+      assertThat(field(item, "id"), is(DataTypes.makeIntValue(ItemPool.SEAL_TOOTH)));
+      assertThat(field(item, "name"), is(new Value("seal tooth")));
+      assertThat(field(item, "tradeable"), is(DataTypes.TRUE_VALUE));
+      assertThat(field(item, "levelreq"), is(DataTypes.makeIntValue(0)));
+      assertThat(field(item, "seller"), is(DataTypes.COINMASTER_INIT));
+    }
+
+    @Test
+    public void readsTheSameFieldOfDifferentValues() {
+      var tooth =
+          new ProxyRecordValue.ItemProxy(DataTypes.makeItemValue(ItemPool.SEAL_TOOTH, true));
+      var toaster = new ProxyRecordValue.ItemProxy(DataTypes.makeItemValue(ItemPool.TOASTER, true));
+
+      assertThat(field(tooth, "name"), is(new Value("seal tooth")));
+      assertThat(field(toaster, "name"), is(new Value("toaster")));
+    }
+  }
 }
@@ -0,0 +1,53 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class CharBufferUtilitiesTest {
+
+  @Test
+  void decodesLongTextWithCharactersSplitAcrossReads() throws IOException {
+    // Larger than both buffers, with three-byte characters at every offset
+    var text = "aé€".repeat(40000);
+    var bytes = text.getBytes(StandardCharsets.UTF_8);
+
+    assertThat(CharBufferUtilities.readString(new ByteArrayInputStream(bytes)), equalTo(text));
+  }
+
+  @Test
+  void replacesMalformedInputLikeString() throws IOException {
+    byte[] bytes = {'a', (byte) 0xC3, 'b', (byte) 0xFF, (byte) 0xE2, (byte) 0x82};
+
+    assertThat(
+        CharBufferUtilities.readString(new ByteArrayInputStream(bytes)),
+        equalTo(new String(bytes, StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void reusesBuffersBetweenCalls() throws IOException {
+    var first = "first response".getBytes(StandardCharsets.UTF_8);
+    var second = "second".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(
+        CharBufferUtilities.readString(new ByteArrayInputStream(first)),
+        equalTo("first response"));
+    assertThat(CharBufferUtilities.readString(new ByteArrayInputStream(second)), equalTo("second"));
+  }
+
+  @Test
+  void decodesResponsesLargerThanRetainedBuffer() throws IOException {
+    var large = "x".repeat(300 * 1024);
+    var small = "small".getBytes(StandardCharsets.UTF_8);
+
+    assertThat(
+        CharBufferUtilities.readString(
+            new ByteArrayInputStream(large.getBytes(StandardCharsets.UTF_8))),
+        equalTo(large));
+    assertThat(CharBufferUtilities.readString(new ByteArrayInputStream(small)), equalTo("small"));
+  }
+}
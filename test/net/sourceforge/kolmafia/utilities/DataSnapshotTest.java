@@ -0,0 +1,84 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.sourceforge.kolmafia.KoLConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataSnapshotTest {
+  @TempDir Path root;
+
+  private DataSnapshot snapshot;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    Files.writeString(
+        root.resolve("things.txt"),
+        "3\n\n# id\tname\n1\tseal tooth\t\n2\tchewing gum on a string\tfirst, second\n");
+    Files.writeString(root.resolve("unversioned.txt"), "seal tooth\n");
+    Files.writeString(root.resolve("help.html"), "<p>3</p>\n");
+
+    ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+    DataSnapshot.write(root, ostream);
+    snapshot = DataSnapshot.load(new ByteArrayInputStream(ostream.toByteArray()));
+  }
+
+  @Test
+  void readsRowsAsTheTextIsRead() {
+    BufferedReader reader = snapshot.getRows("things.txt", 3);
+
+    assertThat(FileUtilities.readData(reader), arrayContaining("1", "seal tooth", ""));
+    assertThat(
+        FileUtilities.readData(reader),
+        arrayContaining("2", "chewing gum on a string", "first, second"));
+    assertThat(FileUtilities.readData(reader), nullValue());
+  }
+
+  @Test
+  void readsRowsAsLines() {
+    BufferedReader reader = snapshot.getRows("things.txt", 3);
+
+    assertThat(FileUtilities.readLine(reader), is("1\tseal tooth\t"));
+    assertThat(FileUtilities.readLine(reader), is("2\tchewing gum on a string\tfirst, second"));
+    assertThat(FileUtilities.readLine(reader), nullValue());
+  }
+
+  @Test
+  void readsOnlyTheVersionItHas() {
+    assertThat(snapshot.getRows("things.txt", 4), nullValue());
+  }
+
+  @Test
+  void holdsOnlyVersionedFiles() {
+    assertThat(snapshot.getRows("unversioned.txt", 0), nullValue());
+    assertThat(snapshot.getRows("help.html", 3), nullValue());
+  }
+
+  @Test
+  void cannotLoadOtherFiles() {
+    assertThrows(
+        IOException.class, () -> DataSnapshot.load(new ByteArrayInputStream("3\n".getBytes())));
+    assertThrows(
+        IOException.class,
+        () -> DataSnapshot.load(new ByteArrayInputStream("#\tnot a snapshot\n".getBytes())));
+  }
+
+  @Test
+  void readsTextOnceBuiltInIsReleased() {
+    DataSnapshot.releaseBuiltIn();
+
+    assertThat(DataSnapshot.getReader("items.txt", KoLConstants.ITEMS_VERSION), nullValue());
+  }
+}
@@ -0,0 +1,73 @@
+package net.sourceforge.kolmafia.utilities;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.List;
+import java.util.stream.Stream;
+import net.sourceforge.kolmafia.AdventureResult;
+import net.sourceforge.kolmafia.objectpool.ItemPool;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ItemCountListTest {
+  private static Stream<ItemCountList> lists() {
+    return Stream.of(new SortedItemListModel(), new SortedItemList());
+  }
+
+  @ParameterizedTest
+  @MethodSource("lists")
+  void countsItemsAsTheyChange(final ItemCountList list) {
+    list.add(ItemPool.get(ItemPool.SEAL_TOOTH, 1));
+    list.add(ItemPool.get(ItemPool.TOASTER, 2));
+    assertThat(list.getItemCount(ItemPool.SEAL_TOOTH), is(1));
+    assertThat(list.getItemCount(ItemPool.TOASTER), is(2));
+
+    AdventureResult.addResultToList(list, ItemPool.get(ItemPool.TOASTER, 3));
+    assertThat(list.getItemCount(ItemPool.TOASTER), is(5));
+
+    list.remove(ItemPool.get(ItemPool.SEAL_TOOTH, 1));
+    assertThat(list.getItemCount(ItemPool.SEAL_TOOTH), is(0));
+
+    list.clear();
+    assertThat(list.getItemCount(ItemPool.TOASTER), is(0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("lists")
+  void getCountUsesTheIndex(final ItemCountList list) {
+    list.addAll(List.of(ItemPool.get(ItemPool.SEAL_TOOTH, 4), ItemPool.get(ItemPool.TOASTER, 1)));
+
+    assertThat(ItemPool.get(ItemPool.SEAL_TOOTH).getCount(list), is(4));
+    assertThat(ItemPool.get(ItemPool.BEER_HELMET).getCount(list), is(0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("lists")
+  void setItemsChangesOnlyWhatDiffers(final ItemCountList list) {
+    AdventureResult tooth = ItemPool.get(ItemPool.SEAL_TOOTH, 1);
+    list.setItems(List.of(tooth, ItemPool.get(ItemPool.TOASTER, 1)));
+
+    list.setItems(
+        List.of(
+            ItemPool.get(ItemPool.SEAL_TOOTH, 1),
+            ItemPool.get(ItemPool.BEER_HELMET, 1),
+            ItemPool.get(ItemPool.TOASTER, 3)));
+
+    assertThat(
+        list,
+        contains(
+            ItemPool.get(ItemPool.BEER_HELMET, 1),
+            ItemPool.get(ItemPool.SEAL_TOOTH, 1),
+            ItemPool.get(ItemPool.TOASTER, 3)));
+    assertThat(list.get(1), sameInstance(tooth));
+    assertThat(list.getItemCount(ItemPool.TOASTER), is(3));
+
+    list.setItems(List.of(ItemPool.get(ItemPool.TOASTER, 3)));
+    assertThat(list, contains(ItemPool.get(ItemPool.TOASTER, 3)));
+    assertThat(list.getItemCount(ItemPool.SEAL_TOOTH), is(0));
+    assertThat(list.getItemCount(ItemPool.BEER_HELMET), is(0));
+  }
+}
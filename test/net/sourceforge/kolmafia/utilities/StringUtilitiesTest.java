@@ -677,6 +677,48 @@ class StringUtilitiesTest {
     assertEquals(0, results.size(), "Unexpected matches");
   }
 
+  private static String[] indexedNameList() {
+    String[] names = new String[300];
+    for (int i = 0; i < 296; ++i) {
+      names[i] = String.format("widget %03d", i);
+    }
+    names[296] = "chef-in-the-box";
+    names[297] = "seal tooth";
+    names[298] = "toothbrush";
+    names[299] = "big rock";
+    Arrays.sort(names);
+    return names;
+  }
+
+  @Test
+  public void itShouldFindTheSameMatchesInLargerArrays() {
+    String[] names = indexedNameList();
+
+    assertEquals(
+        List.of("seal tooth", "toothbrush"), StringUtilities.getMatchingNames(names, "tooth"));
+    assertEquals(
+        List.of("seal tooth", "toothbrush"), StringUtilities.getMatchingNames(names, "ooth"));
+    assertEquals(10, StringUtilities.getMatchingNames(names, "widget 01").size());
+    assertEquals(List.of("big rock"), StringUtilities.getMatchingNames(names, "k"));
+    assertEquals(List.of("chef-in-the-box"), StringUtilities.getMatchingNames(names, "in the box"));
+    assertEquals(List.of("big rock"), StringUtilities.getMatchingNames(names, "b r"));
+    assertTrue(StringUtilities.getMatchingNames(names, "gadget").isEmpty());
+  }
+
+  @Test
+  public void itShouldNotRememberMatchesInChangedArrays() {
+    String[] names = indexedNameList();
+    List<String> matches = StringUtilities.getMatchingNames(names, "rock");
+    assertEquals(List.of("big rock"), matches);
+    matches.clear();
+
+    assertEquals(List.of("big rock"), StringUtilities.getMatchingNames(names, "rock"));
+
+    names[Arrays.asList(names).indexOf("big rock")] = "big stone";
+    assertTrue(StringUtilities.getMatchingNames(names, "rock").isEmpty());
+    assertEquals(List.of("big stone"), StringUtilities.getMatchingNames(names, "stone"));
+  }
+
   @Test
   public void itShouldNotHavACanonicalNameForNull() {
     assertNull(StringUtilities.getCanonicalName(null));
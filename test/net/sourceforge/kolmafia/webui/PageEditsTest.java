@@ -0,0 +1,86 @@
+package net.sourceforge.kolmafia.webui;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.api.Test;
+
+class PageEditsTest {
+  private static String apply(final PageEdits edits, final String page) {
+    StringBuffer buffer = new StringBuffer(page);
+    edits.apply(buffer);
+    return buffer.toString();
+  }
+
+  @Test
+  void appliesEveryKindOfEdit() {
+    var edits = new PageEdits();
+    edits.insertBefore("</head>", "<script></script>");
+    edits.insertAfter("<body", " onload=x");
+    edits.singleStringReplace("blue", "red");
+    edits.globalStringReplace("<p>", "<br>");
+
+    assertThat(
+        apply(edits, "<head></head><body>blue<p>blue<p></body>"),
+        is("<head><script></script></head><body onload=x>red<br>blue<br></body>"));
+  }
+
+  @Test
+  void insertsAtTheSamePlaceInOrder() {
+    var edits = new PageEdits();
+    edits.insertBefore("</body>", "1");
+    edits.insertBefore("</body>", "2");
+    edits.insertAfter("<td>", "3");
+
+    assertThat(apply(edits, "<td></body></body>"), is("<td>123</body></body>"));
+  }
+
+  @Test
+  void findsAnchorsInsideOtherAnchors() {
+    var edits = new PageEdits();
+    edits.globalStringReplace("potion</b>", "potion of X</b>");
+    edits.globalStringReplace("dy>", "DY>");
+    edits.insertBefore("b>", "!");
+
+    assertThat(
+        apply(edits, "<b>potion</b><body>potion</b>"),
+        is("<!b>potion of X</b><boDY>potion of X</b>"));
+  }
+
+  @Test
+  void replacesMatchesWhichDoNotOverlap() {
+    var edits = new PageEdits();
+    edits.globalStringReplace("aa", "b");
+
+    assertThat(apply(edits, "aaaaa"), is("bba"));
+  }
+
+  @Test
+  void dropsEditsInsideReplacedText() {
+    var edits = new PageEdits();
+    edits.singleStringReplace("Red, White", "Flag");
+    edits.singleStringReplace("White and Blue", "Sky");
+
+    assertThat(apply(edits, "Red, White and Blue"), is("Flag and Blue"));
+  }
+
+  @Test
+  void replacesNameBeforePluralWhichStartsWithIt() {
+    // As in sequence: once the name is replaced, the plural is no longer found
+    var edits = new PageEdits();
+    edits.globalStringReplace("bubbly potion", "bubbly potion of X");
+    edits.globalStringReplace("bubbly potions", "bubbly potions of X");
+
+    assertThat(
+        apply(edits, "bubbly potion, bubbly potions"),
+        is("bubbly potion of X, bubbly potion of Xs"));
+  }
+
+  @Test
+  void leavesPageWithoutAnchorsAlone() {
+    var edits = new PageEdits();
+    edits.singleStringReplace("</html>", "");
+
+    assertThat(apply(edits, "<body></body>"), is("<body></body>"));
+  }
+}
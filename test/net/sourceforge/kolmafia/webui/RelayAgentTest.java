@@ -3,14 +3,22 @@ package net.sourceforge.kolmafia.webui;
 import static internal.helpers.Player.withPasswordHash;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -90,4 +98,53 @@ class RelayAgentTest {
       }
     }
   }
+
+  private static String[] relayOverConnection(String request, boolean reusable)
+      throws IOException {
+    try (var server =
+            ServerSocketChannel.open()
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        var client = SocketChannel.open(server.getLocalAddress());
+        var accepted = server.accept()) {
+      client.socket().getOutputStream().write(request.getBytes(StandardCharsets.UTF_8));
+      agent.setSocket(accepted.socket());
+      assertThat(agent.performRelay(), is(reusable));
+
+      // Read through the end of the headers
+      var response = new StringBuilder();
+      var input = client.socket().getInputStream();
+      while (!response.toString().endsWith("\r\n\r\n")) {
+        response.append((char) input.read());
+      }
+      return response.toString().split("\r\n");
+    }
+  }
+
+  @Test
+  void performRelayKeepsConnectionAlive() throws IOException {
+    var cleanups = withPasswordHash("xxxx");
+    try (cleanups) {
+      var result =
+          relayOverConnection(
+              "GET /KoLmafia/sideCommand?pwd=xxxx&cmd=echo hi HTTP/1.1\r\n"
+                  + "Host: localhost\r\n\r\n",
+              true);
+      assertThat(
+          Arrays.asList(result),
+          hasItems("HTTP/1.1 302 Found", "Content-Length: 0", "Connection: keep-alive"));
+    }
+  }
+
+  @Test
+  void performRelayClosesConnectionOnRequest() throws IOException {
+    var cleanups = withPasswordHash("xxxx");
+    try (cleanups) {
+      var result =
+          relayOverConnection(
+              "GET /KoLmafia/sideCommand?pwd=xxxx&cmd=echo hi HTTP/1.1\r\n"
+                  + "Connection: close\r\n\r\n",
+              false);
+      assertThat(Arrays.asList(result), not(hasItems("Connection: keep-alive")));
+    }
+  }
 }